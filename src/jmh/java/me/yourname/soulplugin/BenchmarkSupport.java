@@ -0,0 +1,38 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// 벤치마크 공통 준비 코드
+final class BenchmarkSupport {
+    static final Logger LOGGER = Logger.getLogger("SoulPluginBenchmark");
+
+    private BenchmarkSupport() {
+    }
+
+    // 플러그인에 포함된 기본 rewards.yml로 만든 보상 표
+    static RewardTable defaultRewards() {
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(new InputStreamReader(
+                Objects.requireNonNull(BenchmarkSupport.class.getResourceAsStream("/rewards.yml")), StandardCharsets.UTF_8));
+        return RewardTable.compile(yaml, LOGGER);
+    }
+
+    // 임시 폴더 정리
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * onBlockBreak의 보상 판정 비용 측정. (보상 표 조회만. 이벤트 전체 경로는 BlockBreakListenerBenchmark)
+ * <p>
+ * 서버에서 부서지는 블록 대부분은 보상이 없는 블록이므로, nonRewardBlock이 baseline과 거의 같고
+ * gc 프로파일러의 gc.alloc.rate.norm이 0 B/op이어야 합니다. (./gradlew jmh)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBreakBenchmark {
+
+    // 실제 서버에서 가장 많이 부서지는 블록들 (개수는 2의 거듭제곱)
+    private static final Material[] NON_REWARD = {
+            Material.STONE, Material.DEEPSLATE, Material.DIRT, Material.GRASS_BLOCK,
+            Material.NETHERRACK, Material.ANDESITE, Material.GRAVEL, Material.OAK_LOG
+    };
+    private static final Material[] REWARD = {
+            Material.COAL_ORE, Material.DEEPSLATE_IRON_ORE, Material.DIAMOND_ORE, Material.ANCIENT_DEBRIS,
+            Material.WHEAT, Material.CARROTS, Material.MELON, Material.NETHER_WART
+    };
+    private static final int MASK = NON_REWARD.length - 1;
+
+    private RewardTable rewards;
+    private int index;
+
+    @Setup
+    public void setup() {
+        rewards = BenchmarkSupport.defaultRewards();
+    }
+
+    // 블록 종류를 고르는 비용만 (비교 기준)
+    @Benchmark
+    public Material baseline() {
+        return NON_REWARD[index++ & MASK];
+    }
+
+    // 돌/흙 등: 배열 한 칸 읽고 null이면 끝
+    @Benchmark
+    public RewardTable.BlockReward nonRewardBlock() {
+        return rewards.block(NON_REWARD[index++ & MASK]);
+    }
+
+    @Benchmark
+    public RewardTable.BlockReward rewardBlock() {
+        return rewards.block(REWARD[index++ & MASK]);
+    }
+}
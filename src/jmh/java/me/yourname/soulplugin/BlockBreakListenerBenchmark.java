@@ -0,0 +1,82 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MockBukkit 서버에 플러그인을 실제로 올리고 onBlockBreak 전체 경로를 측정합니다.
+ * (보상 블록은 설치 기록 확인 + 영혼 적립 + 저널 기록 + 알림 누적까지 포함. 획득 한도를 다 쓴 뒤에는 한도 확인까지)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBreakListenerBenchmark {
+
+    private ServerMock server;
+    private SoulPlugin plugin;
+    private BlockBreakEvent stoneBreak;
+    private BlockBreakEvent oreBreak;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(SoulPlugin.class);
+        PlayerMock player = server.addPlayer();
+        // 접속 시 비동기 로드 -> 메인 스레드 적용까지 진행
+        server.getScheduler().performTicks(1);
+        server.getScheduler().waitAsyncTasksFinished();
+        server.getScheduler().performTicks(1);
+
+        WorldMock world = server.addSimpleWorld("benchmark");
+        Block stone = world.getBlockAt(0, 64, 0);
+        stone.setType(Material.STONE);
+        Block ore = world.getBlockAt(1, 64, 0);
+        ore.setType(Material.COAL_ORE);
+        stoneBreak = new BlockBreakEvent(stone, player);
+        oreBreak = new BlockBreakEvent(ore, player);
+    }
+
+    // 반복마다 저널/알림 타이머를 돌려 큐가 계속 쌓이지 않게 함
+    @TearDown(Level.Iteration)
+    public void tick() {
+        server.getScheduler().performTicks(40L); // SoulPlugin.JOURNAL_FLUSH_TICKS
+        server.getScheduler().waitAsyncTasksFinished();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public void nonRewardBlock() {
+        plugin.onBlockBreak(stoneBreak);
+    }
+
+    @Benchmark
+    public void rewardBlock() {
+        plugin.onBlockBreak(oreBreak);
+    }
+}
@@ -0,0 +1,52 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 몬스터 처치 보상 계산 (레벨 결정 + 레벨별 영혼 수, 이전의 getSoulAmountByLevel)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonsterRewardBenchmark {
+
+    private RewardTable rewards;
+
+    @Setup
+    public void setup() {
+        rewards = BenchmarkSupport.defaultRewards();
+    }
+
+    // 하급 (첫 구간)
+    @Benchmark
+    public int zombie() {
+        return rewards.rollMonsterSouls(EntityType.ZOMBIE);
+    }
+
+    // 정예 (마지막 구간까지 탐색)
+    @Benchmark
+    public int wither() {
+        return rewards.rollMonsterSouls(EntityType.WITHER);
+    }
+
+    // rewards.yml에 없는 몬스터 (기본 레벨)
+    @Benchmark
+    public int unlisted() {
+        return rewards.rollMonsterSouls(EntityType.PIG);
+    }
+}
@@ -0,0 +1,108 @@
+package me.yourname.soulplugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 저장/로드 한 사이클 비용. (saveSoulsData: 스냅샷 캡처 + upsert, 로드: 저장소 열기 + 전체 읽기)
+ * 모든 플레이어가 변경된 최악의 경우를 측정하며, 저장소 종류와 플레이어 수별로 비교합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int players;
+
+    @Param({"yaml", "sqlite", "binary"})
+    public String storageType;
+
+    private Path dir;
+    private SoulStorage storage;
+    private final Map<UUID, PlayerSouls> resident = new HashMap<>();
+    private int journalSeq;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("soulplugin-bench");
+        storage = open();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < players; i++) {
+            PlayerSouls souls = new PlayerSouls(UUID.randomUUID(), null);
+            for (SoulCategory category : SoulCategory.VALUES) {
+                souls.setSoul(category, random.nextLong(1_000_000));
+            }
+            resident.put(souls.owner(), souls);
+        }
+        storage.upsert(SoulSnapshot.captureDirty(resident, ++journalSeq)); // load 측정용 초기 데이터
+    }
+
+    // 매 저장 전에 모든 플레이어를 변경 상태로 (측정 시간에 포함되지 않음)
+    @Setup(Level.Invocation)
+    public void touchAll() {
+        for (PlayerSouls souls : resident.values()) {
+            souls.addSoul(SoulCategory.MINING, 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        storage.close();
+        BenchmarkSupport.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public int save() throws IOException {
+        SoulSnapshot snapshot = SoulSnapshot.captureDirty(resident, ++journalSeq);
+        storage.upsert(snapshot);
+        return snapshot.size();
+    }
+
+    @Benchmark
+    public int load() throws IOException {
+        SoulStorage fresh = open();
+        Map<UUID, PlayerSouls> loaded = new HashMap<>(players * 2);
+        fresh.loadAll((uuid, values) -> {
+            PlayerSouls souls = new PlayerSouls(uuid, null);
+            souls.load(values);
+            loaded.put(uuid, souls);
+        });
+        fresh.close();
+        return loaded.size();
+    }
+
+    private SoulStorage open() throws IOException {
+        SoulStorage opened = switch (storageType) {
+            case "sqlite" -> new SqliteSoulStorage(new File(dir.toFile(), "souls.db"), BenchmarkSupport.LOGGER);
+            case "binary" -> new BinarySoulStorage(dir.toFile(), BenchmarkSupport.LOGGER);
+            default -> new YamlSoulStorage(new File(dir.toFile(), "souls.yml"), BenchmarkSupport.LOGGER);
+        };
+        opened.open();
+        return opened;
+    }
+}
@@ -0,0 +1,69 @@
+package me.yourname.soulplugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PlayerSouls 조회/변경 비용. (저널 없이 카운터 자체만)
+ * contended*는 여러 스레드(Folia 지역 스레드 가정)가 같은 플레이어를 동시에 변경하는 경우입니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerSoulsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final PlayerSouls souls = new PlayerSouls(UUID.randomUUID(), null);
+    }
+
+    private PlayerSouls souls;
+
+    @Setup
+    public void setup() {
+        souls = new PlayerSouls(UUID.randomUUID(), null);
+    }
+
+    @Benchmark
+    public long getSouls() {
+        return souls.getSouls(SoulCategory.MINING);
+    }
+
+    @Benchmark
+    public void addSoul() {
+        souls.addSoul(SoulCategory.MINING, 1);
+    }
+
+    @Benchmark
+    public boolean addAndRedeem() {
+        souls.addSoul(SoulCategory.HUNTING, 2);
+        return souls.tryRedeem(SoulCategory.HUNTING, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contendedAddSoul(Shared shared) {
+        shared.souls.addSoul(SoulCategory.MINING, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long contendedGetSouls(Shared shared) {
+        return shared.souls.getSouls(SoulCategory.MINING);
+    }
+}
@@ -0,0 +1,298 @@
+package me.yourname.soulplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * 이진 스냅샷 저장소 (souls.&lt;세대&gt;.dat).
+ * <p>
+ * 형식 (빅 엔디언):
+ * <pre>
+ * 헤더 32바이트: 매직 "SOUL"(int) | 버전(int) | 분야 수(int) | 저널 번호(int) | 플레이어 수(int) | 예약(int) | CRC32C(long)
+ * 레코드:       UUID 상위(long) | UUID 하위(long) | 분야별 값(long × 분야 수)   - UUID 순으로 정렬, 고정 길이
+ * </pre>
+ * CRC32C는 레코드 영역 전체의 체크섬입니다.
+ * <p>
+ * 열 때는 파일을 MappedByteBuffer로 매핑만 하고, 플레이어 한 명 조회(load)는 매핑된 파일에서 바로 이진 탐색합니다.
+ * 힙에 따로 올리지 않으므로 시작이 빠르고 플레이어 수와 관계없이 힙을 거의 쓰지 않습니다.
+ * <p>
+ * upsert는 기존 레코드와 스냅샷을 정렬 병합하여 다음 세대 파일을 FileChannel로 새로 쓰고(임시 파일 + rename), 그 파일을 다시 매핑합니다.
+ * 매핑된 파일은 (특히 Windows에서) 덮어쓰거나 지울 수 없으므로 파일 이름에 세대 번호를 붙이며,
+ * 직전 세대 하나는 수동 복구용으로 남겨 두고 그보다 오래된 세대는 지웁니다.
+ */
+final class BinarySoulStorage implements SoulStorage {
+    private static final int MAGIC = 0x534F554C; // "SOUL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int CHECKSUM_OFFSET = 24;
+    private static final int RECORD_SIZE = 16 + 8 * SoulCategory.COUNT;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String PREFIX = "souls.";
+    private static final String SUFFIX = ".dat";
+
+    // UUID.compareTo와 관계없이 파일의 정렬 순서를 고정 (부호 있는 비교, 상위 -> 하위)
+    private static final Comparator<UUID> ORDER = Comparator.comparingLong(UUID::getMostSignificantBits)
+            .thenComparingLong(UUID::getLeastSignificantBits);
+
+    // 매핑된 세대 하나. buffer가 null이면 빈 저장소
+    private record Generation(int number, MappedByteBuffer buffer, int categories, int recordSize, int count, int journalSeq) {
+        static final Generation EMPTY = new Generation(0, null, SoulCategory.COUNT, RECORD_SIZE, 0, 0);
+
+        long msb(int index) {
+            return buffer.getLong(HEADER_SIZE + index * recordSize);
+        }
+
+        long lsb(int index) {
+            return buffer.getLong(HEADER_SIZE + index * recordSize + 8);
+        }
+
+        long[] values(int index) {
+            long[] values = new long[SoulCategory.COUNT];
+            int base = HEADER_SIZE + index * recordSize + 16;
+            for (int c = 0; c < Math.min(categories, SoulCategory.COUNT); c++) { // 이후 버전에서 분야가 늘거나 줄어도 읽을 수 있음
+                values[c] = Math.max(buffer.getLong(base + c * 8), 0);
+            }
+            return values;
+        }
+
+        // 없으면 -1
+        int find(long m, long l) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midM = msb(mid);
+                int c = midM != m ? Long.compare(midM, m) : Long.compare(lsb(mid), l);
+                if (c == 0) return mid;
+                if (c < 0) low = mid + 1;
+                else high = mid - 1;
+            }
+            return -1;
+        }
+    }
+
+    private final File directory;
+    private final Logger logger;
+    private volatile Generation current = Generation.EMPTY;
+    private volatile long bytesWritten; // upsert(synchronized)에서만 증가
+
+    BinarySoulStorage(File directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        Generation generation = current;
+        return "Binary (" + (generation.number() == 0 ? PREFIX + "dat" : file(generation.number()).getName()) + ")";
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("플러그인 데이터 폴더 생성 실패: " + directory.getPath());
+        }
+        int[] generations = listGenerations();
+        if (generations.length == 0) {
+            current = Generation.EMPTY;
+            return;
+        }
+        // 가장 최근 세대가 손상되었으면 예전 세대로 조용히 되돌리지 않음 (그 사이 저널이 이미 정리되었을 수 있음)
+        current = map(generations[generations.length - 1]);
+    }
+
+    private Generation map(int number) throws IOException {
+        File file = file(number);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) throw corrupted(file, "헤더가 잘렸습니다.");
+            if (channel.size() > Integer.MAX_VALUE) throw corrupted(file, "파일이 너무 큽니다.");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // 채널을 닫아도 매핑은 유지됨
+        }
+        if (buffer.getInt(0) != MAGIC) throw corrupted(file, "souls.dat 형식이 아닙니다.");
+        int version = buffer.getInt(4);
+        if (version != VERSION) throw corrupted(file, "지원하지 않는 버전 " + version + "입니다.");
+        int categories = buffer.getInt(8);
+        int journalSeq = buffer.getInt(12);
+        int count = buffer.getInt(16);
+        if (categories <= 0 || count < 0) throw corrupted(file, "헤더 값이 잘못되었습니다.");
+        int recordSize = 16 + 8 * categories;
+        if ((long) count * recordSize != buffer.capacity() - HEADER_SIZE) {
+            throw corrupted(file, "레코드 수(" + count + ")와 파일 크기가 맞지 않습니다.");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if (crc.getValue() != buffer.getLong(CHECKSUM_OFFSET)) throw corrupted(file, "체크섬이 맞지 않습니다.");
+        if (categories != SoulCategory.COUNT) {
+            logger.warning(file.getName() + "의 분야 수(" + categories + ")가 현재(" + SoulCategory.COUNT + ")와 다릅니다. 다음 저장 시 현재 형식으로 다시 씁니다.");
+        }
+        return new Generation(number, buffer, categories, recordSize, count, journalSeq);
+    }
+
+    private static IOException corrupted(File file, String reason) {
+        return new IOException(file.getName() + " 파일이 손상되었습니다: " + reason);
+    }
+
+    @Override
+    public int journalSeq() {
+        return current.journalSeq();
+    }
+
+    @Override
+    public int count() {
+        return current.count();
+    }
+
+    @Override
+    public void loadAll(BiConsumer<UUID, long[]> consumer) {
+        Generation generation = current;
+        for (int i = 0; i < generation.count(); i++) {
+            consumer.accept(new UUID(generation.msb(i), generation.lsb(i)), generation.values(i));
+        }
+    }
+
+    @Override
+    public long[] load(UUID uuid) {
+        Generation generation = current;
+        int index = generation.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return index < 0 ? null : generation.values(index);
+    }
+
+    @Override
+    public synchronized void upsert(SoulSnapshot snapshot) throws IOException {
+        Generation previous = current;
+        Integer[] order = new Integer[snapshot.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing(snapshot::uuid, ORDER));
+
+        int number = previous.number() + 1;
+        Path target = file(number).toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            CRC32C crc = new CRC32C();
+            channel.position(HEADER_SIZE); // 헤더는 체크섬을 계산한 뒤에 씀
+
+            // 기존 레코드(정렬됨)와 스냅샷(정렬됨)을 병합. 같은 플레이어는 스냅샷 값으로
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < previous.count() || j < order.length) {
+                int c;
+                if (i == previous.count()) {
+                    c = 1;
+                } else if (j == order.length) {
+                    c = -1;
+                } else {
+                    UUID next = snapshot.uuid(order[j]);
+                    long m = previous.msb(i);
+                    c = m != next.getMostSignificantBits() ? Long.compare(m, next.getMostSignificantBits())
+                            : Long.compare(previous.lsb(i), next.getLeastSignificantBits());
+                }
+                if (buffer.remaining() < RECORD_SIZE) drain(channel, buffer, crc);
+                if (c < 0) {
+                    buffer.putLong(previous.msb(i)).putLong(previous.lsb(i));
+                    long[] values = previous.values(i);
+                    for (long value : values) buffer.putLong(value);
+                    i++;
+                } else {
+                    int index = order[j];
+                    UUID uuid = snapshot.uuid(index);
+                    buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+                    for (int category = 0; category < SoulCategory.COUNT; category++) {
+                        buffer.putLong(snapshot.value(index, category));
+                    }
+                    if (c == 0) i++;
+                    j++;
+                }
+                count++;
+            }
+            drain(channel, buffer, crc);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(SoulCategory.COUNT).putInt(snapshot.journalSeq())
+                    .putInt(count).putInt(0).putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            channel.force(true);
+            size = channel.size();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        bytesWritten += size;
+        current = map(number);
+        deleteOlderThan(number - 1);
+    }
+
+    // 버퍼 내용을 체크섬에 더하고 채널에 씀 (채널 position 기준으로 이어 씀)
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // 직전 세대는 남겨 둠. 아직 매핑이 해제되지 않아 지우지 못한 파일은 다음 저장 때 다시 시도
+    private void deleteOlderThan(int keep) {
+        for (int generation : listGenerations()) {
+            if (generation >= keep) break;
+            File file = file(generation);
+            if (!file.delete()) {
+                logger.fine("이전 스냅샷 삭제 보류: " + file.getName());
+            }
+        }
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public synchronized void close() {
+        current = Generation.EMPTY; // 매핑은 GC 시 해제됨
+    }
+
+    private File file(int generation) {
+        return new File(directory, PREFIX + generation + SUFFIX);
+    }
+
+    private int[] listGenerations() {
+        String[] names = directory.list();
+        if (names == null) return new int[0];
+        return Arrays.stream(names)
+                .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                .mapToInt(name -> {
+                    try {
+                        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                    } catch (NumberFormatException e) {
+                        return -1;
+                    }
+                })
+                .filter(generation -> generation > 0)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,49 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executor;
+
+// 일반 Paper/Spigot 서버용: 기존 Bukkit 스케줄러 사용
+final class BukkitSoulScheduler implements SoulScheduler {
+    private final Plugin plugin;
+    private final Executor async;
+    private final Executor global;
+
+    BukkitSoulScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        this.async = task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+        this.global = task -> Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public String name() {
+        return "Bukkit";
+    }
+
+    @Override
+    public Executor async() {
+        return async;
+    }
+
+    @Override
+    public Executor global() {
+        return global;
+    }
+
+    @Override
+    public void runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public void runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public void cancelAll() {
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+}
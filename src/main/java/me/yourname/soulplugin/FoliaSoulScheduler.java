@@ -0,0 +1,55 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// Folia 서버용: 글로벌 리전 스케줄러와 비동기 스케줄러 사용 (Paper 1.20+ API라 Paper에서도 컴파일/동작 가능)
+final class FoliaSoulScheduler implements SoulScheduler {
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final Plugin plugin;
+    private final Executor async;
+    private final Executor global;
+
+    FoliaSoulScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        this.async = task -> Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+        this.global = task -> Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    @Override
+    public String name() {
+        return "Folia";
+    }
+
+    @Override
+    public Executor async() {
+        return async;
+    }
+
+    @Override
+    public Executor global() {
+        return global;
+    }
+
+    @Override
+    public void runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        Bukkit.getAsyncScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                delayTicks * MILLIS_PER_TICK, periodTicks * MILLIS_PER_TICK, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        // 글로벌 리전 스케줄러는 지연이 1틱 이상이어야 함
+        Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(), Math.max(delayTicks, 1L), periodTicks);
+    }
+
+    @Override
+    public void cancelAll() {
+        Bukkit.getGlobalRegionScheduler().cancelTasks(plugin);
+        Bukkit.getAsyncScheduler().cancelTasks(plugin);
+    }
+}
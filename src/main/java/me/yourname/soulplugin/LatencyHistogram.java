@@ -0,0 +1,81 @@
+package me.yourname.soulplugin;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 소요 시간(나노초) 히스토그램. HDR 히스토그램처럼 2의 거듭제곱 구간마다 8칸으로 나누어 상대 오차 12.5% 이내로 기록합니다.
+ * record()는 객체를 만들지 않으며 여러 스레드에서 동시에 호출해도 됩니다.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS; // 구간당 칸 수
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_COUNT + SUB_COUNT;
+
+    // 조회용 요약 (단위: 나노초)
+    record Summary(long count, double mean, long p50, long p90, long p99, long max) {
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(index(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    // 시작 시각(System.nanoTime())부터 지금까지
+    void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    Summary summary() {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        long n = count.sum();
+        return new Summary(n, n == 0 ? 0 : (double) sum.sum() / n,
+                percentile(snapshot, total, 0.50), percentile(snapshot, total, 0.90), percentile(snapshot, total, 0.99), max.get());
+    }
+
+    private static long percentile(long[] snapshot, long total, double quantile) {
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= target) return upperBound(i);
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    // 값 -> 칸 번호. 8 미만은 그대로, 그 이상은 (최상위 비트 위치, 그 아래 3비트)로
+    private static int index(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    // 칸에 들어가는 가장 큰 값
+    private static long upperBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        int sub = index % SUB_COUNT;
+        long lower = (long) (SUB_COUNT + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
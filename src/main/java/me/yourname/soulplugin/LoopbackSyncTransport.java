@@ -0,0 +1,68 @@
+package me.yourname.soulplugin;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 같은 JVM 안에서만 메시지를 주고받는 전송 계층. 프록시나 다른 서버 없이 동기화를 시험할 때 사용합니다.
+ * <p>
+ * 같은 Hub에 연결된 transport끼리 메시지를 주고받으며, 실제 네트워크처럼 보낸 스레드가 아닌 Hub의 전달 스레드에서
+ * 보낸 순서대로 수신자를 호출합니다. (서버 하나에서 sync.transport: loopback이면 받을 상대가 없어 아무 일도 일어나지 않음)
+ */
+final class LoopbackSyncTransport implements SyncTransport {
+
+    // 가상의 프록시. 연결된 모든 transport에 전달
+    static final class Hub {
+        private final List<Consumer<byte[]>> receivers = new CopyOnWriteArrayList<>();
+        private final ExecutorService delivery = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "SoulPlugin-SyncLoopback");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        void publish(byte[] message) {
+            if (delivery.isShutdown()) return;
+            delivery.execute(() -> {
+                for (Consumer<byte[]> receiver : receivers) {
+                    receiver.accept(message.clone()); // 수신자마다 별도 사본 (실제 전송과 동일)
+                }
+            });
+        }
+
+        void shutdown() {
+            delivery.shutdown();
+        }
+    }
+
+    private final Hub hub;
+    private Consumer<byte[]> receiver;
+
+    LoopbackSyncTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public String name() {
+        return "loopback";
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        hub.receivers.add(receiver);
+    }
+
+    @Override
+    public void publish(byte[] message) {
+        hub.publish(message);
+    }
+
+    @Override
+    public void close() {
+        if (receiver != null) hub.receivers.remove(receiver);
+        if (hub.receivers.isEmpty()) hub.shutdown(); // 마지막 연결이 끊기면 전달 스레드 종료
+    }
+}
@@ -0,0 +1,138 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.Block;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 플레이어가 설치한 보상 블록 위치. (섬세한 손길로 캔 광석을 다시 놓고 캐는 것 방지)
+ * <p>
+ * 청크의 PersistentDataContainer에 16x16x16 구역마다 4096비트 비트셋으로 저장하므로 청크와 함께 저장되고 함께 내려갑니다.
+ * 설치한 보상 블록이 있는 구역만 기록합니다. (구역당 520바이트)
+ * 형식: long 배열 [구역 Y, 비트 64개, 구역 Y, 비트 64개, ...]
+ * <p>
+ * 읽은 청크는 메모리에 두었다가 청크 언로드 시 지웁니다. (unload) 보상 블록을 놓거나 캘 때(피스톤/폭발 포함)만 조회하므로
+ * 보상이 없는 블록 파괴 경로에는 아무 비용도 더하지 않습니다.
+ * 변경은 바로 PDC에 기록하므로 서버가 비정상 종료되어도 마지막 청크 저장까지의 기록은 남습니다.
+ * <p>
+ * 한 청크는 항상 같은 스레드(Folia는 그 청크의 리전)에서만 다루므로 청크별 비트셋은 잠그지 않습니다.
+ */
+final class PlacedBlockTracker {
+    private static final int SECTION_LONGS = 64; // 4096비트
+    private static final long[] NONE = new long[0]; // 기록이 없는 청크 (PDC를 다시 읽지 않도록)
+
+    private record ChunkId(UUID world, int x, int z) {
+    }
+
+    private final NamespacedKey key;
+    private final Map<ChunkId, long[]> chunks = new ConcurrentHashMap<>(); // 청크 -> PDC와 같은 형식의 배열
+
+    PlacedBlockTracker(NamespacedKey key) {
+        this.key = key;
+    }
+
+    // 설치 기록
+    void mark(Block block) {
+        Chunk chunk = block.getChunk();
+        ChunkId id = id(block);
+        long[] data = data(id, chunk);
+        int offset = section(data, block.getY() >> 4);
+        if (offset < 0) { // 새 구역 추가
+            offset = data.length;
+            data = Arrays.copyOf(data, data.length + 1 + SECTION_LONGS);
+            data[offset] = block.getY() >> 4;
+        }
+        int bit = bit(block);
+        data[offset + 1 + (bit >>> 6)] |= 1L << bit;
+        store(id, chunk, data);
+    }
+
+    /**
+     * 설치 기록이 있는 블록이면 기록을 지우고 true. (블록이 부서지므로 같은 자리에 자연 블록이 생겨도 영향 없음)
+     */
+    boolean clearIfPlaced(Block block) {
+        ChunkId id = id(block);
+        long[] data = chunks.get(id);
+        Chunk chunk = null;
+        if (data == null) {
+            chunk = block.getChunk();
+            data = data(id, chunk);
+        }
+        if (data.length == 0) return false; // 대부분의 청크
+        int offset = section(data, block.getY() >> 4);
+        if (offset < 0) return false;
+        int bit = bit(block);
+        int index = offset + 1 + (bit >>> 6);
+        if ((data[index] & (1L << bit)) == 0) return false;
+
+        data[index] &= ~(1L << bit);
+        if (isEmpty(data, offset)) { // 빈 구역은 빼서 저장
+            long[] trimmed = new long[data.length - 1 - SECTION_LONGS];
+            System.arraycopy(data, 0, trimmed, 0, offset);
+            System.arraycopy(data, offset + 1 + SECTION_LONGS, trimmed, offset, data.length - offset - 1 - SECTION_LONGS);
+            data = trimmed;
+        }
+        store(id, chunk != null ? chunk : block.getChunk(), data);
+        return true;
+    }
+
+    // 청크 언로드 시 메모리에서 제거 (PDC에는 이미 기록되어 있음)
+    void unload(Chunk chunk) {
+        chunks.remove(new ChunkId(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ()));
+    }
+
+    void clear() {
+        chunks.clear();
+    }
+
+    private long[] data(ChunkId id, Chunk chunk) {
+        long[] data = chunks.get(id);
+        if (data != null) return data;
+        long[] stored = chunk.getPersistentDataContainer().get(key, PersistentDataType.LONG_ARRAY);
+        data = stored == null || stored.length % (1 + SECTION_LONGS) != 0 ? NONE : stored; // 형식이 다르면 무시
+        chunks.put(id, data);
+        return data;
+    }
+
+    private void store(ChunkId id, Chunk chunk, long[] data) {
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (data.length == 0) {
+            container.remove(key);
+            chunks.put(id, NONE);
+        } else {
+            container.set(key, PersistentDataType.LONG_ARRAY, data);
+            chunks.put(id, data);
+        }
+    }
+
+    // 구역 Y의 시작 위치. 없으면 -1
+    private static int section(long[] data, int sectionY) {
+        for (int offset = 0; offset < data.length; offset += 1 + SECTION_LONGS) {
+            if (data[offset] == sectionY) return offset;
+        }
+        return -1;
+    }
+
+    private static boolean isEmpty(long[] data, int offset) {
+        for (int i = offset + 1; i <= offset + SECTION_LONGS; i++) {
+            if (data[i] != 0) return false;
+        }
+        return true;
+    }
+
+    // 구역 안의 비트 번호 (y, z, x 순서)
+    private static int bit(Block block) {
+        return (block.getY() & 15) << 8 | (block.getZ() & 15) << 4 | (block.getX() & 15);
+    }
+
+    private static ChunkId id(Block block) {
+        return new ChunkId(block.getWorld().getUID(), block.getX() >> 4, block.getZ() >> 4);
+    }
+}
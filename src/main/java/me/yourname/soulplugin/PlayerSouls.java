@@ -0,0 +1,171 @@
+package me.yourname.soulplugin;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 플레이어별 영혼 관리 클래스 (저장 스냅샷에서도 사용하므로 SoulPlugin 밖으로 분리)
+// 분야별 값은 SoulCategory.ordinal() 인덱스의 배열에 보관하여 해시 조회/박싱 없이 처리
+//
+// 스레드 안전: 조회는 잠금 없이 AtomicLongArray에서 바로 읽고, 변경은 플레이어 단위 잠금(this) 안에서
+// 값 변경과 저널 기록을 함께 처리합니다. (Folia 지역 스레드, 비동기 작업에서 동시에 호출해도 안전)
+// 저널에는 변경 후 값도 함께 기록하므로, 같은 플레이어의 변경 순서가 저널 순서와 항상 일치합니다.
+class PlayerSouls {
+    private final AtomicLongArray souls = new AtomicLongArray(SoulCategory.COUNT); // 생성 시 모든 분야 0
+    private final UUID owner;
+    private final SoulJournal journal; // 변경 내역 기록용 (null이면 기록하지 않음)
+    private final SoulChangeListener listener; // 순위표/동기화 갱신용 (null이면 알리지 않음)
+    private volatile boolean dirty; // 마지막 스냅샷 이후 변경 여부
+    private volatile int capturedSeq; // 마지막으로 포함된 스냅샷의 저널 번호 (0이면 저장소 값 그대로)
+    private long syncVersion; // 서버 간 동기화 버전 (this 잠금 안에서만 접근, 저장하지 않음)
+    private boolean evicted; // 캐시에서 내보내졌는지 (this 잠금 안에서만 접근)
+
+    public PlayerSouls(UUID owner, SoulJournal journal) {
+        this(owner, journal, null);
+    }
+
+    PlayerSouls(UUID owner, SoulJournal journal, SoulChangeListener listener) {
+        this.owner = owner;
+        this.journal = journal;
+        this.listener = listener;
+    }
+
+    UUID owner() {
+        return owner;
+    }
+
+    // 저장소에서 읽은 값으로 초기화 (저널 기록/dirty 표시 없음). 다른 스레드에 공개되기 전에만 호출
+    void load(long[] values) {
+        for (int i = 0; i < SoulCategory.COUNT; i++) {
+            souls.set(i, Math.max(values[i], 0));
+        }
+    }
+
+    public long getSouls(SoulCategory category) {
+        return souls.get(category.ordinal());
+    }
+
+    public synchronized void setSoul(SoulCategory category, long amount) {
+        long value = Math.max(amount, 0); // 0 미만으로 설정 방지
+        long old = souls.getAndSet(category.ordinal(), value);
+        changed(SoulJournal.Op.SET, category, amount, old, value, false);
+    }
+
+    public synchronized void addSoul(SoulCategory category, long amount) {
+        if (amount <= 0) return; // 0 이하의 값은 추가하지 않음
+        long old = souls.get(category.ordinal());
+        changed(SoulJournal.Op.ADD, category, amount, old, increase(category, amount), false);
+    }
+
+    public synchronized void removeSoul(SoulCategory category, long amount) {
+        if (amount <= 0) return;
+        long old = souls.get(category.ordinal());
+        changed(SoulJournal.Op.REMOVE, category, amount, old, decrease(category, amount), false);
+    }
+
+    private long increase(SoulCategory category, long amount) {
+        int i = category.ordinal();
+        long sum = souls.get(i) + amount;
+        long value = sum < 0 ? Long.MAX_VALUE : sum; // 오버플로 시 최대값에서 멈춤
+        souls.set(i, value);
+        return value;
+    }
+
+    private long decrease(SoulCategory category, long amount) {
+        int i = category.ordinal();
+        long value = Math.max(souls.get(i) - amount, 0); // 0 미만으로 감소 방지
+        souls.set(i, value);
+        return value;
+    }
+
+    // 안내 메시지용 사전 확인. 실제 차감은 tryRedeem으로 해야 함 (확인과 차감 사이에 값이 바뀔 수 있음)
+    public boolean canRedeem(SoulCategory category, long amount) {
+        return amount > 0 && souls.get(category.ordinal()) >= amount;
+    }
+
+    /**
+     * 잔액이 충분할 때만 차감합니다. 확인과 차감이 한 번에 이루어지므로 동시에 인출해도 음수/중복 인출이 생기지 않습니다.
+     * @return 차감했으면 true, 잔액 부족이면 false
+     */
+    public synchronized boolean tryRedeem(SoulCategory category, long amount) {
+        if (!canRedeem(category, amount)) return false;
+        long old = souls.get(category.ordinal());
+        changed(SoulJournal.Op.REDEEM, category, amount, old, decrease(category, amount), false);
+        return true;
+    }
+
+    /**
+     * from의 영혼을 to로 옮깁니다. 잔액이 부족하면 아무것도 바꾸지 않고 false.
+     * 두 플레이어의 잠금을 UUID 순서로 잡으므로 서로 반대 방향으로 동시에 옮겨도 교착 상태가 생기지 않습니다.
+     */
+    static boolean transfer(PlayerSouls from, PlayerSouls to, SoulCategory category, long amount) {
+        if (from == to) return from.canRedeem(category, amount);
+        PlayerSouls first = from.owner.compareTo(to.owner) < 0 ? from : to;
+        PlayerSouls second = first == from ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                if (!from.tryRedeem(category, amount)) return false;
+                to.addSoul(category, amount);
+                return true;
+            }
+        }
+    }
+
+    // ---- 서버 간 동기화 (SoulSync). 호출하는 쪽이 this 잠금을 잡고 있어야 함 ----
+
+    long syncVersion() {
+        return syncVersion;
+    }
+
+    // 보낼 변경분을 묶을 때 호출. 새 버전 번호
+    long nextSyncVersion() {
+        return ++syncVersion;
+    }
+
+    /**
+     * 다른 서버에서 받은 값을 적용합니다. 저널에는 SET으로 기록되고, 리스너에는 remote=true로 알립니다.
+     */
+    synchronized void applyRemote(long[] values, long version) {
+        for (SoulCategory category : SoulCategory.VALUES) {
+            int i = category.ordinal();
+            long value = Math.max(values[i], 0);
+            long old = souls.getAndSet(i, value);
+            if (old != value) changed(SoulJournal.Op.SET, category, value, old, value, true);
+        }
+        syncVersion = Math.max(syncVersion, version);
+    }
+
+    private void changed(SoulJournal.Op op, SoulCategory category, long amount, long oldValue, long value, boolean remote) {
+        dirty = true;
+        if (journal != null) journal.append(op, owner, category, amount, value);
+        if (listener != null) listener.changed(owner, category, oldValue, value, remote);
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    // 스냅샷용: ordinal 순서대로 dest[offset..]에 값을 복사하고 dirty 표시를 지움 (복사 도중 변경이 끼어들지 않도록 잠금)
+    synchronized void captureInto(long[] dest, int offset, int journalSeq) {
+        for (int i = 0; i < SoulCategory.COUNT; i++) {
+            dest[offset + i] = souls.get(i);
+        }
+        dirty = false;
+        capturedSeq = journalSeq;
+    }
+
+    // 현재 값이 저장소에 기록되어 있는지 (캐시에서 내보내도 되는지)
+    boolean isSavedBy(int savedJournalSeq) {
+        return !dirty && capturedSeq <= savedJournalSeq;
+    }
+
+    // SoulCache에서 내보낼 때 호출. 이후에는 스냅샷에 포함되지 않으므로 이 객체에 적용한 변경은 저장되지 않음
+    void markEvicted() {
+        evicted = true;
+    }
+
+    // 호출하는 쪽이 this 잠금을 잡고 있어야 함. 메인 스레드 밖에서 캐시의 객체를 직접 바꾸는 쪽(SoulSync)만 확인하면 되고,
+    // 나머지는 SoulCache.modifyAsync가 캐시에 올라 있는 객체만 넘겨 줌
+    boolean isEvicted() {
+        return evicted;
+    }
+}
@@ -0,0 +1,124 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Velocity/BungeeCord 플러그인 메시지("BungeeCord" 채널의 Forward)로 다른 백엔드 서버에 전달하는 전송 계층.
+ * 별도 서버(Redis 등) 없이 동작합니다. (Velocity는 velocity.toml의 bungee-plugin-message-channel = true 필요)
+ * <p>
+ * 플러그인 메시지는 접속 중인 플레이어의 연결을 통해서만 보낼 수 있으므로, 서버에 아무도 없을 때 보낸 메시지는
+ * 모아 두었다가(최대 MAX_QUEUED개) 플레이어가 있을 때 다음 메시지와 함께 보냅니다.
+ * 같은 이유로 플레이어가 없는 서버는 다른 서버의 변경을 받지 못하므로, 항상 연결되어 있는 RedisSyncTransport를 권장합니다.
+ * 메시지 하나는 약 32KB까지 보낼 수 있으므로 SoulSync가 그보다 작게 나누어 보냅니다.
+ */
+final class PluginMessageSyncTransport implements SyncTransport, PluginMessageListener {
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "SoulPluginSync";
+    private static final int MAX_QUEUED = 1024;
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final Queue<byte[]> queued = new ArrayDeque<>(); // 보낼 플레이어가 없을 때 (this 잠금)
+    private Consumer<byte[]> receiver;
+
+    PluginMessageSyncTransport(Plugin plugin, Logger logger) {
+        this.plugin = plugin;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "plugin-message";
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        Bukkit.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        Bukkit.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public synchronized void publish(byte[] message) {
+        Player carrier = carrier();
+        if (carrier == null) {
+            if (queued.size() >= MAX_QUEUED) {
+                queued.poll();
+                logger.warning("동기화 메시지를 보낼 플레이어가 없어 가장 오래된 메시지를 버립니다.");
+            }
+            queued.add(message);
+            return;
+        }
+        flushQueued(carrier);
+        carrier.sendPluginMessage(plugin, CHANNEL, forward(message));
+    }
+
+    private void flushQueued(Player carrier) {
+        for (Iterator<byte[]> it = queued.iterator(); it.hasNext(); ) {
+            carrier.sendPluginMessage(plugin, CHANNEL, forward(it.next()));
+            it.remove();
+        }
+    }
+
+    private static Player carrier() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            return player;
+        }
+        return null;
+    }
+
+    // Forward ALL <서브채널> <길이> <내용>
+    private static byte[] forward(byte[] message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(message.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(message.length);
+            out.write(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 메모리 스트림이라 발생하지 않음
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!CHANNEL.equals(channel) || receiver == null) return;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUBCHANNEL.equals(in.readUTF())) return; // 다른 플러그인의 BungeeCord 메시지
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+            receiver.accept(payload);
+        } catch (IOException e) {
+            logger.warning("잘못된 동기화 메시지를 무시합니다: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        Bukkit.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+        Bukkit.getServer().getMessenger().unregisterIncomingPluginChannel(plugin);
+        synchronized (this) {
+            if (!queued.isEmpty()) {
+                logger.warning("보내지 못한 동기화 메시지 " + queued.size() + "개를 버립니다. (접속 중인 플레이어 없음)");
+                queued.clear();
+            }
+        }
+    }
+}
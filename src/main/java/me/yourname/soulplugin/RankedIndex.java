@@ -0,0 +1,200 @@
+package me.yourname.soulplugin;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * (점수 내림차순, UUID 오름차순)으로 정렬된 순위 트리. 서브트리 크기를 함께 들고 있는 트립(treap)이라
+ * 삽입/삭제/순위 조회/k번째 조회가 모두 O(log n)입니다.
+ * <p>
+ * 노드는 객체가 아니라 기본형 배열의 칸 하나이므로, 플레이어 수가 많아도 노드당 수십 바이트만 사용합니다.
+ * (PlayerSouls나 UUID 객체를 들고 있지 않음) 0번 칸은 빈 노드(NIL)로 사용합니다.
+ * 모든 메서드는 synchronized입니다.
+ */
+final class RankedIndex {
+    private static final int NIL = 0;
+
+    private long[] score = new long[16];
+    private long[] msb = new long[16];
+    private long[] lsb = new long[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int[] size = new int[16];
+    private int[] priority = new int[16];
+    private int root = NIL;
+    private int used = 1; // 0번은 NIL
+    private int free = NIL; // 재사용할 빈 칸 목록 (right로 연결)
+
+    synchronized int size() {
+        return size[root];
+    }
+
+    synchronized void insert(long value, UUID uuid) {
+        int node = allocate(value, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        long parts = split(root, value, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), false);
+        root = merge(merge(low(parts), node), high(parts));
+    }
+
+    // 해당 (점수, UUID) 항목이 있으면 삭제
+    synchronized void remove(long value, UUID uuid) {
+        long m = uuid.getMostSignificantBits();
+        long l = uuid.getLeastSignificantBits();
+        long outer = split(root, value, m, l, false); // [앞쪽) [같거나 뒤쪽)
+        long inner = split(high(outer), value, m, l, true); // [같음] [뒤쪽)
+        release(low(inner));
+        root = merge(low(outer), high(inner));
+    }
+
+    /**
+     * 1부터 시작하는 순위. (점수, UUID) 항목이 없으면 0
+     */
+    synchronized int rank(long value, UUID uuid) {
+        long m = uuid.getMostSignificantBits();
+        long l = uuid.getLeastSignificantBits();
+        int before = 0;
+        int node = root;
+        while (node != NIL) {
+            int c = compare(node, value, m, l);
+            if (c == 0) return before + size[left[node]] + 1;
+            if (c < 0) { // node가 앞쪽
+                before += size[left[node]] + 1;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * offset번째(0부터)부터 최대 limit개 항목을 순위 순서로 consumer에 전달합니다.
+     */
+    synchronized void page(int offset, int limit, EntryConsumer consumer) {
+        int end = Math.min(size[root], offset + limit);
+        for (int k = offset; k < end; k++) {
+            int node = select(k);
+            consumer.accept(new UUID(msb[node], lsb[node]), score[node]);
+        }
+    }
+
+    interface EntryConsumer {
+        void accept(UUID uuid, long score);
+    }
+
+    // k번째(0부터) 노드
+    private int select(int k) {
+        int node = root;
+        while (node != NIL) {
+            int leftSize = size[left[node]];
+            if (k < leftSize) {
+                node = left[node];
+            } else if (k == leftSize) {
+                return node;
+            } else {
+                k -= leftSize + 1;
+                node = right[node];
+            }
+        }
+        return NIL;
+    }
+
+    // node와 키의 순서. 음수면 node가 앞(점수가 더 높거나, 같으면 UUID가 작음)
+    private int compare(int node, long value, long m, long l) {
+        if (score[node] != value) return score[node] > value ? -1 : 1;
+        if (msb[node] != m) return msb[node] < m ? -1 : 1;
+        if (lsb[node] != l) return lsb[node] < l ? -1 : 1;
+        return 0;
+    }
+
+    /**
+     * 트리를 키 기준으로 둘로 나눕니다. inclusive가 false면 [키보다 앞, 나머지], true면 [키 이하, 나머지].
+     * 두 루트를 long 하나에 담아 반환 (low/high)
+     */
+    private long split(int node, long value, long m, long l, boolean inclusive) {
+        if (node == NIL) return pack(NIL, NIL);
+        int c = compare(node, value, m, l);
+        if (c < 0 || (inclusive && c == 0)) {
+            long parts = split(right[node], value, m, l, inclusive);
+            right[node] = low(parts);
+            update(node);
+            return pack(node, high(parts));
+        }
+        long parts = split(left[node], value, m, l, inclusive);
+        left[node] = high(parts);
+        update(node);
+        return pack(low(parts), node);
+    }
+
+    // a의 모든 항목이 b보다 앞이어야 함
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private void update(int node) {
+        size[node] = size[left[node]] + size[right[node]] + 1;
+    }
+
+    private int allocate(long value, long m, long l) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = right[node];
+        } else {
+            if (used == score.length) grow();
+            node = used++;
+        }
+        score[node] = value;
+        msb[node] = m;
+        lsb[node] = l;
+        left[node] = NIL;
+        right[node] = NIL;
+        size[node] = 1;
+        priority[node] = ThreadLocalRandom.current().nextInt();
+        return node;
+    }
+
+    // 서브트리 전체를 빈 칸 목록으로 (삭제 시에는 노드 하나뿐)
+    private void release(int node) {
+        if (node == NIL) return;
+        release(left[node]);
+        int next = right[node];
+        left[node] = NIL;
+        size[node] = 0;
+        right[node] = free;
+        free = node;
+        release(next);
+    }
+
+    private void grow() {
+        int capacity = score.length * 2;
+        score = Arrays.copyOf(score, capacity);
+        msb = Arrays.copyOf(msb, capacity);
+        lsb = Arrays.copyOf(lsb, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        size = Arrays.copyOf(size, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+    }
+
+    private static long pack(int low, int high) {
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    private static int low(long parts) {
+        return (int) (parts >>> 32);
+    }
+
+    private static int high(long parts) {
+        return (int) parts;
+    }
+}
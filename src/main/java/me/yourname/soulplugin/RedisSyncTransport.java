@@ -0,0 +1,214 @@
+package me.yourname.soulplugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Redis pub/sub 전송 계층. 모든 서버가 Redis에 항상 연결되어 있으므로 플레이어가 없는 서버도 변경을 받습니다.
+ * <p>
+ * PUBLISH/SUBSCRIBE만 필요하므로 클라이언트 라이브러리(Jedis 등)를 포함하지 않고 RESP 프로토콜을 직접 사용합니다.
+ * 보내기용 연결 하나와 받기 전용 스레드의 구독 연결 하나를 쓰며, 끊기면 다시 연결합니다.
+ * (끊겨 있는 동안의 메시지는 유실되지만, 이후 그 플레이어가 다시 변경되면 전체 값이 전달되어 맞춰집니다)
+ */
+final class RedisSyncTransport implements SyncTransport {
+    private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private final String password; // 비어 있으면 AUTH 생략
+    private final String channel;
+    private final Logger logger;
+
+    private Socket publisher; // this 잠금
+    private volatile Socket subscriber;
+    private volatile boolean closed;
+    private Thread subscriberThread;
+
+    RedisSyncTransport(String host, int port, String password, String channel, Logger logger) {
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.channel = channel;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "redis (" + host + ":" + port + ", " + channel + ")";
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        subscriberThread = new Thread(() -> subscribeLoop(receiver), "SoulPlugin-SyncRedis");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+    }
+
+    private void subscribeLoop(Consumer<byte[]> receiver) {
+        while (!closed) {
+            try (Socket socket = connect()) {
+                subscriber = socket;
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                if (!password.isEmpty()) {
+                    command(out, "AUTH".getBytes(StandardCharsets.US_ASCII), password.getBytes(StandardCharsets.UTF_8));
+                    readReply(in);
+                }
+                socket.setSoTimeout(0); // 구독 중에는 메시지가 올 때까지 기다림
+                command(out, "SUBSCRIBE".getBytes(StandardCharsets.US_ASCII), channel.getBytes(StandardCharsets.UTF_8));
+                while (!closed) {
+                    // ["subscribe", 채널, 개수] 또는 ["message", 채널, 내용]
+                    if (!(readReply(in) instanceof Object[] reply) || reply.length != 3) continue;
+                    if (reply[0] instanceof byte[] kind && "message".equals(new String(kind, StandardCharsets.US_ASCII))
+                            && reply[2] instanceof byte[] payload) {
+                        receiver.accept(payload);
+                    }
+                }
+            } catch (IOException e) {
+                if (closed) return;
+                logger.log(Level.WARNING, "Redis 구독 연결이 끊겼습니다. " + RECONNECT_DELAY_MILLIS / 1000 + "초 후 다시 연결합니다. (" + e.getMessage() + ")");
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "동기화 메시지 처리 중 오류 발생!", e);
+            }
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void publish(byte[] message) {
+        if (closed) return;
+        for (int attempt = 0; attempt < 2; attempt++) { // 오래된 연결이 끊겨 있으면 한 번 다시 연결
+            try {
+                if (publisher == null) {
+                    publisher = connect();
+                    if (!password.isEmpty()) {
+                        command(publisher.getOutputStream(), "AUTH".getBytes(StandardCharsets.US_ASCII), password.getBytes(StandardCharsets.UTF_8));
+                        readReply(publisher.getInputStream());
+                    }
+                }
+                command(publisher.getOutputStream(), "PUBLISH".getBytes(StandardCharsets.US_ASCII),
+                        channel.getBytes(StandardCharsets.UTF_8), message);
+                readReply(publisher.getInputStream()); // 받은 구독자 수
+                return;
+            } catch (IOException e) {
+                closePublisher();
+                if (attempt == 1) {
+                    logger.warning("Redis로 동기화 메시지를 보내지 못했습니다: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    // RESP 배열로 명령 전송
+    private static void command(OutputStream stream, byte[]... args) throws IOException {
+        OutputStream out = new BufferedOutputStream(stream);
+        out.write(('*' + Integer.toString(args.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (byte[] arg : args) {
+            out.write(('$' + Integer.toString(arg.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(arg);
+            out.write('\r');
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    // 응답 하나를 읽음: 단순 문자열/정수는 String/Long, 벌크 문자열은 byte[](null 가능), 배열은 Object[]
+    private static Object readReply(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) throw new EOFException("Redis 연결 종료");
+        String line = readLine(in);
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                throw new IOException("Redis 오류: " + line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) return null;
+                byte[] data = in.readNBytes(length);
+                if (data.length != length) throw new EOFException("Redis 연결 종료");
+                readLine(in); // CRLF
+                return data;
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) return null;
+                Object[] items = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    items[i] = readReply(in);
+                }
+                return items;
+            }
+            default:
+                throw new IOException("알 수 없는 Redis 응답 형식: " + (char) type);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) throw new EOFException("Redis 연결 종료");
+            line.append((char) b);
+        }
+        in.read(); // \n
+        return line.toString();
+    }
+
+    private void closePublisher() {
+        if (publisher == null) return;
+        try {
+            publisher.close();
+        } catch (IOException ignored) {
+            // 이미 끊김
+        }
+        publisher = null;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            closePublisher();
+        }
+        Socket socket = subscriber;
+        if (socket != null) {
+            try {
+                socket.close(); // 구독 스레드의 read가 예외로 끝남
+            } catch (IOException ignored) {
+                // 이미 끊김
+            }
+        }
+        if (subscriberThread != null) subscriberThread.interrupt();
+    }
+}
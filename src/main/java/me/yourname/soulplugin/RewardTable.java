@@ -0,0 +1,194 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EntityType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * rewards.yml을 컴파일한 보상 표. 생성 후에는 바뀌지 않으므로 여러 스레드에서 그대로 읽어도 됩니다.
+ * <p>
+ * 블록은 Material.ordinal(), 몬스터는 EntityType.ordinal() 위치의 배열 칸 하나만 읽으면 되므로,
+ * 돌/흙처럼 보상이 없는 블록은 배열 조회 한 번으로 걸러집니다.
+ * 설정을 다시 읽을 때는 새 표를 만든 뒤 참조만 교체합니다. (/souls reload)
+ */
+final class RewardTable {
+
+    // 블록 한 종류의 보상 (분야, 영혼 수)
+    record BlockReward(SoulCategory category, int souls) {
+    }
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    private final BlockReward[] blocks = new BlockReward[MATERIALS.length]; // null이면 보상 없음
+    private final int[] monsterMinLevel = new int[ENTITY_TYPES.length]; // 0이면 목록에 없는 몬스터 (기본 레벨)
+    private final int[] monsterMaxLevel = new int[ENTITY_TYPES.length];
+    private int defaultLevel;
+    // 레벨 상한 오름차순. level <= levelCeilings[i]인 첫 구간의 soulMin~soulMax 사이로 지급
+    private int[] levelCeilings = new int[0];
+    private int[] soulMin = new int[0];
+    private int[] soulMax = new int[0];
+    private int blockCount;
+    private int monsterCount;
+
+    private RewardTable() {
+    }
+
+    BlockReward block(Material material) {
+        return blocks[material.ordinal()];
+    }
+
+    // 몬스터 레벨을 정한 뒤 레벨 구간에 맞는 영혼 수를 무작위로 결정
+    int rollMonsterSouls(EntityType type) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = type.ordinal();
+        int level = monsterMinLevel[i] == 0 ? defaultLevel : random.nextInt(monsterMinLevel[i], monsterMaxLevel[i] + 1);
+        int last = levelCeilings.length - 1;
+        if (last < 0) return 0;
+        int tier = 0;
+        while (tier < last && level > levelCeilings[tier]) {
+            tier++;
+        }
+        return random.nextInt(soulMin[tier], soulMax[tier] + 1);
+    }
+
+    int blockCount() {
+        return blockCount;
+    }
+
+    int monsterCount() {
+        return monsterCount;
+    }
+
+    /**
+     * rewards.yml 파일을 읽어 보상 표를 만듭니다.
+     * 파일을 읽을 수 없거나 YAML 문법이 틀리면 IOException, 알 수 없는 블록/몬스터 이름은 경고 후 건너뜁니다.
+     */
+    static RewardTable load(File file, Logger logger) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (InvalidConfigurationException e) {
+            throw new IOException(file.getName() + " 형식이 올바르지 않습니다: " + e.getMessage(), e);
+        }
+        return compile(yaml, logger);
+    }
+
+    static RewardTable compile(ConfigurationSection config, Logger logger) {
+        RewardTable table = new RewardTable();
+
+        // blocks.<분야>.<영혼 수>: [블록 목록]
+        ConfigurationSection blocksSection = config.getConfigurationSection("blocks");
+        if (blocksSection != null) {
+            for (String categoryKey : blocksSection.getKeys(false)) {
+                SoulCategory category = SoulCategory.fromInput(categoryKey);
+                if (category == null) {
+                    logger.warning("rewards.yml: 알 수 없는 분야 '" + categoryKey + "'을(를) 건너뜁니다.");
+                    continue;
+                }
+                ConfigurationSection amounts = blocksSection.getConfigurationSection(categoryKey);
+                if (amounts == null) continue;
+                for (String amountKey : amounts.getKeys(false)) {
+                    int souls = parsePositive(amountKey);
+                    if (souls <= 0) {
+                        logger.warning("rewards.yml: blocks." + categoryKey + "의 영혼 수 '" + amountKey + "'이(가) 올바르지 않아 건너뜁니다.");
+                        continue;
+                    }
+                    BlockReward reward = new BlockReward(category, souls);
+                    for (String name : amounts.getStringList(amountKey)) {
+                        Material material = Material.matchMaterial(name);
+                        if (material == null || !material.isBlock()) {
+                            logger.warning("rewards.yml: 알 수 없는 블록 '" + name + "'을(를) 건너뜁니다.");
+                            continue;
+                        }
+                        if (table.blocks[material.ordinal()] == null) table.blockCount++;
+                        table.blocks[material.ordinal()] = reward;
+                    }
+                }
+            }
+        }
+
+        // monsters.levels.<최소-최대>: [몬스터 목록]
+        ConfigurationSection monsters = config.getConfigurationSection("monsters");
+        if (monsters == null) return table;
+        table.defaultLevel = Math.max(monsters.getInt("default-level", 2), 1);
+
+        ConfigurationSection levels = monsters.getConfigurationSection("levels");
+        if (levels != null) {
+            for (String rangeKey : levels.getKeys(false)) {
+                int[] range = parseRange(rangeKey);
+                if (range == null) {
+                    logger.warning("rewards.yml: monsters.levels의 레벨 범위 '" + rangeKey + "'이(가) 올바르지 않아 건너뜁니다.");
+                    continue;
+                }
+                for (String name : levels.getStringList(rangeKey)) {
+                    EntityType type;
+                    try {
+                        type = EntityType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("rewards.yml: 알 수 없는 몬스터 '" + name + "'을(를) 건너뜁니다.");
+                        continue;
+                    }
+                    if (table.monsterMinLevel[type.ordinal()] == 0) table.monsterCount++;
+                    table.monsterMinLevel[type.ordinal()] = range[0];
+                    table.monsterMaxLevel[type.ordinal()] = range[1];
+                }
+            }
+        }
+
+        // monsters.souls-by-level.<레벨 상한>: <최소-최대> (가장 큰 상한보다 높은 레벨은 마지막 구간 사용)
+        ConfigurationSection soulsByLevel = monsters.getConfigurationSection("souls-by-level");
+        if (soulsByLevel != null) {
+            TreeMap<Integer, int[]> tiers = new TreeMap<>();
+            for (String ceilingKey : soulsByLevel.getKeys(false)) {
+                int ceiling = parsePositive(ceilingKey);
+                int[] range = parseRange(soulsByLevel.getString(ceilingKey, ""));
+                if (ceiling <= 0 || range == null) {
+                    logger.warning("rewards.yml: monsters.souls-by-level의 '" + ceilingKey + "' 항목이 올바르지 않아 건너뜁니다.");
+                    continue;
+                }
+                tiers.put(ceiling, range);
+            }
+            int n = tiers.size();
+            table.levelCeilings = new int[n];
+            table.soulMin = new int[n];
+            table.soulMax = new int[n];
+            int i = 0;
+            for (Map.Entry<Integer, int[]> tier : tiers.entrySet()) {
+                table.levelCeilings[i] = tier.getKey();
+                table.soulMin[i] = tier.getValue()[0];
+                table.soulMax[i] = tier.getValue()[1];
+                i++;
+            }
+        }
+        return table;
+    }
+
+    // "3" 또는 "1-3" 형식. 1 이상이고 최소 <= 최대여야 함
+    private static int[] parseRange(String text) {
+        String trimmed = text.trim();
+        int dash = trimmed.indexOf('-', 1);
+        int min = parsePositive(dash < 0 ? trimmed : trimmed.substring(0, dash));
+        int max = dash < 0 ? min : parsePositive(trimmed.substring(dash + 1));
+        if (min <= 0 || max < min) return null;
+        return new int[]{min, max};
+    }
+
+    private static int parsePositive(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
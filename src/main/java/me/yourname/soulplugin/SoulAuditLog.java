@@ -0,0 +1,427 @@
+package me.yourname.soulplugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * 영혼 변경 감사 기록. (획득, 인출, 상점 구매, 관리자 변경) /souls history로 조회합니다.
+ * <p>
+ * 기록(record)은 미리 만들어 둔 원형 버퍼의 칸을 CAS로 하나 차지해 값을 채우는 것이 전부라 잠금도, 객체 생성도 없습니다.
+ * 버퍼가 가득 차면 기다리지 않고 버린 뒤 개수만 셉니다. (dropped, /souls stats)
+ * 비동기 타이머가 drain()으로 버퍼를 비워 audit/&lt;번호&gt;.seg.gz 세그먼트에 이어 쓰고,
+ * 세그먼트가 일정 시간/개수를 넘으면 닫은 뒤 시간 범위와 플레이어 블룸 필터를 &lt;번호&gt;.idx에 기록합니다.
+ * 조회는 색인으로 시간 범위와 플레이어가 맞는 세그먼트만 풀어 봅니다.
+ * <p>
+ * 세그먼트 기록 형식 (58바이트, 압축 전): 시각(ms) | 플레이어 UUID | 분야(byte) | 종류(byte) | 변경량 | 변경 후 값 | 실행한 관리자 UUID (없으면 0)
+ */
+final class SoulAuditLog {
+    private static final int INDEX_MAGIC = 0x53414958; // "SAIX"
+    private static final byte INDEX_VERSION = 1;
+    private static final int BLOOM_LONGS = 16; // 1024비트
+    private static final String SEGMENT_SUFFIX = ".seg.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    enum Kind {
+        EARN("획득"),
+        REDEEM("인출"),
+        SHOP("상점 구매"),
+        ADMIN_SET("관리자 설정"),
+        ADMIN_ADD("관리자 추가"),
+        ADMIN_REMOVE("관리자 감소"),
+        BULK("대량 작업"),
+        PLUGIN("플러그인"); // SoulService (새 종류는 맨 뒤에 추가: 세그먼트에 ordinal로 기록)
+
+        static final Kind[] VALUES = values();
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    // 조회 결과 한 건. actor는 관리자 변경일 때만 있음
+    record Entry(long time, UUID player, SoulCategory category, Kind kind, long delta, long value, UUID actor) {
+    }
+
+    // 세그먼트 하나의 색인. 닫힌 세그먼트의 색인은 바뀌지 않음 (쓰는 중인 세그먼트는 this 잠금 안에서만 변경)
+    private static final class Segment {
+        final long seq;
+        final File file;
+        final long[] bloom;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        int count;
+
+        Segment(long seq, File file) {
+            this(seq, file, new long[BLOOM_LONGS]);
+        }
+
+        private Segment(long seq, File file, long[] bloom) {
+            this.seq = seq;
+            this.file = file;
+            this.bloom = bloom;
+        }
+
+        void add(long time, long msb, long lsb) {
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            count++;
+            long h = hash(msb, lsb);
+            bloom[(int) (h & 1023) >>> 6] |= 1L << (h & 63);
+            bloom[(int) (h >>> 32 & 1023) >>> 6] |= 1L << (h >>> 32 & 63);
+        }
+
+        boolean mightContain(long msb, long lsb) {
+            long h = hash(msb, lsb);
+            return (bloom[(int) (h & 1023) >>> 6] & 1L << (h & 63)) != 0
+                    && (bloom[(int) (h >>> 32 & 1023) >>> 6] & 1L << (h >>> 32 & 63)) != 0;
+        }
+
+        boolean overlaps(long from, long to) {
+            return count > 0 && maxTime >= from && minTime <= to;
+        }
+
+        Segment copy() {
+            Segment copy = new Segment(seq, file, bloom.clone());
+            copy.minTime = minTime;
+            copy.maxTime = maxTime;
+            copy.count = count;
+            return copy;
+        }
+
+        private static long hash(long msb, long lsb) {
+            long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 29);
+        }
+    }
+
+    // ---- 원형 버퍼 (여러 스레드가 기록, drain 한 스레드가 비움) ----
+    private final int mask;
+    private final long[] times;
+    private final long[] players; // 칸마다 msb, lsb
+    private final long[] actors;
+    private final long[] deltas;
+    private final long[] values;
+    private final int[] kinds; // 종류 << 8 | 분야
+    private final AtomicLongArray published; // 칸 i에 seq번째 기록이 채워지면 seq + 1
+    private final AtomicLong head = new AtomicLong(); // 다음에 차지할 번호
+    private volatile long tail; // 다음에 비울 번호 (drain만 변경)
+    private final LongAdder dropped = new LongAdder();
+
+    // ---- 세그먼트 파일 (this 잠금) ----
+    private final File directory;
+    private final Logger logger;
+    private final long segmentMillis;
+    private final int segmentMaxEntries;
+    private final long retentionMillis;
+    private final List<Segment> segments = new ArrayList<>(); // 닫힌 세그먼트 (번호 순)
+    private long nextSeq = 1;
+    private Segment current;
+    private DataOutputStream out;
+    private long currentStarted;
+    private boolean closed;
+
+    SoulAuditLog(File directory, int bufferSize, long segmentMillis, int segmentMaxEntries, long retentionMillis, Logger logger) {
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 1024) - 1) << 1; // 2의 거듭제곱으로 올림
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.players = new long[capacity * 2];
+        this.actors = new long[capacity * 2];
+        this.deltas = new long[capacity];
+        this.values = new long[capacity];
+        this.kinds = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.directory = directory;
+        this.segmentMillis = segmentMillis;
+        this.segmentMaxEntries = segmentMaxEntries;
+        this.retentionMillis = retentionMillis;
+        this.logger = logger;
+    }
+
+    /**
+     * 기존 세그먼트의 색인을 읽습니다. 색인이 없는 세그먼트(비정상 종료 시 쓰던 것)는 한 번 훑어 색인을 만듭니다.
+     * 새 기록은 항상 새 세그먼트에 씁니다.
+     */
+    synchronized void open() throws IOException {
+        Files.createDirectories(directory.toPath());
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) throw new IOException(directory + " 폴더를 읽을 수 없습니다.");
+        for (File file : files) {
+            long seq;
+            try {
+                seq = Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            Segment segment = readIndex(seq, file);
+            if (segment == null) {
+                segment = rebuildIndex(seq, file);
+                writeIndex(segment);
+            }
+            segments.add(segment);
+            nextSeq = Math.max(nextSeq, seq + 1);
+        }
+        segments.sort(Comparator.comparingLong(s -> s.seq));
+    }
+
+    /**
+     * 변경 한 건을 기록합니다. 어느 스레드에서 호출해도 되며, 버퍼가 가득 차면 기다리지 않고 버립니다.
+     * @param delta 실제로 바뀐 양 (변경 후 - 변경 전)
+     * @param actor 실행한 관리자 (없으면 null)
+     */
+    void record(Kind kind, UUID player, SoulCategory category, long delta, long value, UUID actor) {
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail > mask) { // 가득 참
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+        int i = (int) seq & mask;
+        times[i] = System.currentTimeMillis();
+        players[i * 2] = player.getMostSignificantBits();
+        players[i * 2 + 1] = player.getLeastSignificantBits();
+        actors[i * 2] = actor == null ? 0 : actor.getMostSignificantBits();
+        actors[i * 2 + 1] = actor == null ? 0 : actor.getLeastSignificantBits();
+        deltas[i] = delta;
+        values[i] = value;
+        kinds[i] = kind.ordinal() << 8 | category.ordinal();
+        published.set(i, seq + 1); // 위의 값들이 drain에 보이도록 마지막에 공개
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 버퍼에 쌓인 기록을 세그먼트 파일에 씁니다. 비동기 타이머에서 주기적으로 호출합니다.
+     */
+    synchronized void drain() {
+        if (closed) return;
+        long t = tail;
+        int written = 0;
+        try {
+            while (true) {
+                int i = (int) t & mask;
+                if (published.get(i) != t + 1) break; // 비었거나 아직 채우는 중인 칸
+                long now = times[i];
+                if (current == null || current.count >= segmentMaxEntries || now - currentStarted >= segmentMillis) {
+                    rotate(now);
+                }
+                out.writeLong(now);
+                out.writeLong(players[i * 2]);
+                out.writeLong(players[i * 2 + 1]);
+                out.writeByte(kinds[i] & 0xFF);
+                out.writeByte(kinds[i] >>> 8);
+                out.writeLong(deltas[i]);
+                out.writeLong(values[i]);
+                out.writeLong(actors[i * 2]);
+                out.writeLong(actors[i * 2 + 1]);
+                current.add(now, players[i * 2], players[i * 2 + 1]);
+                t++;
+                if ((++written & 1023) == 0) tail = t; // 오래 걸리면 중간중간 칸을 돌려줌
+            }
+            if (written > 0) out.flush(); // GZIP 동기 플러시: 비정상 종료 시에도 여기까지는 읽을 수 있음
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "감사 기록을 쓰지 못했습니다. 새 세그먼트로 다시 시도합니다.", e);
+            if (published.get((int) t & mask) == t + 1) { // 쓰던 한 건은 버림
+                dropped.increment();
+                t++;
+            }
+            closeQuietly();
+        } finally {
+            tail = t;
+        }
+    }
+
+    // 남은 기록을 쓰고 현재 세그먼트를 닫음 (플러그인 비활성화 시)
+    synchronized void close() {
+        drain();
+        try {
+            finishCurrent();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "감사 기록 세그먼트를 닫지 못했습니다.", e);
+        }
+        closed = true;
+    }
+
+    /**
+     * player의 기록 중 [from, to] 시각(ms)에 해당하는 것을 최근 순서로 skip건 건너뛴 뒤 최대 limit건 반환합니다.
+     * 비동기 스레드에서 호출하세요. (세그먼트를 풀어 읽음)
+     */
+    List<Entry> query(UUID player, long from, long to, int skip, int limit) throws IOException {
+        List<Segment> candidates = new ArrayList<>();
+        synchronized (this) {
+            drain(); // 아직 버퍼에 있는 기록까지 포함
+            long msb = player.getMostSignificantBits();
+            long lsb = player.getLeastSignificantBits();
+            for (Segment segment : segments) {
+                if (segment.overlaps(from, to) && segment.mightContain(msb, lsb)) candidates.add(segment);
+            }
+            if (current != null && current.overlaps(from, to) && current.mightContain(msb, lsb)) candidates.add(current.copy());
+        }
+        candidates.sort(Comparator.comparingLong((Segment s) -> s.seq).reversed()); // 최근 세그먼트부터
+
+        List<Entry> result = new ArrayList<>();
+        int needed = skip + limit;
+        for (Segment segment : candidates) {
+            List<Entry> matches = scan(segment.file, player, from, to);
+            for (int k = matches.size() - 1; k >= 0 && result.size() < needed; k--) {
+                result.add(matches.get(k)); // 세그먼트 안에서는 시간 순서로 쌓여 있음
+            }
+            if (result.size() >= needed) break;
+        }
+        return result.subList(Math.min(skip, result.size()), result.size());
+    }
+
+    // ---- 세그먼트 ----
+
+    // 호출하는 쪽이 this 잠금을 잡고 있어야 함
+    private void rotate(long now) throws IOException {
+        finishCurrent();
+        long seq = nextSeq++;
+        File file = new File(directory, seq + SEGMENT_SUFFIX);
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file), 8192, true), 65536));
+        current = new Segment(seq, file);
+        currentStarted = now;
+        deleteExpired(now);
+    }
+
+    private void finishCurrent() throws IOException {
+        if (current == null) return;
+        Segment finished = current;
+        current = null;
+        try {
+            out.close(); // GZIP 끝 기록
+        } finally {
+            out = null;
+        }
+        writeIndex(finished);
+        segments.add(finished);
+    }
+
+    private void closeQuietly() {
+        if (current == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // 이미 실패한 세그먼트. 색인 파일은 다음 시작 시 다시 만듦
+        }
+        segments.add(current); // 잘리기 전까지는 조회 가능
+        out = null;
+        current = null;
+    }
+
+    // 보관 기간이 지난 세그먼트 삭제
+    private void deleteExpired(long now) {
+        segments.removeIf(segment -> {
+            if (segment.count > 0 && now - segment.maxTime < retentionMillis) return false;
+            if (!segment.file.delete() && segment.file.exists()) return false;
+            new File(directory, segment.seq + INDEX_SUFFIX).delete();
+            return true;
+        });
+    }
+
+    private void writeIndex(Segment segment) throws IOException {
+        File file = new File(directory, segment.seq + INDEX_SUFFIX);
+        File temp = new File(directory, segment.seq + INDEX_SUFFIX + ".tmp");
+        try (DataOutputStream index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            index.writeInt(INDEX_MAGIC);
+            index.writeByte(INDEX_VERSION);
+            index.writeLong(segment.minTime);
+            index.writeLong(segment.maxTime);
+            index.writeInt(segment.count);
+            for (long word : segment.bloom) index.writeLong(word);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 색인이 없거나 형식이 다르면 null
+    private static Segment readIndex(long seq, File segmentFile) {
+        File file = new File(segmentFile.getParentFile(), seq + INDEX_SUFFIX);
+        if (!file.isFile()) return null;
+        try (DataInputStream index = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (index.readInt() != INDEX_MAGIC || index.readByte() != INDEX_VERSION) return null;
+            Segment segment = new Segment(seq, segmentFile);
+            segment.minTime = index.readLong();
+            segment.maxTime = index.readLong();
+            segment.count = index.readInt();
+            for (int i = 0; i < BLOOM_LONGS; i++) segment.bloom[i] = index.readLong();
+            return segment;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Segment rebuildIndex(long seq, File file) throws IOException {
+        Segment segment = new Segment(seq, file);
+        try (DataInputStream in = openSegment(file)) {
+            while (true) {
+                long time = in.readLong();
+                long msb = in.readLong();
+                long lsb = in.readLong();
+                in.skipNBytes(58 - 24);
+                segment.add(time, msb, lsb);
+            }
+        } catch (EOFException | ZipException e) {
+            // 끝 (비정상 종료로 잘린 세그먼트는 읽을 수 있는 데까지)
+        }
+        return segment;
+    }
+
+    private static List<Entry> scan(File file, UUID player, long from, long to) throws IOException {
+        List<Entry> matches = new ArrayList<>();
+        long msb = player.getMostSignificantBits();
+        long lsb = player.getLeastSignificantBits();
+        try (DataInputStream in = openSegment(file)) {
+            while (true) {
+                long time = in.readLong();
+                long playerMsb = in.readLong();
+                long playerLsb = in.readLong();
+                int category = in.readUnsignedByte();
+                int kind = in.readUnsignedByte();
+                long delta = in.readLong();
+                long value = in.readLong();
+                long actorMsb = in.readLong();
+                long actorLsb = in.readLong();
+                if (playerMsb != msb || playerLsb != lsb || time < from || time > to) continue;
+                if (category >= SoulCategory.COUNT || kind >= Kind.VALUES.length) continue; // 다른 버전에서 추가된 값
+                matches.add(new Entry(time, player, SoulCategory.VALUES[category], Kind.VALUES[kind], delta, value,
+                        actorMsb == 0 && actorLsb == 0 ? null : new UUID(actorMsb, actorLsb)));
+            }
+        } catch (EOFException | ZipException e) {
+            // 끝 (쓰는 중인 세그먼트는 마지막 플러시까지만 읽힘)
+        }
+        return matches;
+    }
+
+    private static DataInputStream openSegment(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 8192), 65536));
+    }
+}
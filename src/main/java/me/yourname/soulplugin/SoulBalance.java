@@ -0,0 +1,59 @@
+package me.yourname.soulplugin;
+
+import java.util.UUID;
+
+/**
+ * 한 플레이어의 분야별 영혼 수치. 조회한 시점의 값이며 바뀌지 않습니다.
+ * SoulService 조회 결과와 SoulBalanceUpdateEvent에서 사용합니다.
+ */
+public final class SoulBalance {
+    private final UUID player;
+    private final long[] values; // SoulCategory.ordinal() 순서
+
+    private SoulBalance(UUID player, long[] values) {
+        this.player = player;
+        this.values = values;
+    }
+
+    // values는 복사하므로 호출한 쪽에서 다시 써도 됨
+    static SoulBalance of(UUID player, long[] values) {
+        long[] copy = new long[SoulCategory.COUNT];
+        System.arraycopy(values, 0, copy, 0, SoulCategory.COUNT);
+        return new SoulBalance(player, copy);
+    }
+
+    static SoulBalance of(PlayerSouls souls) {
+        long[] values = new long[SoulCategory.COUNT];
+        for (SoulCategory category : SoulCategory.VALUES) {
+            values[category.ordinal()] = souls.getSouls(category);
+        }
+        return new SoulBalance(souls.owner(), values);
+    }
+
+    public UUID player() {
+        return player;
+    }
+
+    public long get(SoulCategory category) {
+        return values[category.ordinal()];
+    }
+
+    // 모든 분야의 합 (넘치면 Long.MAX_VALUE)
+    public long total() {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+            if (sum < 0) return Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("SoulBalance{").append(player);
+        for (SoulCategory category : SoulCategory.VALUES) {
+            out.append(", ").append(category.key()).append('=').append(values[category.ordinal()]);
+        }
+        return out.append('}').toString();
+    }
+}
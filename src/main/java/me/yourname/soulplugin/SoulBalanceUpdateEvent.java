@@ -0,0 +1,37 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 주기마다(config.yml의 api.update-ticks) 그 사이 영혼이 바뀐 플레이어의 현재 값을 한 번에 알립니다.
+ * 관리자 명령, 대량 작업, 다른 서버에서 받은 값까지 모든 변경을 포함하며, 같은 플레이어가 여러 번 바뀌어도 한 번만 들어갑니다.
+ * 메인 스레드(Folia는 글로벌 리전)에서 발생합니다.
+ */
+public final class SoulBalanceUpdateEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Map<UUID, SoulBalance> balances;
+
+    SoulBalanceUpdateEvent(Map<UUID, SoulBalance> balances) {
+        this.balances = Collections.unmodifiableMap(balances);
+    }
+
+    // 바뀐 플레이어 -> 현재 값 (읽기 전용)
+    public Map<UUID, SoulBalance> getBalances() {
+        return balances;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
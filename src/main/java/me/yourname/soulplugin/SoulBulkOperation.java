@@ -0,0 +1,534 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 여러 플레이어(오프라인 포함)에 대한 관리자 작업. (/souls bulk)
+ * <p>
+ * 대상 플레이어를 BATCH_SIZE명씩 나누어, 저장소 읽기는 비동기 스레드에서, 값 변경은 메인 스레드(Folia는 글로벌 리전)에서
+ * 묶음 하나씩 처리합니다. 묶음 사이에는 다른 작업이 실행되므로 5만 명을 바꿔도 서버가 멈추지 않습니다.
+ * 값은 SoulCache.modifyAllAsync로 캐시에 올리는 작업 안에서 바꾸므로 저널, 순위표, 서버 간 동기화에 그대로 반영되고,
+ * 저장은 평소처럼 SoulSaver가 합니다. 대상이 all이면 목록을 만들며 훑은 값을 그대로 사용하므로 저장소를 다시 읽지 않습니다.
+ * <p>
+ * 실제로 바뀐 플레이어의 이전 값과 바뀐 값은 bulk-undo.txt에 남겨 두고 /souls bulk undo로 되돌릴 수 있습니다. (마지막 작업 하나만)
+ * 파일은 첫 묶음 전에 새로 만들고 묶음마다 덧붙이므로, 작업이 도중에 실패해도 그때까지 바뀐 플레이어는 되돌릴 수 있습니다.
+ * 되돌릴 때는 값이 아직 작업 직후 그대로인 분야만 되돌리고, 그 뒤에 바뀐 분야(새로 얻은 영혼 등)는 건드리지 않습니다.
+ * 미리 보기(dry-run)는 캐시에 올리지도, 값을 바꾸지도 않고 바뀔 양만 계산합니다.
+ * 한 번에 하나의 작업만 실행합니다.
+ */
+final class SoulBulkOperation {
+    static final int BATCH_SIZE = 500;
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L; // 진행 상황은 2초에 한 번만 알림
+
+    enum Op {
+        SET("설정"),
+        ADD("추가"),
+        REMOVE("감소"),
+        RESET("초기화"),
+        UNDO("되돌리기");
+
+        private final String label;
+
+        Op(String label) {
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    private static final int SKIPPED_LOG_LIMIT = 20; // 되돌리지 않은 플레이어는 이만큼만 로그에 남김
+
+    // 작업 결과. deltas는 SoulCategory.ordinal() 순서의 변경량 합계, skipped는 되돌리기에서 작업 뒤 값이 바뀌어 일부 분야를 건너뛴 플레이어 수
+    record Result(int targets, int changed, long[] deltas, int skipped, boolean dryRun) {
+    }
+
+    // 대상 목록. prefetch는 목록을 만들며 함께 읽은 값 (all일 때만, 작업이 끝나면 닫음)
+    record Targets(List<UUID> uuids, SoulCache.Prefetch prefetch) {
+        static Targets of(List<UUID> uuids) {
+            return new Targets(uuids, null);
+        }
+
+        void close() {
+            if (prefetch != null) prefetch.close();
+        }
+    }
+
+    private final SoulCache cache;
+    private final SoulStorage storage;
+    private final Executor asyncExecutor;
+    private final Executor mainExecutor;
+    private final File dataFolder;
+    private final File undoFile;
+    private final Logger logger;
+    private final SoulAuditLog audit; // null이면 기록하지 않음
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    SoulBulkOperation(SoulCache cache, SoulStorage storage, Executor asyncExecutor, Executor mainExecutor, File dataFolder, Logger logger,
+                      SoulAuditLog audit) {
+        this.cache = cache;
+        this.storage = storage;
+        this.asyncExecutor = asyncExecutor;
+        this.mainExecutor = mainExecutor;
+        this.dataFolder = dataFolder;
+        this.undoFile = new File(dataFolder, "bulk-undo.txt");
+        this.logger = logger;
+        this.audit = audit;
+    }
+
+    boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 대상 지정 문자열을 UUID 목록으로 바꿉니다. (중복 제거, 순서 유지)
+     * <ul>
+     *     <li>all - 저장소의 모든 플레이어와 메모리에 있는 플레이어 (비동기로 읽으며, 읽은 값도 함께 보관)</li>
+     *     <li>online - 접속 중인 플레이어</li>
+     *     <li>@a[...] 등 - 엔티티 선택자 중 플레이어</li>
+     *     <li>file:&lt;파일&gt; - 플러그인 폴더 안 파일의 UUID 목록 (한 줄에 하나, #은 주석)</li>
+     *     <li>그 외 - 플레이어 이름 (접속한 적이 있어야 함)</li>
+     * </ul>
+     * 잘못된 대상이면 IllegalArgumentException으로 실패한 future를 반환합니다.
+     */
+    CompletableFuture<Targets> resolve(String target, Player sender) {
+        try {
+            if ("all".equalsIgnoreCase(target)) {
+                return CompletableFuture.supplyAsync(() -> {
+                    SoulCache.Prefetch prefetch = cache.prefetch(); // 읽기 전에 만들어야 읽는 사이 내보내진 플레이어를 가려냄
+                    Set<UUID> uuids = new LinkedHashSet<>();
+                    try {
+                        storage.loadAll((uuid, values) -> {
+                            uuids.add(uuid);
+                            prefetch.put(uuid, values);
+                        });
+                    } catch (IOException e) {
+                        prefetch.close();
+                        throw new UncheckedIOException(e);
+                    }
+                    uuids.addAll(cache.resident().keySet()); // 아직 저장되지 않은 새 플레이어
+                    return new Targets(List.copyOf(uuids), prefetch);
+                }, asyncExecutor);
+            }
+            if ("online".equalsIgnoreCase(target)) {
+                return CompletableFuture.completedFuture(Targets.of(Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).toList()));
+            }
+            if (target.startsWith("@")) {
+                Set<UUID> uuids = new LinkedHashSet<>();
+                for (Entity entity : Bukkit.selectEntities(sender, target)) {
+                    if (entity instanceof Player player) uuids.add(player.getUniqueId());
+                }
+                return CompletableFuture.completedFuture(Targets.of(List.copyOf(uuids)));
+            }
+            if (target.regionMatches(true, 0, "file:", 0, 5)) {
+                File file = listFile(target.substring(5));
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return Targets.of(readUuidList(file));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, asyncExecutor);
+            }
+            Player online = Bukkit.getPlayerExact(target);
+            OfflinePlayer player = online != null ? online : Bukkit.getOfflinePlayerIfCached(target);
+            if (player == null) {
+                throw new IllegalArgumentException("플레이어 '" + target + "'을(를) 찾을 수 없습니다.");
+            }
+            return CompletableFuture.completedFuture(Targets.of(List.of(player.getUniqueId())));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 대상 전체에 같은 작업을 적용합니다. (UNDO는 undo()로)
+     * @param categories 바꿀 분야 (전체 분야면 SoulCategory.VALUES)
+     * @param actor 실행한 관리자 (감사 기록용)
+     * @param progress 진행 상황/결과 안내 (메인 스레드 또는 비동기 스레드에서 호출됨)
+     */
+    CompletableFuture<Result> run(Op op, CompletableFuture<Targets> targets, SoulCategory[] categories, long value,
+                                  boolean dryRun, UUID actor, Consumer<String> progress) {
+        if (!running.compareAndSet(false, true)) {
+            targets.thenAccept(Targets::close);
+            return CompletableFuture.failedFuture(new IllegalStateException("이미 다른 대량 작업이 진행 중입니다."));
+        }
+        Job job = new Job(op, categories, value, null, dryRun, actor, progress);
+        return targets.thenCompose(resolved -> job.start(resolved).whenComplete((result, error) -> resolved.close()))
+                .whenComplete((result, error) -> running.set(false));
+    }
+
+    /**
+     * 마지막 작업 직전 값으로 되돌립니다. 되돌린 뒤에는 bulk-undo.txt를 지우므로 두 번 적용되지 않습니다.
+     * 작업 뒤에 값이 바뀐 분야는 그대로 두며, 그런 플레이어 수는 Result.skipped로 알립니다.
+     */
+    CompletableFuture<Result> undo(boolean dryRun, UUID actor, Consumer<String> progress) {
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("이미 다른 대량 작업이 진행 중입니다."));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readUndo();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, asyncExecutor).thenCompose(undo -> {
+            Job job = new Job(Op.UNDO, undo.categories(), 0, undo.values(), dryRun, actor, progress);
+            return job.start(Targets.of(List.copyOf(undo.values().keySet())));
+        }).whenComplete((result, error) -> running.set(false));
+    }
+
+    // CompletableFuture 실패 원인 중 안내할 메시지
+    static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof UncheckedIOException io) cause = io.getCause();
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    // 작업 하나의 진행 상태. 각 단계는 앞 단계가 끝난 뒤에만 실행되므로 필드를 따로 잠그지 않음
+    private final class Job {
+        private final Op op;
+        private final SoulCategory[] categories;
+        private final long value;
+        private final Map<UUID, long[]> restore; // UNDO: 플레이어 -> categories 순서의 이전 값, 이어서 작업 직후 값
+        private final boolean dryRun;
+        private final UUID actor;
+        private final Consumer<String> progress;
+
+        private final long[] deltas = new long[SoulCategory.COUNT];
+        private final Map<UUID, long[]> previous = new LinkedHashMap<>(); // 이번 묶음에서 실제로 바뀐 플레이어의 이전 값, 바뀐 값 (아직 파일에 쓰지 않음)
+        private final List<UUID> skippedSample = new ArrayList<>(); // 되돌리기에서 건너뛴 플레이어 (로그용, 앞쪽 일부만)
+        private List<UUID> uuids;
+        private SoulCache.Prefetch prefetch;
+        private int processed;
+        private int changed;
+        private int skipped;
+        private long lastReport = System.nanoTime();
+
+        Job(Op op, SoulCategory[] categories, long value, Map<UUID, long[]> restore, boolean dryRun, UUID actor,
+            Consumer<String> progress) {
+            this.op = op;
+            this.categories = categories;
+            this.value = value;
+            this.restore = restore;
+            this.dryRun = dryRun;
+            this.actor = actor;
+            this.progress = progress;
+        }
+
+        CompletableFuture<Result> start(Targets targets) {
+            uuids = targets.uuids();
+            prefetch = targets.prefetch();
+            if (uuids.isEmpty()) return CompletableFuture.completedFuture(result());
+            logger.info("대량 작업 시작: " + describeJob() + " (" + uuids.size() + "명)");
+            CompletableFuture<Void> ready = recordsUndo()
+                    ? CompletableFuture.runAsync(this::createUndo, asyncExecutor) // 이전 작업의 되돌리기 정보는 여기서 교체됨
+                    : CompletableFuture.completedFuture(null);
+            return ready.thenCompose(v -> batch(0)).thenCompose(v -> finish()).whenComplete((result, error) -> {
+                if (error != null && recordsUndo() && changed > 0) {
+                    progress.accept("이미 바뀐 " + changed + "명은 /souls bulk undo로 되돌릴 수 있습니다.");
+                }
+            });
+        }
+
+        // 되돌리기 파일을 쓰는 작업인지 (미리 보기와 되돌리기는 쓰지 않음)
+        private boolean recordsUndo() {
+            return !dryRun && op != Op.UNDO;
+        }
+
+        private void createUndo() {
+            try {
+                writeUndoHeader(describeJob(), categories);
+            } catch (IOException e) {
+                throw undoFailure(e);
+            }
+        }
+
+        // 묶음이 끝날 때마다 (실패했어도) 그 묶음에서 바뀐 플레이어를 덧붙임. 기록하지 못하면 되돌릴 수 없으므로 작업을 멈춤
+        private void appendUndo() {
+            if (!recordsUndo() || previous.isEmpty()) return;
+            try {
+                appendUndoEntries(previous);
+            } catch (IOException e) {
+                throw undoFailure(e);
+            }
+            previous.clear();
+        }
+
+        private CompletableFuture<Void> batch(int from) {
+            if (from >= uuids.size()) return CompletableFuture.completedFuture(null);
+            List<UUID> batch = uuids.subList(from, Math.min(from + BATCH_SIZE, uuids.size()));
+            CompletableFuture<Void> step;
+            if (dryRun) {
+                step = CompletableFuture.runAsync(() -> {
+                    Map<UUID, long[]> values;
+                    try {
+                        values = cache.peekAll(batch, prefetch);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    for (UUID uuid : batch) preview(uuid, values.get(uuid));
+                }, asyncExecutor);
+            } else {
+                // 캐시에 올리는 작업 안에서 바로 적용 (따로 실행하면 그 사이 내보내진 객체를 바꿀 수 있음)
+                step = cache.<Void>modifyAllAsync(batch, prefetch, list -> {
+                    list.forEach(this::apply);
+                    return null;
+                }, asyncExecutor, mainExecutor).whenCompleteAsync((v, error) -> appendUndo(), asyncExecutor);
+            }
+            return step.thenCompose(v -> {
+                processed += batch.size();
+                long now = System.nanoTime();
+                if (processed < uuids.size() && now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    progress.accept("대량 작업 진행 중: " + processed + "/" + uuids.size() + "명 (" + processed * 100L / uuids.size() + "%)");
+                }
+                return batch(from + batch.size());
+            });
+        }
+
+        // 미리 보기: 바뀔 값만 계산
+        private void preview(UUID uuid, long[] values) {
+            boolean any = false;
+            boolean kept = false;
+            for (int k = 0; k < categories.length; k++) {
+                int i = categories[k].ordinal();
+                kept |= changedSinceJob(uuid, k, values[i]);
+                long next = target(uuid, k, values[i]);
+                if (next != values[i]) {
+                    deltas[i] += next - values[i];
+                    any = true;
+                }
+            }
+            if (any) changed++;
+            if (kept) skip(uuid);
+        }
+
+        // 실제 적용 (메인 스레드). 이전 값 읽기와 변경 사이에 다른 변경이 끼어들지 않도록 플레이어 잠금 안에서
+        private void apply(PlayerSouls souls) {
+            long[] old = new long[2 * categories.length]; // 이전 값, 이어서 바뀐 값
+            boolean any = false;
+            boolean kept = false;
+            synchronized (souls) {
+                for (int k = 0; k < categories.length; k++) {
+                    SoulCategory category = categories[k];
+                    old[k] = souls.getSouls(category);
+                    old[categories.length + k] = old[k];
+                    kept |= changedSinceJob(souls.owner(), k, old[k]);
+                    long next = target(souls.owner(), k, old[k]);
+                    if (next == old[k]) continue;
+                    switch (op) { // 저널에 작업 종류가 그대로 남도록 같은 메서드 사용
+                        case ADD -> souls.addSoul(category, value);
+                        case REMOVE -> souls.removeSoul(category, value);
+                        default -> souls.setSoul(category, next);
+                    }
+                    long now = souls.getSouls(category);
+                    old[categories.length + k] = now;
+                    deltas[category.ordinal()] += now - old[k];
+                    if (audit != null) audit.record(SoulAuditLog.Kind.BULK, souls.owner(), category, now - old[k], now, actor);
+                    any = true;
+                }
+            }
+            if (any) {
+                changed++;
+                previous.put(souls.owner(), old);
+            }
+            if (kept) skip(souls.owner());
+        }
+
+        // UNDO: 분야 k의 현재 값이 작업 직후 값과 다르면 (그 뒤에 바뀌었으면) true. 그 분야는 되돌리지 않음
+        private boolean changedSinceJob(UUID uuid, int k, long current) {
+            return op == Op.UNDO && current != restore.get(uuid)[categories.length + k];
+        }
+
+        private void skip(UUID uuid) {
+            skipped++;
+            if (skippedSample.size() < SKIPPED_LOG_LIMIT) skippedSample.add(uuid);
+        }
+
+        // 분야 k의 값 old가 작업 후 될 값
+        private long target(UUID uuid, int k, long old) {
+            return switch (op) {
+                case SET -> Math.max(value, 0);
+                case ADD -> value <= 0 ? old : (old + value < 0 ? Long.MAX_VALUE : old + value);
+                case REMOVE -> value <= 0 ? old : Math.max(old - value, 0);
+                case RESET -> 0;
+                case UNDO -> changedSinceJob(uuid, k, old) ? old : restore.get(uuid)[k];
+            };
+        }
+
+        private CompletableFuture<Result> finish() {
+            Result result = result();
+            logger.info("대량 작업 완료: " + describeJob() + " - " + result.changed() + "/" + result.targets() + "명 변경");
+            if (skipped > 0) {
+                logger.info("작업 뒤에 값이 바뀌어 일부 분야를 되돌리지 " + (dryRun ? "않을" : "않은") + " 플레이어 " + skipped + "명: "
+                        + skippedSample + (skipped > skippedSample.size() ? " 외 " + (skipped - skippedSample.size()) + "명" : ""));
+            }
+            if (op != Op.UNDO || dryRun) return CompletableFuture.completedFuture(result); // 되돌리기 정보는 묶음마다 기록됨
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Files.deleteIfExists(undoFile.toPath()); // 두 번 되돌리지 않도록 (도중에 실패하면 남겨 두어 다시 시도 가능)
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "대량 작업 되돌리기 정보를 지우지 못했습니다.", e);
+                    progress.accept("되돌리기 정보(" + undoFile.getName() + ")를 지우지 못했습니다. (콘솔 확인)");
+                }
+                return result;
+            }, asyncExecutor);
+        }
+
+        private Result result() {
+            return new Result(uuids.size(), changed, deltas, skipped, dryRun);
+        }
+
+        private String describeJob() {
+            StringBuilder text = new StringBuilder(op.label());
+            text.append(' ');
+            text.append(String.join(",", Arrays.stream(categories).map(SoulCategory::label).toList()));
+            if (op == Op.SET || op == Op.ADD || op == Op.REMOVE) text.append(' ').append(value);
+            return text.toString();
+        }
+    }
+
+    // ---- 대상 목록 / 되돌리기 파일 ----
+
+    // 플러그인 폴더 밖의 파일은 읽지 않음
+    private File listFile(String name) {
+        File file = new File(dataFolder, name);
+        try {
+            if (name.isBlank() || !file.getCanonicalFile().toPath().startsWith(dataFolder.getCanonicalFile().toPath())) {
+                throw new IllegalArgumentException("플러그인 폴더 안의 파일만 사용할 수 있습니다: " + name);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("파일 경로가 올바르지 않습니다: " + name, e);
+        }
+        return file;
+    }
+
+    private static List<UUID> readUuidList(File file) throws IOException {
+        if (!file.isFile()) throw new IOException(file.getName() + " 파일이 없습니다.");
+        Set<UUID> uuids = new LinkedHashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                try {
+                    uuids.add(UUID.fromString(trimmed));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file.getName() + " " + lineNumber + "번째 줄이 UUID가 아닙니다: " + trimmed);
+                }
+            }
+        }
+        return List.copyOf(uuids);
+    }
+
+    private record UndoData(SoulCategory[] categories, Map<UUID, long[]> values) {
+    }
+
+    /*
+     * 형식 (UTF-8 텍스트)
+     * # <작업 설명>
+     * categories: 광물,농작물
+     * <UUID> <이전 값> <이전 값> <바뀐 값> <바뀐 값>   (각각 categories 순서)
+     */
+    // 이전 작업의 파일을 바꿔치기 (이후 appendUndoEntries로 플레이어 추가)
+    private void writeUndoHeader(String description, SoulCategory[] categories) throws IOException {
+        File temp = new File(dataFolder, undoFile.getName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# " + description);
+            writer.newLine();
+            writer.write("categories: " + String.join(",", Arrays.stream(categories).map(SoulCategory::label).toList()));
+            writer.newLine();
+        }
+        try {
+            Files.move(temp.toPath(), undoFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), undoFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void appendUndoEntries(Map<UUID, long[]> values) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(undoFile.toPath(), StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+            for (Map.Entry<UUID, long[]> entry : values.entrySet()) {
+                writer.write(entry.getKey().toString());
+                for (long recorded : entry.getValue()) {
+                    writer.write(' ');
+                    writer.write(Long.toString(recorded));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    private UncheckedIOException undoFailure(IOException e) {
+        return new UncheckedIOException(new IOException("되돌리기 정보(" + undoFile.getName() + ")를 기록하지 못해 작업을 멈췄습니다: " + e.getMessage(), e));
+    }
+
+    private UndoData readUndo() throws IOException {
+        if (!undoFile.isFile()) throw new IOException("되돌릴 대량 작업이 없습니다.");
+        SoulCategory[] categories = null;
+        Map<UUID, long[]> values = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(undoFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                if (line.startsWith("categories:")) {
+                    List<SoulCategory> parsed = new ArrayList<>();
+                    for (String name : line.substring("categories:".length()).split(",")) {
+                        SoulCategory category = SoulCategory.fromInput(name.trim());
+                        if (category == null) throw new IOException(undoFile.getName() + "의 분야 '" + name.trim() + "'을(를) 알 수 없습니다.");
+                        parsed.add(category);
+                    }
+                    categories = parsed.toArray(new SoulCategory[0]);
+                    continue;
+                }
+                String[] parts = line.trim().split(" ");
+                if (categories == null || parts.length != 2 * categories.length + 1) {
+                    throw new IOException(undoFile.getName() + " 형식이 올바르지 않습니다: " + line);
+                }
+                long[] recorded = new long[2 * categories.length];
+                try {
+                    for (int k = 0; k < recorded.length; k++) recorded[k] = Long.parseLong(parts[k + 1]);
+                    values.put(UUID.fromString(parts[0]), recorded);
+                } catch (IllegalArgumentException e) { // NumberFormatException 포함
+                    throw new IOException(undoFile.getName() + " 형식이 올바르지 않습니다: " + line, e);
+                }
+            }
+        }
+        if (categories == null) throw new IOException(undoFile.getName() + " 형식이 올바르지 않습니다. (categories 없음)");
+        return new UndoData(categories, values);
+    }
+}
@@ -0,0 +1,345 @@
+package me.yourname.soulplugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 메모리에 올라와 있는 PlayerSouls 캐시.
+ * <p>
+ * 접속 중인 플레이어는 AsyncPlayerPreLoginEvent에서 미리 읽어 두었다가 접속 시 올리고, 나가면 오프라인 LRU로 옮깁니다.
+ * 관리자 명령어로 다룬 오프라인 플레이어도 같은 LRU에 들어가며, 개수(maxOffline)와 유휴 시간(ttlMillis)으로 제한됩니다.
+ * 변경 사항이 저장소에 기록되기 전에는 절대 내보내지(evict) 않으므로, 다시 읽어도 항상 최신 값이 나옵니다.
+ * 확인과 제거는 플레이어 잠금 안에서 하며, 내보낸 PlayerSouls에는 표시를 남깁니다. (PlayerSouls.isEvicted)
+ * <p>
+ * 오프라인 플레이어의 값을 바꿀 때는 modifyAsync/modifyAllAsync를 사용합니다. 캐시에 올리는 것과 변경이 메인 스레드의 같은 작업에서
+ * 실행되므로, 그 사이에 내보내져 바꾼 값이 버려지는 일이 없습니다. (호출하는 쪽이 isEvicted를 확인할 필요 없음)
+ * <p>
+ * 모든 맵이 ConcurrentHashMap이므로 Folia 지역 스레드/비동기 스레드에서 get/join/quit을 동시에 호출해도 됩니다.
+ * 캐시에 올리기(install 후 offline 등록)와 내보내기(evictIdle)는 메인 스레드(Folia는 글로벌 리전)에서만 수행합니다.
+ */
+final class SoulCache {
+    private final SoulStorage storage;
+    private final SoulJournal journal;
+    private final SoulChangeListener listener;
+    private final int maxOffline;
+    private final long ttlMillis;
+    private final LatencyHistogram loadTimes; // 저장소 읽기 한 번(한 명 또는 여러 명)의 소요 시간 (null이면 기록하지 않음)
+    private volatile Consumer<PlayerSouls> installHook; // 캐시에 올린 직후 호출 (서버 간 동기화)
+    private volatile Predicate<UUID> pinned = uuid -> false; // true면 저장이 끝나도 내보내지 않음 (서버 간 동기화)
+
+    private final Map<UUID, PlayerSouls> resident = new ConcurrentHashMap<>();
+    private final Map<UUID, long[]> preloaded = new ConcurrentHashMap<>(); // 접속 전 미리 읽어 둔 값
+    private final Map<UUID, Long> offline = new ConcurrentHashMap<>(); // UUID -> 마지막 사용 시각 (LRU 순서는 내보낼 때 정렬)
+    private final Set<Prefetch> watchers = ConcurrentHashMap.newKeySet(); // 내보낸 플레이어를 알려 줄 대상
+
+    /**
+     * 캐시 밖에서 읽어 둔 값. (대량 작업의 "all"처럼 저장소 전체를 한 번 훑으며 얻은 값 등)
+     * 만든 뒤로 캐시에서 내보내진 플레이어는 그 사이 값이 바뀌었을 수 있으므로 get이 null을 돌려줍니다.
+     * (내보내기 전에 저장이 끝나므로, 그 플레이어는 저장소에서 다시 읽으면 최신 값)
+     * 값은 사용하기 전에 한 스레드에서 채우고, 다 쓰면 close로 등록을 풉니다.
+     */
+    final class Prefetch implements AutoCloseable {
+        private final Map<UUID, long[]> values = new HashMap<>();
+        private final Set<UUID> evicted = ConcurrentHashMap.newKeySet();
+
+        private Prefetch() {
+            watchers.add(this);
+        }
+
+        void put(UUID uuid, long[] stored) {
+            values.put(uuid, stored);
+        }
+
+        // 믿을 수 있는 값이 없으면 null
+        long[] get(UUID uuid) {
+            return evicted.contains(uuid) ? null : values.get(uuid);
+        }
+
+        @Override
+        public void close() {
+            watchers.remove(this);
+        }
+    }
+
+    SoulCache(SoulStorage storage, SoulJournal journal, SoulChangeListener listener, int maxOffline, long ttlMillis) {
+        this(storage, journal, listener, maxOffline, ttlMillis, null);
+    }
+
+    SoulCache(SoulStorage storage, SoulJournal journal, SoulChangeListener listener, int maxOffline, long ttlMillis,
+              LatencyHistogram loadTimes) {
+        this.storage = storage;
+        this.journal = journal;
+        this.listener = listener;
+        this.maxOffline = maxOffline;
+        this.ttlMillis = ttlMillis;
+        this.loadTimes = loadTimes;
+    }
+
+    // SoulSync가 캐시를 만든 뒤에 연결 (서로를 참조하므로 생성자로 넘길 수 없음)
+    void setInstallHook(Consumer<PlayerSouls> installHook) {
+        this.installHook = installHook;
+    }
+
+    /**
+     * 내보내지 않을 플레이어를 지정합니다. (다른 서버로 아직 보내지 않은 변경이 있는 플레이어)
+     * evictIdle이 플레이어 잠금 안에서 호출하므로, 같은 잠금 안에서 갱신되는 상태를 보면 확인과 제거 사이에 바뀌지 않습니다.
+     */
+    void setPinned(Predicate<UUID> pinned) {
+        this.pinned = pinned;
+    }
+
+    // 스냅샷 캡처용
+    Map<UUID, PlayerSouls> resident() {
+        return resident;
+    }
+
+    int offlineSize() {
+        return offline.size();
+    }
+
+    // 메모리에 있을 때만 반환. 디스크를 건드리지 않으므로 리스너/명령어에서 바로 사용 가능
+    PlayerSouls get(UUID uuid) {
+        PlayerSouls souls = resident.get(uuid);
+        if (souls != null && offline.containsKey(uuid)) { // 접속 중인 플레이어는 잠금 없는 조회만
+            offline.replace(uuid, System.currentTimeMillis()); // 그 사이 내보내졌으면 다시 넣지 않음
+        }
+        return souls;
+    }
+
+    /**
+     * 로그인 전 비동기 스레드에서 호출. 이미 메모리에 있으면 아무것도 하지 않음.
+     * 저장소 조회는 여기서(메인 스레드 밖에서) 끝내 둔다.
+     */
+    void preload(UUID uuid) throws IOException {
+        if (resident.containsKey(uuid)) return;
+        long[] values = loadStored(uuid);
+        preloaded.put(uuid, values != null ? values : new long[SoulSnapshot.STRIDE]);
+    }
+
+    /**
+     * 접속 시 호출. 미리 읽어 둔 값이 없으면 false (비동기 로드 필요).
+     */
+    boolean join(UUID uuid) {
+        long[] values = preloaded.remove(uuid);
+        if (resident.containsKey(uuid)) {
+            offline.remove(uuid); // 재접속: 메모리에 있는 값이 더 최신
+            return true;
+        }
+        if (values == null) return false;
+        install(uuid, values);
+        return true;
+    }
+
+    // 접속 종료 시 호출. 저장이 끝난 뒤 TTL/LRU 정책에 따라 내보내짐
+    void quit(UUID uuid) {
+        preloaded.remove(uuid);
+        if (resident.containsKey(uuid)) {
+            offline.put(uuid, System.currentTimeMillis());
+        }
+    }
+
+    // 저장소를 읽기 전에 만들어야 읽는 사이 내보내진 플레이어를 알 수 있음
+    Prefetch prefetch() {
+        return new Prefetch();
+    }
+
+    /**
+     * 오프라인 플레이어까지 포함하여 PlayerSouls에 action을 적용합니다. 결과는 action의 반환값입니다.
+     * 메모리에 없으면 asyncExecutor에서 저장소를 읽고, 캐시에 올리는 것과 action은 mainExecutor(메인 스레드/Folia 글로벌 리전)의
+     * 같은 작업에서 실행합니다. 내보내기(evictIdle)도 그 스레드에서만 하므로 action이 받은 PlayerSouls는 캐시에 올라 있습니다.
+     */
+    <T> CompletableFuture<T> modifyAsync(UUID uuid, Function<PlayerSouls, T> action, Executor asyncExecutor, Executor mainExecutor) {
+        return modifyAllAsync(List.of(uuid), null, list -> action.apply(list.get(0)), asyncExecutor, mainExecutor);
+    }
+
+    /**
+     * 여러 플레이어에 한 번에 action을 적용합니다. (대량 관리자 작업) action이 받는 목록은 uuids와 같은 순서입니다.
+     * 메모리에도 prefetch에도 없는 플레이어만 asyncExecutor에서 한꺼번에 읽고, 캐시에 올리는 것과 action은 mainExecutor의
+     * 같은 작업에서 실행합니다. 읽는 사이 캐시에서 내보내진 플레이어가 있으면 다시 읽은 뒤 실행합니다.
+     * @param prefetch 미리 읽어 둔 값 (없으면 null)
+     */
+    <T> CompletableFuture<T> modifyAllAsync(List<UUID> uuids, Prefetch prefetch, Function<List<PlayerSouls>, T> action,
+                                           Executor asyncExecutor, Executor mainExecutor) {
+        Prefetch read = new Prefetch();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            if (!resident.containsKey(uuid) && (prefetch == null || prefetch.get(uuid) == null)) missing.add(uuid);
+        }
+        CompletableFuture<Void> loaded = missing.isEmpty() ? CompletableFuture.completedFuture(null) : CompletableFuture.runAsync(() -> {
+            Map<UUID, long[]> stored;
+            try {
+                stored = loadStored(missing);
+            } catch (IOException e) {
+                throw new IllegalStateException(missing.size() + "명의 영혼 데이터를 불러오지 못했습니다: " + e.getMessage(), e);
+            }
+            for (UUID uuid : missing) {
+                long[] values = stored.get(uuid);
+                read.put(uuid, values != null ? values : new long[SoulSnapshot.STRIDE]);
+            }
+        }, asyncExecutor);
+        return loaded.thenComposeAsync(v -> {
+            read.close();
+            long[][] values = new long[uuids.size()][];
+            for (int i = 0; i < values.length; i++) {
+                UUID uuid = uuids.get(i);
+                if (resident.containsKey(uuid)) continue; // 읽는 동안 다른 경로로 올라왔다면 그쪽이 최신
+                values[i] = read.get(uuid);
+                if (values[i] == null && prefetch != null) values[i] = prefetch.get(uuid);
+                if (values[i] == null) { // 읽은 뒤(또는 읽지 않았는데) 내보내짐: 저장소에서 다시
+                    return modifyAllAsync(uuids, prefetch, action, asyncExecutor, mainExecutor);
+                }
+            }
+            long now = System.currentTimeMillis();
+            List<PlayerSouls> list = new ArrayList<>(uuids.size());
+            for (int i = 0; i < values.length; i++) {
+                UUID uuid = uuids.get(i);
+                PlayerSouls souls = resident.get(uuid);
+                if (souls == null) {
+                    souls = install(uuid, values[i]);
+                    offline.put(uuid, now);
+                } else {
+                    offline.replace(uuid, now);
+                }
+                list.add(souls);
+            }
+            return CompletableFuture.completedFuture(action.apply(list));
+        }, mainExecutor).whenComplete((result, error) -> read.close());
+    }
+
+    /**
+     * 캐시에 올리지 않고 현재 값만 읽습니다. (미리 보기, 조회용. 비동기 스레드에서 호출)
+     * 메모리에 있으면 그 값, 없으면 prefetch의 값, 그것도 없으면 저장소에서 한꺼번에 읽습니다. 저장된 적이 없으면 모두 0.
+     * @param prefetch 미리 읽어 둔 값 (없으면 null)
+     */
+    Map<UUID, long[]> peekAll(Collection<UUID> uuids, Prefetch prefetch) throws IOException {
+        Map<UUID, long[]> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            PlayerSouls souls = resident.get(uuid);
+            long[] values = null;
+            if (souls != null) {
+                values = new long[SoulCategory.COUNT];
+                for (SoulCategory category : SoulCategory.VALUES) {
+                    values[category.ordinal()] = souls.getSouls(category);
+                }
+            } else if (prefetch != null) {
+                values = prefetch.get(uuid); // 내보내질 때는 resident에서 빼기 전에 표시하므로, 여기서 없으면 표시도 보임
+            }
+            if (values != null) {
+                result.put(uuid, values);
+            } else {
+                missing.add(uuid);
+            }
+        }
+        Map<UUID, long[]> stored = loadStored(missing);
+        for (UUID uuid : missing) {
+            long[] values = stored.get(uuid);
+            result.put(uuid, values != null ? values : new long[SoulCategory.COUNT]);
+        }
+        return result;
+    }
+
+    /**
+     * 메인 스레드에서 저장소를 직접 읽습니다. 서버 시작 시(저널 재생, 이미 접속 중인 플레이어)에만 사용해야 합니다.
+     */
+    PlayerSouls loadBlocking(UUID uuid, boolean online) throws IOException {
+        loadBlocking(List.of(uuid), online);
+        return resident.get(uuid);
+    }
+
+    // 여러 명을 한 번에 읽어 올림. 메모리에 없는 플레이어만 저장소에서 한꺼번에 읽음
+    void loadBlocking(Collection<UUID> uuids, boolean online) throws IOException {
+        Map<UUID, long[]> stored = loadStored(uuids.stream().filter(uuid -> !resident.containsKey(uuid)).toList());
+        long now = System.currentTimeMillis();
+        for (UUID uuid : uuids) {
+            if (!resident.containsKey(uuid)) {
+                long[] values = stored.get(uuid);
+                install(uuid, values != null ? values : new long[SoulSnapshot.STRIDE]);
+            }
+            if (online) {
+                offline.remove(uuid);
+            } else {
+                offline.putIfAbsent(uuid, now);
+            }
+        }
+    }
+
+    private long[] loadStored(UUID uuid) throws IOException {
+        long start = System.nanoTime();
+        long[] values = storage.load(uuid);
+        if (loadTimes != null) loadTimes.recordSince(start);
+        return values;
+    }
+
+    private Map<UUID, long[]> loadStored(Collection<UUID> uuids) throws IOException {
+        if (uuids.isEmpty()) return Map.of();
+        long start = System.nanoTime();
+        Map<UUID, long[]> values = storage.load(uuids);
+        if (loadTimes != null) loadTimes.recordSince(start);
+        return values;
+    }
+
+    private PlayerSouls install(UUID uuid, long[] values) {
+        PlayerSouls souls = new PlayerSouls(uuid, journal, listener);
+        souls.load(values);
+        resident.put(uuid, souls);
+        Consumer<PlayerSouls> hook = installHook;
+        if (hook != null) hook.accept(souls); // 메모리에 없는 동안 다른 서버에서 받은 값 적용
+        return souls;
+    }
+
+    /**
+     * 오래되었거나 개수 제한을 넘은 오프라인 플레이어를 내보냅니다. 메인 스레드(Folia는 글로벌 리전)에서 호출.
+     * @param savedJournalSeq 저장소에 기록이 끝난 마지막 스냅샷의 저널 번호
+     * @return 저장이 끝나지 않아 내보내지 못한 플레이어 수 (0보다 크면 저장을 앞당기는 것이 좋음)
+     */
+    int evictIdle(int savedJournalSeq) {
+        long now = System.currentTimeMillis();
+        int overflow = offline.size() - maxOffline;
+        int blocked = 0;
+        List<Map.Entry<UUID, Long>> candidates = new ArrayList<>(offline.entrySet());
+        candidates.sort(Map.Entry.comparingByValue()); // 오래 사용하지 않은 순서
+        for (Map.Entry<UUID, Long> entry : candidates) {
+            boolean expired = now - entry.getValue() >= ttlMillis;
+            if (!expired && overflow <= 0) break;
+            PlayerSouls souls = resident.get(entry.getKey());
+            if (souls == null) {
+                offline.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            // 저장 여부 확인부터 제거까지 플레이어 잠금 안에서 (그 사이 다른 스레드의 변경이 끼어들어 버려지지 않도록)
+            synchronized (souls) {
+                if (!souls.isSavedBy(savedJournalSeq)) {
+                    blocked++;
+                    continue;
+                }
+                if (pinned.test(entry.getKey())) continue; // 다음 flush 후에 내보냄 (저장과 무관하므로 blocked에 넣지 않음)
+                // 그 사이 재접속(offline에서 제거)했거나 다시 사용(시각 갱신)했으면 내보내지 않음
+                if (!offline.remove(entry.getKey(), entry.getValue())) continue;
+                for (Prefetch watcher : watchers) watcher.evicted.add(entry.getKey()); // 캐시에서 빼기 전에 (peekAll 참고)
+                resident.remove(entry.getKey(), souls);
+                souls.markEvicted(); // 이미 이 객체를 잡은 스레드(SoulSync 등)가 알 수 있도록
+            }
+            overflow--;
+        }
+        return blocked;
+    }
+
+    void clear() {
+        resident.clear();
+        preloaded.clear();
+        offline.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package me.yourname.soulplugin;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 영혼 분야. 카운터 배열의 인덱스는 ordinal()을 그대로 사용합니다.
+ * 한글 이름(label)은 명령어 입력과 메시지 표시용이며, 저장/조회 키로는 쓰지 않습니다.
+ * <p>
+ * 새 분야는 반드시 맨 뒤에 추가해야 합니다. (스냅샷/저장소가 ordinal 순서를 따름)
+ * SoulService로 다른 플러그인에도 공개됩니다.
+ */
+public enum SoulCategory {
+    MINING("광물"),
+    FARMING("농작물"),
+    ASSASSINATION("암살"),
+    HUNTING("사냥");
+
+    // values()는 호출할 때마다 배열을 복사하므로 한 번만 만들어 둠
+    static final SoulCategory[] VALUES = values();
+    static final int COUNT = VALUES.length;
+    private static final List<String> LABELS = List.of(VALUES).stream().map(SoulCategory::label).toList();
+
+    private final String label;
+
+    SoulCategory(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    // 명령어 자동 완성/안내용 한글 이름 목록
+    static List<String> labels() {
+        return LABELS;
+    }
+
+    /**
+     * 한글 이름(광물) 또는 영문 이름(MINING, mining)으로 분야를 찾습니다. 없으면 null.
+     */
+    public static SoulCategory fromInput(String input) {
+        for (SoulCategory category : VALUES) {
+            if (category.label.equals(input) || category.name().equalsIgnoreCase(input)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    // SQLite 컬럼 등 소문자 식별자
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
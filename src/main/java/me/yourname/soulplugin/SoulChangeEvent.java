@@ -0,0 +1,105 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * 영혼이 바뀌기 직전에 발생합니다. 취소하면 바뀌지 않으며, 획득(amount &gt; 0)은 양을 바꿀 수 있습니다. (등급별 배율 등)
+ * <p>
+ * 블록 파괴/처치 보상, /souls redeem, 상점 구매, SoulService의 deposit/withdraw에서 발생합니다.
+ * 관리자 명령, 대량 작업, 다른 서버에서 받은 값은 취소할 수 없으므로 발생하지 않습니다. (SoulBalanceUpdateEvent에는 포함)
+ * 이 이벤트를 받는 플러그인이 없으면 이벤트 객체를 만들지 않습니다.
+ */
+public final class SoulChangeEvent extends Event implements Cancellable {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public enum Cause {
+        BLOCK_BREAK,
+        PLAYER_KILL,
+        MONSTER_KILL,
+        REDEEM, // /souls redeem
+        SHOP,
+        PLUGIN // SoulService.deposit/withdraw
+    }
+
+    private final UUID player;
+    private final SoulCategory category;
+    private final Cause cause;
+    private long amount;
+    private boolean cancelled;
+
+    private SoulChangeEvent(UUID player, SoulCategory category, Cause cause, long amount) {
+        super(!Bukkit.isPrimaryThread());
+        this.player = player;
+        this.category = category;
+        this.cause = cause;
+        this.amount = amount;
+    }
+
+    /**
+     * 이벤트를 발생시킵니다. 받는 플러그인이 없으면 바로 amount를 반환합니다. (블록 파괴마다 불리는 경로)
+     * @param amount 변경량 (획득은 양수, 인출/구매는 음수)
+     * @return 적용할 변경량. 취소되었으면 0
+     */
+    static long call(UUID player, SoulCategory category, Cause cause, long amount) {
+        if (HANDLERS.getRegisteredListeners().length == 0) return amount;
+        SoulChangeEvent event = new SoulChangeEvent(player, category, cause, amount);
+        Bukkit.getPluginManager().callEvent(event);
+        return event.cancelled ? 0 : event.amount;
+    }
+
+    public UUID getPlayerId() {
+        return player;
+    }
+
+    // 접속 중이 아니면 null
+    public Player getPlayer() {
+        return Bukkit.getPlayer(player);
+    }
+
+    public SoulCategory getCategory() {
+        return category;
+    }
+
+    public Cause getCause() {
+        return cause;
+    }
+
+    // 변경량 (획득은 양수, 인출/구매는 음수)
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * 획득량을 바꿉니다. 인출/구매 금액은 바꿀 수 없습니다. (취소만 가능)
+     */
+    public void setAmount(long amount) {
+        if (this.amount <= 0) throw new IllegalStateException("인출/구매 금액은 바꿀 수 없습니다. 취소만 가능합니다.");
+        if (amount <= 0) throw new IllegalArgumentException("획득량은 0보다 커야 합니다. 주지 않으려면 취소하세요.");
+        this.amount = amount;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
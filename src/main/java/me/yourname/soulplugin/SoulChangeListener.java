@@ -0,0 +1,29 @@
+package me.yourname.soulplugin;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * PlayerSouls 값 변경 알림. (순위표, 서버 간 동기화)
+ * 변경한 플레이어의 잠금 안에서 호출되므로 빠르게 끝나야 하고, 같은 플레이어의 변경은 항상 순서대로 전달됩니다.
+ */
+interface SoulChangeListener {
+
+    /**
+     * @param remote 다른 서버에서 받은 값을 적용한 경우 true (다시 내보내지 않도록)
+     */
+    void changed(UUID owner, SoulCategory category, long oldValue, long newValue, boolean remote);
+
+    // 여러 리스너를 순서대로 호출 (null은 무시)
+    static SoulChangeListener of(SoulChangeListener... listeners) {
+        SoulChangeListener[] targets = Arrays.stream(listeners).filter(Objects::nonNull)
+                .toArray(SoulChangeListener[]::new);
+        if (targets.length == 1) return targets[0];
+        return (owner, category, oldValue, newValue, remote) -> {
+            for (SoulChangeListener target : targets) {
+                target.changed(owner, category, oldValue, newValue, remote);
+            }
+        };
+    }
+}
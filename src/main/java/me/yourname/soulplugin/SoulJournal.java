@@ -0,0 +1,283 @@
+package me.yourname.soulplugin;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 영혼 변경 내역을 기록하는 추가 전용(append-only) 저널.
+ * <p>
+ * addSoul/removeSoul/setSoul/redeem이 호출될 때마다 한 줄씩 기록하고, 몇 초 간격으로 디스크에 flush합니다.
+ * 저널은 세그먼트 파일(souls-&lt;번호&gt;.journal) 단위로 나뉘며, 스냅샷(souls.yml)을 뜰 때 세그먼트를 넘기고
+ * 스냅샷 저장이 끝나면 그 스냅샷에 포함된 세그먼트를 삭제(컴팩션)합니다.
+ * 서버 시작 시에는 스냅샷 위에 남아 있는 세그먼트를 순서대로 재생합니다.
+ * <p>
+ * 각 줄에는 변경 후 값도 함께 기록합니다. (OP UUID 분야 변경량 변경후값)
+ * 재생은 변경 후 값을 그대로 설정하므로, 스냅샷에 이미 반영된 변경을 다시 재생해도 결과가 같습니다.
+ * 덕분에 rotate와 스냅샷 캡처 사이에 다른 스레드가 값을 바꾸어도 중복 반영되지 않습니다.
+ * (변경 후 값이 없는 이전 버전 저널은 OP대로 재생)
+ */
+final class SoulJournal {
+    enum Op { ADD, REMOVE, SET, REDEEM }
+
+    private static final String PREFIX = "souls-";
+    private static final String SUFFIX = ".journal";
+
+    // 변경한 스레드 -> 기록 스레드로 넘기는 항목. rotate 표시는 op가 null
+    private record Entry(Op op, UUID uuid, SoulCategory category, long amount, long value) {}
+    private static final Entry ROTATE = new Entry(null, null, null, 0, 0);
+
+    private final File directory;
+    private final Logger logger;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger entriesSinceRotate = new AtomicInteger();
+
+    private volatile boolean open; // 로드/재생이 끝나기 전에는 기록하지 않음
+    private volatile int currentSeq;
+    private volatile long bytesWritten; // 기록 스레드에서만 증가
+
+    // 아래 필드는 기록 스레드(flush 호출 스레드)에서만 접근
+    private int writerSeq;
+    private FileOutputStream out;
+    private BufferedWriter writer;
+
+    SoulJournal(File directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    /**
+     * snapshotSeq 이후의 세그먼트를 순서대로 재생합니다.
+     * @param snapshotSeq 스냅샷에 이미 반영된 마지막 세그먼트 번호
+     * @param soulsFor UUID에 해당하는 PlayerSouls를 돌려주는 함수 (없으면 생성)
+     * @return 재생한 항목 수
+     */
+    int replay(int snapshotSeq, Function<UUID, PlayerSouls> soulsFor) {
+        int applied = 0;
+        for (int seq : listSegments()) {
+            if (seq <= snapshotSeq) continue; // 컴팩션 후 삭제되지 못한 세그먼트는 이미 스냅샷에 포함됨
+            File file = segmentFile(seq);
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                int lineNo = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNo++;
+                    if (line.isEmpty()) continue;
+                    if (!applyLine(line, soulsFor)) {
+                        // 크래시로 마지막 줄이 잘린 경우 등
+                        logger.warning("저널 " + file.getName() + " " + lineNo + "번째 줄을 해석할 수 없어 스킵합니다: " + line);
+                        continue;
+                    }
+                    applied++;
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "저널 " + file.getName() + " 재생 중 오류 발생!", e);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * snapshotSeq 이후의 세그먼트에 나오는 플레이어. 재생 전에 저장소에서 한 번에 읽어 두기 위해 사용합니다.
+     * 해석할 수 없는 줄은 replay에서 경고하므로 여기서는 조용히 건너뜁니다.
+     */
+    Set<UUID> players(int snapshotSeq) {
+        Set<UUID> players = new LinkedHashSet<>();
+        for (int seq : listSegments()) {
+            if (seq <= snapshotSeq) continue;
+            File file = segmentFile(seq);
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(" ", 3);
+                    if (parts.length < 3) continue;
+                    try {
+                        players.add(UUID.fromString(parts[1]));
+                    } catch (IllegalArgumentException ignored) {
+                    }
+                }
+            } catch (IOException ignored) {
+                // replay에서 다시 읽으면서 오류를 기록함 (미리 읽지 못한 플레이어는 그때 한 명씩 읽음)
+            }
+        }
+        return players;
+    }
+
+    private boolean applyLine(String line, Function<UUID, PlayerSouls> soulsFor) {
+        String[] parts = line.split(" ");
+        if (parts.length != 4 && parts.length != 5) return false;
+        try {
+            Op op = Op.valueOf(parts[0]);
+            UUID uuid = UUID.fromString(parts[1]);
+            SoulCategory category = SoulCategory.fromInput(parts[2]); // 이전 버전 저널의 한글 이름도 허용
+            if (category == null) return false;
+            long amount = Long.parseLong(parts[3]);
+            PlayerSouls souls = soulsFor.apply(uuid);
+            if (parts.length == 5) {
+                souls.setSoul(category, Long.parseLong(parts[4])); // 변경 후 값
+                return true;
+            }
+            switch (op) {
+                case ADD -> souls.addSoul(category, amount);
+                case REMOVE -> souls.removeSoul(category, amount);
+                case SET -> souls.setSoul(category, amount);
+                case REDEEM -> souls.tryRedeem(category, amount);
+            }
+            return true;
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            return false;
+        }
+    }
+
+    // 재생이 끝난 뒤 호출. 이후의 기록은 기존 세그먼트 다음 번호부터 시작
+    void open(int snapshotSeq) {
+        int[] segments = listSegments();
+        int last = segments.length == 0 ? 0 : segments[segments.length - 1];
+        currentSeq = Math.max(last, snapshotSeq) + 1;
+        writerSeq = currentSeq;
+        open = true;
+    }
+
+    // 여러 스레드에서 호출 가능. 같은 플레이어의 기록 순서는 PlayerSouls의 잠금으로 보장됨
+    void append(Op op, UUID uuid, SoulCategory category, long amount, long value) {
+        if (!open) return;
+        queue.add(new Entry(op, uuid, category, amount, value));
+        entriesSinceRotate.incrementAndGet();
+    }
+
+    // 지금까지 세그먼트 파일에 기록한 바이트 수 (지표용)
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    // 마지막 rotate 이후 기록된 항목 수 (컴팩션 시점 판단용)
+    int entriesSinceRotate() {
+        return entriesSinceRotate.get();
+    }
+
+    /**
+     * 현재 세그먼트를 닫고 새 세그먼트로 넘어갑니다. 이 직후 캡처한 스냅샷은 반환된 번호까지의 세그먼트를 모두 반영합니다.
+     * (캡처 도중 다른 스레드의 변경이 다음 세그먼트에 기록되고 스냅샷에도 포함될 수 있지만, 재생이 멱등이라 문제없음)
+     * 한 스레드(메인 스레드/글로벌 리전)에서만 호출해야 합니다.
+     * @return 닫힌(스냅샷에 포함되는) 마지막 세그먼트 번호
+     */
+    synchronized int rotate() {
+        if (!open) return 0;
+        int closed = currentSeq++;
+        queue.add(ROTATE);
+        entriesSinceRotate.set(0);
+        return closed;
+    }
+
+    // 대기 중인 항목을 디스크에 기록. 항상 같은 단일 I/O 스레드에서 호출해야 함
+    void flush() {
+        Entry entry;
+        try {
+            while ((entry = queue.poll()) != null) {
+                if (entry == ROTATE) {
+                    closeSegment();
+                    writerSeq++;
+                    continue;
+                }
+                if (writer == null) openSegment();
+                String amount = Long.toString(entry.amount());
+                String value = Long.toString(entry.value());
+                writer.write(entry.op().name());
+                writer.write(' ');
+                writer.write(entry.uuid().toString());
+                writer.write(' ');
+                writer.write(entry.category().name());
+                writer.write(' ');
+                writer.write(amount);
+                writer.write(' ');
+                writer.write(value);
+                writer.write('\n');
+                // 모두 ASCII라 글자 수 = 바이트 수 (UUID 36자, 공백 4개, 줄바꿈 1개)
+                bytesWritten += entry.op().name().length() + 36 + entry.category().name().length()
+                        + amount.length() + value.length() + 5;
+            }
+            if (writer != null) {
+                writer.flush();
+                out.getFD().sync();
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "영혼 저널 기록 중 오류 발생!", e);
+        }
+    }
+
+    // 스냅샷 저장이 성공한 뒤 호출. I/O 스레드에서만 호출해야 함
+    void deleteUpTo(int seq) {
+        for (int segment : listSegments()) {
+            if (segment > seq) break;
+            if (segment == writerSeq && writer != null) continue; // 방어 코드: 열려 있는 세그먼트는 지우지 않음
+            File file = segmentFile(segment);
+            if (!file.delete()) {
+                logger.warning("저널 세그먼트 삭제 실패: " + file.getPath());
+            }
+        }
+    }
+
+    void close() {
+        open = false;
+        flush();
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "영혼 저널을 닫는 중 오류 발생!", e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("저널 폴더 생성 실패: " + directory.getPath());
+        }
+        out = new FileOutputStream(segmentFile(writerSeq), true);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private void closeSegment() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            out.getFD().sync();
+            writer.close();
+            writer = null;
+            out = null;
+        }
+    }
+
+    private File segmentFile(int seq) {
+        return new File(directory, PREFIX + seq + SUFFIX);
+    }
+
+    private int[] listSegments() {
+        String[] names = directory.list();
+        if (names == null) return new int[0];
+        return Arrays.stream(names)
+                .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                .mapToInt(name -> {
+                    try {
+                        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                    } catch (NumberFormatException e) {
+                        return -1;
+                    }
+                })
+                .filter(seq -> seq > 0)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,79 @@
+package me.yourname.soulplugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 분야별 영혼 순위표. (/souls top, 표지판/홀로그램 등)
+ * <p>
+ * 요청마다 전체 플레이어를 정렬하지 않고, PlayerSouls의 값이 바뀔 때마다 분야별 RankedIndex를 갱신합니다.
+ * 오프라인 플레이어도 포함하지만 PlayerSouls를 올리지 않고 (점수, UUID)만 보관하며, 0점인 플레이어는 넣지 않습니다.
+ * 시작 시 저장소를 한 번 훑어 채운 뒤(seed)부터 변경을 반영합니다.
+ */
+final class SoulLeaderboard implements SoulChangeListener {
+
+    record Entry(UUID uuid, long score) {
+    }
+
+    private final RankedIndex[] indexes = new RankedIndex[SoulCategory.COUNT];
+    private volatile boolean ready; // seed 전의 변경(저널 재생 등)은 seed에서 한꺼번에 반영
+
+    SoulLeaderboard() {
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = new RankedIndex();
+        }
+    }
+
+    /**
+     * 저장소의 모든 플레이어와 메모리에 있는 플레이어(저널 재생분 포함)로 순위표를 채웁니다.
+     * 플러그인 활성화 중, 리스너 등록 전에 호출해야 합니다.
+     */
+    void seed(SoulStorage storage, Map<UUID, PlayerSouls> resident) throws IOException {
+        storage.loadAll((uuid, values) -> {
+            if (resident.containsKey(uuid)) return; // 메모리 값이 더 최신
+            for (SoulCategory category : SoulCategory.VALUES) {
+                long value = values[category.ordinal()];
+                if (value > 0) indexes[category.ordinal()].insert(value, uuid);
+            }
+        });
+        for (PlayerSouls souls : resident.values()) {
+            for (SoulCategory category : SoulCategory.VALUES) {
+                long value = souls.getSouls(category);
+                if (value > 0) indexes[category.ordinal()].insert(value, souls.owner());
+            }
+        }
+        ready = true;
+    }
+
+    // PlayerSouls의 잠금 안에서 호출되므로 같은 플레이어의 변경 순서가 보장됨 (다른 서버에서 받은 값도 반영)
+    @Override
+    public void changed(UUID uuid, SoulCategory category, long oldValue, long newValue, boolean remote) {
+        if (!ready || oldValue == newValue) return;
+        RankedIndex index = indexes[category.ordinal()];
+        synchronized (index) { // 삭제와 삽입 사이에 조회가 끼어들지 않도록
+            if (oldValue > 0) index.remove(oldValue, uuid);
+            if (newValue > 0) index.insert(newValue, uuid);
+        }
+    }
+
+    // 순위표에 올라 있는(1점 이상) 플레이어 수
+    int size(SoulCategory category) {
+        return indexes[category.ordinal()].size();
+    }
+
+    // offset번째(0부터)부터 limit명
+    List<Entry> top(SoulCategory category, int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(limit);
+        indexes[category.ordinal()].page(offset, limit, (uuid, score) -> entries.add(new Entry(uuid, score)));
+        return entries;
+    }
+
+    // 1부터 시작하는 순위. 0점이면 0
+    int rank(SoulCategory category, UUID uuid, long score) {
+        if (score <= 0) return 0;
+        return indexes[category.ordinal()].rank(score, uuid);
+    }
+}
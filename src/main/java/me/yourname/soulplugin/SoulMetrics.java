@@ -0,0 +1,225 @@
+package me.yourname.soulplugin;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 영혼 경제 지표 모음. (/souls stats, JMX, Prometheus)
+ * <p>
+ * 기록 쪽(minted, redeemed, 히스토그램 record)은 LongAdder/원자 배열만 사용하여 객체를 만들지 않고 잠금도 없습니다.
+ * 문자열/맵은 조회할 때만 만듭니다.
+ */
+final class SoulMetrics implements SoulMetricsMXBean {
+    private static final String OBJECT_NAME = "me.yourname.soulplugin:type=SoulMetrics";
+
+    final LatencyHistogram blockBreak = new LatencyHistogram();
+    final LatencyHistogram kill = new LatencyHistogram();
+    final LatencyHistogram save = new LatencyHistogram();
+    final LatencyHistogram load = new LatencyHistogram();
+
+    private final LongAdder[] minted = new LongAdder[SoulCategory.COUNT];
+    private final LongAdder[] redeemed = new LongAdder[SoulCategory.COUNT];
+    private final long startMillis = System.currentTimeMillis();
+
+    // 다른 객체가 가진 값 (플러그인 활성화 시 bind로 연결)
+    private LongSupplier bytesWritten = () -> 0;
+    private IntSupplier residentPlayers = () -> 0;
+    private IntSupplier offlineCachedPlayers = () -> 0;
+    private LongSupplier auditDropped = () -> 0;
+
+    private ObjectName registeredName;
+
+    SoulMetrics() {
+        for (int i = 0; i < SoulCategory.COUNT; i++) {
+            minted[i] = new LongAdder();
+            redeemed[i] = new LongAdder();
+        }
+    }
+
+    void bind(LongSupplier bytesWritten, IntSupplier residentPlayers, IntSupplier offlineCachedPlayers) {
+        this.bytesWritten = bytesWritten;
+        this.residentPlayers = residentPlayers;
+        this.offlineCachedPlayers = offlineCachedPlayers;
+    }
+
+    // 감사 기록을 켠 경우에만 연결
+    void bindAudit(LongSupplier auditDropped) {
+        this.auditDropped = auditDropped;
+    }
+
+    void minted(SoulCategory category, long amount) {
+        minted[category.ordinal()].add(amount);
+    }
+
+    void redeemed(SoulCategory category, long amount) {
+        redeemed[category.ordinal()].add(amount);
+    }
+
+    long mintedTotal(SoulCategory category) {
+        return minted[category.ordinal()].sum();
+    }
+
+    long redeemedTotal(SoulCategory category) {
+        return redeemed[category.ordinal()].sum();
+    }
+
+    // ---- JMX ----
+
+    void registerMBean(Logger logger) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name); // /reload 후 남아 있는 이전 인스턴스
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "JMX 지표 등록 실패", e);
+        }
+    }
+
+    void unregisterMBean() {
+        if (registeredName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException ignored) {
+            // 이미 해제됨
+        }
+        registeredName = null;
+    }
+
+    @Override
+    public Map<String, Long> getMinted() {
+        return byCategory(minted);
+    }
+
+    @Override
+    public Map<String, Long> getRedeemed() {
+        return byCategory(redeemed);
+    }
+
+    @Override
+    public Map<String, Double> getBlockBreakMicros() {
+        return describe(blockBreak, 1_000.0);
+    }
+
+    @Override
+    public Map<String, Double> getKillMicros() {
+        return describe(kill, 1_000.0);
+    }
+
+    @Override
+    public Map<String, Double> getSaveMillis() {
+        return describe(save, 1_000_000.0);
+    }
+
+    @Override
+    public Map<String, Double> getLoadMillis() {
+        return describe(load, 1_000_000.0);
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.getAsLong();
+    }
+
+    @Override
+    public int getResidentPlayers() {
+        return residentPlayers.getAsInt();
+    }
+
+    @Override
+    public int getOfflineCachedPlayers() {
+        return offlineCachedPlayers.getAsInt();
+    }
+
+    @Override
+    public long getAuditDropped() {
+        return auditDropped.getAsLong();
+    }
+
+    @Override
+    public long getUptimeSeconds() {
+        return (System.currentTimeMillis() - startMillis) / 1000;
+    }
+
+    private static Map<String, Long> byCategory(LongAdder[] adders) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (SoulCategory category : SoulCategory.VALUES) {
+            values.put(category.key(), adders[category.ordinal()].sum());
+        }
+        return values;
+    }
+
+    private static Map<String, Double> describe(LatencyHistogram histogram, double divisor) {
+        LatencyHistogram.Summary summary = histogram.summary();
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("count", (double) summary.count());
+        values.put("mean", summary.mean() / divisor);
+        values.put("p50", summary.p50() / divisor);
+        values.put("p90", summary.p90() / divisor);
+        values.put("p99", summary.p99() / divisor);
+        values.put("max", summary.max() / divisor);
+        return values;
+    }
+
+    // ---- Prometheus 텍스트 형식 ----
+
+    String toPrometheus() {
+        StringBuilder out = new StringBuilder(2048);
+        counterByCategory(out, "soulplugin_souls_minted_total", "블록/처치 보상으로 지급된 영혼", minted);
+        counterByCategory(out, "soulplugin_souls_redeemed_total", "아이템으로 인출된 영혼", redeemed);
+        summary(out, "soulplugin_block_break_seconds", "블록 파괴 리스너 소요 시간 (보상 블록)", blockBreak);
+        summary(out, "soulplugin_kill_seconds", "처치 리스너 소요 시간", kill);
+        summary(out, "soulplugin_save_seconds", "스냅샷 저장 소요 시간", save);
+        summary(out, "soulplugin_load_seconds", "저장소 읽기(한 명 또는 여러 명) 소요 시간", load);
+        gauge(out, "soulplugin_bytes_written_total", "counter", "저널/스냅샷에 기록한 바이트", getBytesWritten());
+        gauge(out, "soulplugin_resident_players", "gauge", "메모리에 있는 플레이어 수", getResidentPlayers());
+        gauge(out, "soulplugin_offline_cached_players", "gauge", "캐시된 오프라인 플레이어 수", getOfflineCachedPlayers());
+        gauge(out, "soulplugin_audit_dropped_total", "counter", "버퍼가 가득 차 버린 감사 기록 수", getAuditDropped());
+        return out.toString();
+    }
+
+    private static void counterByCategory(StringBuilder out, String name, String help, LongAdder[] adders) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        for (SoulCategory category : SoulCategory.VALUES) {
+            out.append(name).append("{category=\"").append(category.key()).append("\"} ")
+                    .append(adders[category.ordinal()].sum()).append('\n');
+        }
+    }
+
+    private static void summary(StringBuilder out, String name, String help, LatencyHistogram histogram) {
+        LatencyHistogram.Summary s = histogram.summary();
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        quantile(out, name, "0.5", s.p50());
+        quantile(out, name, "0.9", s.p90());
+        quantile(out, name, "0.99", s.p99());
+        out.append(name).append("_sum ").append(seconds((long) (s.mean() * s.count()))).append('\n');
+        out.append(name).append("_count ").append(s.count()).append('\n');
+    }
+
+    private static void quantile(StringBuilder out, String name, String quantile, long nanos) {
+        out.append(name).append("{quantile=\"").append(quantile).append("\"} ").append(seconds(nanos)).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String type, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,41 @@
+package me.yourname.soulplugin;
+
+import java.util.Map;
+
+/**
+ * JMX로 노출하는 영혼 경제 지표. (jconsole/VisualVM: me.yourname.soulplugin:type=SoulMetrics)
+ * 소요 시간 항목은 count, mean, p50, p90, p99, max 키를 가집니다.
+ */
+public interface SoulMetricsMXBean {
+
+    // 분야별 누적 획득량 (블록/처치 보상)
+    Map<String, Long> getMinted();
+
+    // 분야별 누적 인출량
+    Map<String, Long> getRedeemed();
+
+    // 블록 파괴 리스너 (보상 블록만, 마이크로초)
+    Map<String, Double> getBlockBreakMicros();
+
+    // 플레이어/몬스터 처치 리스너 (마이크로초)
+    Map<String, Double> getKillMicros();
+
+    // 스냅샷 저장 (밀리초)
+    Map<String, Double> getSaveMillis();
+
+    // 저장소 읽기 한 번, 한 명 또는 여러 명 (밀리초)
+    Map<String, Double> getLoadMillis();
+
+    // 저널 + 스냅샷 파일에 기록한 바이트 수
+    long getBytesWritten();
+
+    // 메모리에 올라와 있는 플레이어 수 (오프라인 캐시 포함)
+    int getResidentPlayers();
+
+    int getOfflineCachedPlayers();
+
+    // 버퍼가 가득 차 버린 감사 기록 수
+    long getAuditDropped();
+
+    long getUptimeSeconds();
+}
@@ -0,0 +1,117 @@
+package me.yourname.soulplugin;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 영혼 획득 알림 모음.
+ * <p>
+ * 블록/처치마다 메시지를 보내지 않고 플레이어·분야별로 획득량을 더해 두었다가, flush() 때 플레이어당 메시지 하나로 보냅니다.
+ * (광맥 채굴, 신속 신호기 등으로 초당 수십 번 캐도 채팅 패킷은 주기당 한 번)
+ * gained()는 여러 스레드(Folia 지역 스레드)에서 동시에 호출해도 되고, flush()는 한 스레드에서만 호출합니다.
+ */
+final class SoulNotifier {
+
+    enum Mode {
+        CHAT,      // 채팅창 메시지
+        ACTIONBAR, // 핫바 위 액션바 (채팅창을 가리지 않음)
+        OFF;
+
+        // 설정 값 → 모드. 알 수 없는 값이면 null
+        static Mode fromConfig(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    // 플레이어별 누적 획득량. 접속 중에는 재사용하여 획득할 때마다 객체를 만들지 않음
+    private static final class Pending {
+        final Player player;
+        final AtomicLongArray gained = new AtomicLongArray(SoulCategory.COUNT);
+        final AtomicBoolean queued = new AtomicBoolean(); // 이번 주기에 보낼 알림이 있는지
+
+        Pending(Player player) {
+            this.player = player;
+        }
+    }
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>(); // 이번 주기에 획득한 플레이어만
+    private final Mode mode;
+
+    SoulNotifier(Mode mode) {
+        this.mode = mode;
+    }
+
+    // 획득량 누적 (메시지는 flush에서 한 번에)
+    void gained(Player player, SoulCategory category, long amount) {
+        if (mode == Mode.OFF || amount <= 0) return;
+        Pending entry = pending.get(player.getUniqueId());
+        if (entry == null) {
+            entry = pending.computeIfAbsent(player.getUniqueId(), uuid -> new Pending(player));
+        }
+        entry.gained.accumulateAndGet(category.ordinal(), amount, (sum, add) -> {
+            long result = sum + add;
+            return result < 0 ? Long.MAX_VALUE : result;
+        });
+        if (entry.queued.compareAndSet(false, true)) {
+            queue.add(entry);
+        }
+    }
+
+    // 주기마다 호출: 모인 획득량을 플레이어당 메시지 하나로 전송
+    void flush() {
+        Pending entry;
+        long[] amounts = new long[SoulCategory.COUNT];
+        while ((entry = queue.poll()) != null) {
+            entry.queued.set(false); // 이후 획득분은 다음 주기에 다시 큐에 들어감
+            boolean any = false;
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = entry.gained.getAndSet(i, 0);
+                any |= amounts[i] != 0;
+            }
+            if (!any || !entry.player.isOnline()) continue;
+            Component message = format(amounts);
+            if (mode == Mode.ACTIONBAR) {
+                entry.player.sendActionBar(message);
+            } else {
+                entry.player.sendMessage(message);
+            }
+        }
+    }
+
+    // 접속 종료 시 호출. 남은 알림은 버림 (flush에서 isOnline으로 걸러짐)
+    void quit(UUID uuid) {
+        pending.remove(uuid);
+    }
+
+    // 예: [영혼] 숙련자의 영혼 획득: 광물 +12, 농작물 +3
+    private static Component format(long[] gained) {
+        TextComponent.Builder builder = Component.text()
+                .append(Component.text("[영혼] 숙련자의 영혼 획득: ", NamedTextColor.GREEN));
+        boolean first = true;
+        for (SoulCategory category : SoulCategory.VALUES) {
+            long amount = gained[category.ordinal()];
+            if (amount == 0) continue;
+            if (!first) builder.append(Component.text(", ", NamedTextColor.GRAY));
+            builder.append(Component.text(category.label() + " ", NamedTextColor.GREEN))
+                    .append(Component.text("+" + amount, NamedTextColor.WHITE));
+            first = false;
+        }
+        return builder.build();
+    }
+}
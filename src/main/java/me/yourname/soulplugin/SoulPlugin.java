@@ -1,45 +1,135 @@
 package me.yourname.soulplugin; // 
 
+import com.destroystokyo.paper.profile.PlayerProfile;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.PistonMoveReaction;
 import org.bukkit.block.data.Ageable;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 public class SoulPlugin extends JavaPlugin implements Listener {
 
-    private final Map<UUID, PlayerSouls> playerSouls = new HashMap<>();
-    private File soulsFile;
-    private FileConfiguration soulsConfig;
+    private SoulCache soulCache; // 접속 중 + 최근 사용한 오프라인 플레이어만 메모리에 유지
+    private SoulStorage storage;
+    private SoulSaver soulSaver;
+    private SoulJournal journal;
+    private long lastCompactionMillis;
+    private volatile boolean writeBackRequested; // 접속 종료 등으로 저장을 앞당겨야 하는지
+    private volatile RewardTable rewards; // /souls reload 시 새로 만든 표로 통째로 교체
+    private volatile SoulShop shop; // 상점 목록과 미리 만들어 둔 아이템 (rewards와 같은 방식으로 교체)
+    private SoulShopMenu shopMenu;
+    private SoulBulkOperation bulk; // /souls bulk (여러 플레이어 대상 관리자 작업)
+    private SoulRateLimiter limiter; // 플레이어·분야별 획득 한도
+    private PlacedBlockTracker placedBlocks; // 설치한 보상 블록 (anti-farming.placed-blocks가 꺼져 있으면 null)
+    private SoulAuditLog audit; // 영혼 변경 감사 기록 (audit.enabled가 꺼져 있거나 열지 못했으면 null)
+    private SoulNotifier notifier; // 획득 알림은 모아서 주기마다 한 번에 전송
+    private final SoulLeaderboard leaderboard = new SoulLeaderboard(); // 분야별 순위 (변경 시마다 갱신)
+    private final SoulMetrics metrics = new SoulMetrics(); // /souls stats, JMX, Prometheus
+    private PrometheusEndpoint prometheus; // metrics.prometheus.enabled일 때만
+    private SoulSync sync; // 서버 간 동기화 (sync.enabled일 때만)
+    private SoulServiceProvider service; // 다른 플러그인용 API (ServicesManager에 등록)
+
+    // 저장소 조회는 scheduler.async()에서, 결과 적용은 scheduler.global()(메인 스레드/Folia 글로벌 리전)에서
+    private SoulScheduler scheduler;
 
-    // List.of()로 불변 리스트 생성
-    private final List<String> categories = List.of("광물", "농작물", "암살", "사냥");
     private static final String PERMISSION_ADMIN = "soulplugin.admin";
+    private static final int TOP_PAGE_SIZE = 10;
+    private static final int HISTORY_PAGE_SIZE = 10;
+    private static final DateTimeFormatter HISTORY_TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // 저널은 2초마다 디스크에 기록 (크래시 시 손실 범위)
+    private static final long JOURNAL_FLUSH_TICKS = 40L;
+    // 저널이 이만큼 쌓이거나 1시간이 지나면 스냅샷으로 컴팩션
+    private static final int COMPACTION_ENTRY_THRESHOLD = 50_000;
+    private static final long COMPACTION_INTERVAL_MILLIS = 3_600_000L;
 
     @Override
     public void onEnable() {
         // 설정 파일 생성 및 로드
-        createSoulsConfig();
-        loadSoulsData();
+        saveDefaultConfig();
+        scheduler = SoulScheduler.create(this);
+        loadRewards();
+        loadShop();
+        limiter = new SoulRateLimiter(getConfig().getConfigurationSection("anti-farming.limits"));
+        if (getConfig().getBoolean("anti-farming.placed-blocks", true)) {
+            placedBlocks = new PlacedBlockTracker(new NamespacedKey(this, "placed-blocks"));
+        }
+        journal = new SoulJournal(new File(getDataFolder(), "journal"), getLogger());
+        sync = createSync();
+        service = new SoulServiceProvider(scheduler.async(), scheduler.global());
+        try {
+            storage = openStorage();
+            soulCache = new SoulCache(storage, journal, SoulChangeListener.of(leaderboard, sync, service),
+                    getConfig().getInt("cache.offline-max-size", 1000),
+                    getConfig().getLong("cache.offline-ttl-seconds", 600) * 1000L, metrics.load);
+            loadSoulsData();
+        } catch (IOException e) {
+            // 일부만 로드된 상태로 저장하면 데이터가 꼬이므로 아예 비활성화
+            getLogger().log(Level.SEVERE, "영혼 데이터 저장소를 열 수 없습니다. 플러그인을 비활성화합니다.", e);
+            if (storage != null) storage.close();
+            Bukkit.getPluginManager().disablePlugin(this);
+            return;
+        }
+        soulSaver = new SoulSaver(storage, journal, getLogger(), metrics.save);
+        audit = openAudit();
+        bulk = new SoulBulkOperation(soulCache, storage, scheduler.async(), scheduler.global(), getDataFolder(), getLogger(), audit);
+        shopMenu = new SoulShopMenu(soulCache, metrics, audit, getConfig().getLong("shop.click-cooldown-millis", 250L));
+        service.attach(soulCache, audit);
+        Bukkit.getServicesManager().register(SoulService.class, service, this, ServicePriority.Normal);
+        lastCompactionMillis = System.currentTimeMillis();
+        startMetrics();
+        if (sync != null) {
+            sync.start(soulCache); // 저널 재생이 끝난 뒤부터의 변경만 다른 서버로 보냄
+            getLogger().info("서버 간 영혼 동기화 사용: " + sync.transportName());
+        }
+
+        String notifyModeName = getConfig().getString("notifications.mode", "chat");
+        SoulNotifier.Mode notifyMode = SoulNotifier.Mode.fromConfig(notifyModeName);
+        if (notifyMode == null) {
+            getLogger().warning("notifications.mode '" + notifyModeName + "'은(는) 알 수 없는 값입니다. chat으로 설정합니다.");
+            notifyMode = SoulNotifier.Mode.CHAT;
+        }
+        notifier = new SoulNotifier(notifyMode);
 
         // 이벤트 리스너 등록
         Bukkit.getPluginManager().registerEvents(this, this);
@@ -60,231 +150,492 @@ public class SoulPlugin extends JavaPlugin implements Listener {
             getLogger().severe("'/souls' 명령어를 등록하지 못했습니다! plugin.yml 파일을 확인해주세요.");
         }
 
-        // 1시간마다 자동 저장 (20 ticks * 60 seconds * 60 minutes)
-        Bukkit.getScheduler().runTaskTimer(this, () -> {
-            saveSoulsData();
-            getLogger().info("영혼 데이터 자동 저장 완료.");
-        }, 20L * 3600, 20L * 3600);
+        // 변경 내역은 저널로 몇 초마다 기록하고, 전체 스냅샷(souls.yml)은 가끔만 다시 씀
+        scheduler.runAsyncTimer(soulSaver::flushJournalAsync, JOURNAL_FLUSH_TICKS, JOURNAL_FLUSH_TICKS);
+        // 1분마다 컴팩션 필요 여부 확인 (메인 스레드에서는 스냅샷만 뜨고, 파일 쓰기는 SoulSaver의 백그라운드 스레드에서 처리)
+        scheduler.runGlobalTimer(this::compactIfNeeded, 20L * 60, 20L * 60);
+        // 30초마다 접속 종료한 플레이어 저장 및 오래된 오프라인 캐시 정리
+        scheduler.runGlobalTimer(this::maintainCache, 20L * 30, 20L * 30);
+        // 모인 변경을 다른 서버로 전송 (기본 0.5초마다)
+        if (sync != null) {
+            long syncTicks = Math.max(getConfig().getLong("sync.flush-ticks", 10L), 1L);
+            scheduler.runAsyncTimer(sync::flush, syncTicks, syncTicks);
+        }
+        // 감사 기록 버퍼를 세그먼트 파일로 (기본 1초마다)
+        if (audit != null) {
+            long auditTicks = Math.max(getConfig().getLong("audit.drain-ticks", 20L), 1L);
+            scheduler.runAsyncTimer(audit::drain, auditTicks, auditTicks);
+        }
+        // 모인 변경을 SoulBalanceUpdateEvent로 알림 (기본 1초마다)
+        long updateTicks = Math.max(getConfig().getLong("api.update-ticks", 20L), 1L);
+        scheduler.runGlobalTimer(service::flushUpdates, updateTicks, updateTicks);
+        // 모인 획득 알림 전송 (기본 1초마다)
+        long notifyTicks = Math.max(getConfig().getLong("notifications.interval-ticks", 20L), 1L);
+        scheduler.runGlobalTimer(notifier::flush, notifyTicks, notifyTicks);
 
-        getLogger().info("Soul Plugin 활성화됨! (Paper 1.21 Version)");
+        getLogger().info("Soul Plugin 활성화됨! (Paper 1.21 Version, " + scheduler.name() + " 스케줄러)");
     }
 
-    @Override
-    public void onDisable() {
-        saveSoulsData();
-        getLogger().info("Soul Plugin 비활성화됨 - 데이터 저장 완료.");
+    // 활성화 시 rewards.yml 로드. 파일이 잘못되었으면 플러그인에 포함된 기본 보상으로 시작
+    private void loadRewards() {
+        File rewardsFile = new File(getDataFolder(), "rewards.yml");
+        if (!rewardsFile.exists()) {
+            saveResource("rewards.yml", false);
+        }
+        try {
+            rewards = RewardTable.load(rewardsFile, getLogger());
+        } catch (IOException e) {
+            getLogger().log(Level.SEVERE, "rewards.yml을 읽을 수 없어 기본 보상 설정을 사용합니다.", e);
+            InputStream defaults = getResource("rewards.yml");
+            rewards = defaults == null
+                    ? RewardTable.compile(new YamlConfiguration(), getLogger())
+                    : RewardTable.compile(YamlConfiguration.loadConfiguration(new InputStreamReader(defaults, StandardCharsets.UTF_8)), getLogger());
+        }
+        getLogger().info("보상 설정 로드: 블록 " + rewards.blockCount() + "종, 몬스터 " + rewards.monsterCount() + "종");
     }
 
-    private void createSoulsConfig() {
-        soulsFile = new File(getDataFolder(), "souls.yml");
-        if (!soulsFile.exists()) {
-            if (!getDataFolder().exists()) {
-                if (!getDataFolder().mkdirs()) { // 폴더 생성 실패 시 경고
-                    getLogger().warning("플러그인 데이터 폴더 생성 실패: " + getDataFolder().getPath());
-                }
-            }
+    // /souls reload: 파일 읽기/컴파일은 비동기로, 교체는 메인 스레드에서. 실패하면 기존 표를 그대로 유지
+    private void reloadRewards(Player player) {
+        File rewardsFile = new File(getDataFolder(), "rewards.yml");
+        CompletableFuture.supplyAsync(() -> {
             try {
-                if (!soulsFile.createNewFile()) { // 파일 생성 실패 시 (이미 존재할 수도 있지만, mkdirs 후엔 아닐 가능성)
-                    getLogger().warning("souls.yml 파일 생성 실패 (이미 존재하거나 권한 문제).");
-                }
+                return RewardTable.load(rewardsFile, getLogger());
             } catch (IOException e) {
-                getLogger().severe("souls.yml 파일 생성 중 심각한 오류 발생!");
-                e.printStackTrace();
-                return; // 설정 파일 없이는 진행 불가
+                throw new UncheckedIOException(e);
+            }
+        }, scheduler.async()).whenCompleteAsync((table, error) -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, "rewards.yml 다시 불러오기 실패", error);
+                player.sendMessage(ChatColor.RED + "[영혼] rewards.yml을 불러오지 못해 기존 보상 설정을 유지합니다. (콘솔 확인)");
+                return;
             }
+            rewards = table;
+            player.sendMessage(ChatColor.GREEN + "[영혼] 보상 설정을 다시 불러왔습니다. (블록 " + table.blockCount() + "종, 몬스터 " + table.monsterCount() + "종)");
+        }, scheduler.global());
+    }
+
+    // 활성화 시 shop.yml 로드. 파일이 잘못되었으면 플러그인에 포함된 기본 상점으로 시작
+    private void loadShop() {
+        File shopFile = new File(getDataFolder(), "shop.yml");
+        if (!shopFile.exists()) {
+            saveResource("shop.yml", false);
         }
-        soulsConfig = YamlConfiguration.loadConfiguration(soulsFile);
-        // 새 파일이거나 구조 업데이트를 위해 한 번 저장 시도
         try {
-            soulsConfig.save(soulsFile);
+            shop = SoulShop.load(shopFile, getLogger());
         } catch (IOException e) {
-            getLogger().severe("souls.yml 초기 저장 중 오류 발생!");
-            e.printStackTrace();
+            getLogger().log(Level.SEVERE, "shop.yml을 읽을 수 없어 기본 상점 설정을 사용합니다.", e);
+            InputStream defaults = getResource("shop.yml");
+            shop = defaults == null
+                    ? SoulShop.compile(new YamlConfiguration(), getLogger())
+                    : SoulShop.compile(YamlConfiguration.loadConfiguration(new InputStreamReader(defaults, StandardCharsets.UTF_8)), getLogger());
         }
+        getLogger().info("상점 설정 로드: 상품 " + shop.size() + "개");
     }
 
-    private void loadSoulsData() {
-        if (soulsConfig == null) {
-            getLogger().warning("soulsConfig가 로드 중 null입니다. 재초기화를 시도합니다.");
-            createSoulsConfig(); // 재초기화 시도
-            if (soulsConfig == null) { // 여전히 null이면 로드 중단
-                getLogger().severe("soulsConfig 초기화 실패. 데이터 로드를 중단합니다.");
+    // /souls reload: 보상 표와 같은 방식. 이미 열려 있는 상점 화면은 닫을 때까지 이전 목록을 사용
+    private void reloadShop(Player player) {
+        File shopFile = new File(getDataFolder(), "shop.yml");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return SoulShop.load(shopFile, getLogger());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, scheduler.async()).whenCompleteAsync((loaded, error) -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, "shop.yml 다시 불러오기 실패", error);
+                player.sendMessage(ChatColor.RED + "[영혼] shop.yml을 불러오지 못해 기존 상점 설정을 유지합니다. (콘솔 확인)");
                 return;
             }
+            shop = loaded;
+            player.sendMessage(ChatColor.GREEN + "[영혼] 상점 설정을 다시 불러왔습니다. (상품 " + loaded.size() + "개)");
+        }, scheduler.global());
+    }
+
+    // config.yml의 sync 설정으로 전송 계층을 고른다. 꺼져 있거나 설정이 잘못되었으면 null (동기화 없이 동작)
+    private SoulSync createSync() {
+        if (!getConfig().getBoolean("sync.enabled", false)) return null;
+        String type = getConfig().getString("sync.transport", "redis").toLowerCase(Locale.ROOT);
+        SyncTransport transport = switch (type) {
+            case "redis" -> new RedisSyncTransport(
+                    getConfig().getString("sync.redis.host", "127.0.0.1"),
+                    getConfig().getInt("sync.redis.port", 6379),
+                    getConfig().getString("sync.redis.password", ""),
+                    getConfig().getString("sync.redis.channel", "soulplugin:sync"),
+                    getLogger());
+            case "plugin-message" -> new PluginMessageSyncTransport(this, getLogger());
+            case "loopback" -> new LoopbackSyncTransport(new LoopbackSyncTransport.Hub());
+            default -> null;
+        };
+        if (transport == null) {
+            getLogger().warning("알 수 없는 sync.transport '" + type + "'입니다. 서버 간 동기화를 사용하지 않습니다.");
+            return null;
         }
+        return new SoulSync(transport, scheduler.async(), scheduler.global(), getLogger());
+    }
 
-        playerSouls.clear(); // 기존 데이터 초기화 후 로드
+    // config.yml의 audit 섹션으로 감사 기록을 연다. 열지 못하면 감사 기록 없이 계속 (영혼 데이터 저장에는 영향 없음)
+    private SoulAuditLog openAudit() {
+        if (!getConfig().getBoolean("audit.enabled", true)) return null;
+        SoulAuditLog log = new SoulAuditLog(new File(getDataFolder(), "audit"),
+                getConfig().getInt("audit.buffer-size", 65536),
+                Math.max(getConfig().getLong("audit.segment-minutes", 60L), 1L) * 60_000L,
+                Math.max(getConfig().getInt("audit.segment-max-entries", 200_000), 1000),
+                Math.max(getConfig().getLong("audit.retention-days", 90L), 1L) * 86_400_000L, getLogger());
+        try {
+            log.open();
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "감사 기록 폴더를 열 수 없습니다. 감사 기록 없이 계속합니다.", e);
+            return null;
+        }
+        metrics.bindAudit(log::dropped);
+        return log;
+    }
 
-        var playersSection = soulsConfig.getConfigurationSection("players");
-        if (playersSection != null) {
-            for (String key : playersSection.getKeys(false)) {
-                UUID uuid;
-                try {
-                    uuid = UUID.fromString(key);
-                } catch (IllegalArgumentException e) {
-                    getLogger().warning("잘못된 UUID 형식 '" + key + "'을(를) 스킵합니다.");
-                    continue;
-                }
+    // 지표 노출: JMX(기본 켜짐), Prometheus /metrics(기본 꺼짐)
+    private void startMetrics() {
+        metrics.bind(() -> journal.bytesWritten() + storage.bytesWritten(),
+                () -> soulCache.resident().size(), soulCache::offlineSize);
+        if (getConfig().getBoolean("metrics.jmx", true)) {
+            metrics.registerMBean(getLogger());
+        }
+        if (getConfig().getBoolean("metrics.prometheus.enabled", false)) {
+            String bind = getConfig().getString("metrics.prometheus.bind", "127.0.0.1");
+            int port = getConfig().getInt("metrics.prometheus.port", 9464);
+            prometheus = new PrometheusEndpoint(metrics);
+            try {
+                prometheus.start(bind, port);
+                getLogger().info("Prometheus 지표: http://" + bind + ":" + port + "/metrics");
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Prometheus 지표 엔드포인트를 열지 못했습니다. (" + bind + ":" + port + ")", e);
+                prometheus = null;
+            }
+        }
+    }
+
+    @Override
+    public void onDisable() {
+        if (scheduler != null) scheduler.cancelAll();
+        Bukkit.getServicesManager().unregisterAll(this);
+        if (sync != null) {
+            sync.close(); // 남은 변경 전송
+            sync = null;
+        }
+        if (prometheus != null) {
+            prometheus.stop();
+            prometheus = null;
+        }
+        metrics.unregisterMBean();
+        if (soulSaver != null) {
+            soulSaver.shutdownAndFlush(SoulSnapshot.captureDirty(soulCache.resident(), journal.rotate())); // 최종 저장은 블로킹으로 수행
+            soulCache.clear();
+        }
+        if (audit != null) {
+            audit.close(); // 남은 기록을 쓰고 세그먼트 색인 기록
+            audit = null;
+        }
+        getLogger().info("Soul Plugin 비활성화됨 - 데이터 저장 완료.");
+    }
+
+    // config.yml의 storage.type에 따라 저장소를 연다. sqlite/binary로 처음 전환하면 기존 souls.yml을 한 번 가져옴
+    private SoulStorage openStorage() throws IOException {
+        String type = getConfig().getString("storage.type", "yaml").toLowerCase(Locale.ROOT);
+        File yamlFile = new File(getDataFolder(), "souls.yml");
+        SoulStorage opened = switch (type) {
+            case "sqlite" -> new SqliteSoulStorage(new File(getDataFolder(), "souls.db"), getLogger());
+            case "binary" -> new BinarySoulStorage(getDataFolder(), getLogger());
+            case "yaml" -> new YamlSoulStorage(yamlFile, getLogger());
+            default -> {
+                getLogger().warning("알 수 없는 storage.type '" + type + "'입니다. yaml 저장소를 사용합니다.");
+                yield new YamlSoulStorage(yamlFile, getLogger());
+            }
+        };
+        opened.open();
+        if (!(opened instanceof YamlSoulStorage) && yamlFile.exists() && getConfig().getBoolean("storage.migrate-from-yaml", true)) {
+            YamlSoulStorage.migrate(yamlFile, opened, getLogger());
+        }
+        getLogger().info("영혼 데이터 저장소: " + opened.name());
+        return opened;
+    }
+
+    // 전체 데이터를 올리지 않고, 저널 재생에 필요한 플레이어와 이미 접속 중인 플레이어(/reload)만 읽음
+    private void loadSoulsData() throws IOException {
+        soulCache.clear();
+        int snapshotSeq = storage.journalSeq();
+        getLogger().info(storage.name() + "에 " + storage.count() + "명의 플레이어 영혼 데이터가 있습니다.");
 
-                PlayerSouls souls = new PlayerSouls(); // 모든 카테고리 0으로 초기화됨
-                for (String category : categories) {
-                    int val = playersSection.getInt(key + "." + category, 0);
-                    souls.setSoul(category, val);
+        // 마지막 스냅샷 이후의 변경 내역을 저널에서 재생 (재생된 플레이어는 dirty 상태로 남아 다음 컴팩션에 포함됨)
+        // 재생할 플레이어는 저장소에서 한 번에 읽어 둠 (한 명씩 읽으면 저장소에 따라 플레이어 수만큼 파일을 훑음)
+        soulCache.loadBlocking(journal.players(snapshotSeq), false);
+        try {
+            int replayed = journal.replay(snapshotSeq, uuid -> {
+                try {
+                    return soulCache.loadBlocking(uuid, false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                playerSouls.put(uuid, souls);
+            });
+            if (replayed > 0) {
+                getLogger().info("저널에서 " + replayed + "건의 영혼 변경 내역을 복구했습니다.");
             }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        journal.open(snapshotSeq);
+
+        soulCache.loadBlocking(Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).toList(), true);
+
+        // 순위표: 저장소 전체를 한 번 훑어 (점수, UUID)만 보관. 이후로는 변경 시마다 갱신
+        leaderboard.seed(storage, soulCache.resident());
+    }
+
+    private void compactIfNeeded() {
+        if (journal.entriesSinceRotate() >= COMPACTION_ENTRY_THRESHOLD
+                || System.currentTimeMillis() - lastCompactionMillis >= COMPACTION_INTERVAL_MILLIS) {
+            saveSoulsData();
         }
-        getLogger().info(playerSouls.size() + "명의 플레이어 영혼 데이터를 로드했습니다.");
     }
 
     private void saveSoulsData() {
-        if (soulsConfig == null || soulsFile == null) {
-            getLogger().severe("soulsConfig 또는 soulsFile이 null 상태입니다. 데이터 저장을 스킵합니다.");
+        if (soulSaver == null) {
+            getLogger().severe("soulSaver가 null 상태입니다. 데이터 저장을 스킵합니다.");
             return;
         }
+        lastCompactionMillis = System.currentTimeMillis();
+        // 스냅샷 캡처는 변경된 플레이어의 배열 복사뿐이라 가볍고, 직렬화/쓰기는 비동기로 진행됨
+        SoulSnapshot snapshot = SoulSnapshot.captureDirty(soulCache.resident(), journal.rotate());
+        if (snapshot.size() == 0) {
+            return; // 마지막 스냅샷 이후 변경 없음 - 저장소를 다시 쓸 필요 없음
+        }
+        soulSaver.saveAsync(snapshot);
+    }
 
-        // 기존 플레이어 데이터를 지우고 새로 저장 (오래된 데이터 방지)
-        soulsConfig.set("players", null);
-
-        for (Map.Entry<UUID, PlayerSouls> entry : playerSouls.entrySet()) {
-            String playerPath = "players." + entry.getKey().toString();
-            PlayerSouls souls = entry.getValue();
-            for (String category : categories) {
-                soulsConfig.set(playerPath + "." + category, souls.getSouls(category));
-            }
+    private void maintainCache() {
+        limiter.evictFull(); // 다시 가득 찬 획득 한도 정리
+        if (writeBackRequested) {
+            writeBackRequested = false;
+            saveSoulsData();
+        }
+        // 아직 저장되지 않아 내보내지 못한 플레이어가 있으면 다음 주기에 저장을 앞당김
+        if (soulCache.evictIdle(soulSaver.savedJournalSeq()) > 0) {
+            writeBackRequested = true;
         }
+    }
 
+    // 로그인 스레드(비동기)에서 미리 읽어 두므로 접속 시 메인 스레드가 디스크를 기다리지 않음
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
         try {
-            soulsConfig.save(soulsFile);
+            soulCache.preload(event.getUniqueId());
         } catch (IOException e) {
-            getLogger().severe("souls.yml 저장 중 오류 발생!");
-            e.printStackTrace();
+            // 접속 후 onJoin에서 비동기로 다시 시도
+            getLogger().log(Level.WARNING, event.getName() + "의 영혼 데이터를 미리 불러오지 못했습니다.", e);
         }
     }
 
     @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        if (soulCache.join(uuid)) return;
+        // 미리 읽지 못한 경우 (플러그인 로드 직후 접속 등): 로드가 끝날 때까지 영혼 획득은 건너뜀
+        // 캐시에 올리는 작업 안에서 접속 처리 (오프라인 목록에 잠깐 들어간 사이 내보내지지 않도록)
+        soulCache.modifyAsync(uuid, souls -> event.getPlayer().isOnline() && soulCache.join(uuid), scheduler.async(), scheduler.global())
+                .whenComplete((joined, error) -> {
+                    if (error != null) {
+                        getLogger().log(Level.SEVERE, event.getPlayer().getName() + "의 영혼 데이터를 불러오지 못했습니다.", error);
+                    }
+                });
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        soulCache.quit(event.getPlayer().getUniqueId());
+        notifier.quit(event.getPlayer().getUniqueId());
+        shopMenu.quit(event.getPlayer().getUniqueId());
+        writeBackRequested = true;
+        if (sync != null) {
+            scheduler.async().execute(sync::flush); // 서버 이동: 다음 서버가 최신 값을 받도록 바로 전송
+        }
+    }
+
+    // 서버의 모든 블록 파괴마다 호출되는 경로이므로, 보상 블록이 아니면 배열 조회 한 번 외에는 아무것도 하지 않음
+    // 다른 플러그인(보호 구역 등)이 취소한 파괴는 무시하고, 결과만 보고 보상하므로 MONITOR에서 처리
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        ItemStack tool = player.getInventory().getItemInMainHand();
         Block block = event.getBlock();
+        RewardTable.BlockReward reward = rewards.block(block.getType());
+        if (reward == null) return; // 보상이 없는 블록 (대부분의 블록은 여기서 끝남)
 
-        // 섬세한 손길 확인
-        if (tool.hasItemMeta() && tool.getItemMeta().hasEnchant(Enchantment.SILK_TOUCH)) {
-            player.sendMessage(ChatColor.RED + "[영혼] 섬세한 손길로는 영혼을 획득할 수 없습니다.");
-            return;
+        long start = System.nanoTime(); // 보상 블록만 측정 (위의 조기 종료 경로에는 비용을 더하지 않음)
+        try {
+            rewardBlock(event, block, reward);
+        } finally {
+            metrics.blockBreak.recordSince(start);
         }
+    }
+
+    private void rewardBlock(BlockBreakEvent event, Block block, RewardTable.BlockReward reward) {
+        // 플레이어가 설치한 블록은 보상 없음 (섬세한 손길로 캔 광석을 다시 놓고 캐는 것 방지). 기록은 여기서 지워짐
+        if (placedBlocks != null && placedBlocks.clearIfPlaced(block)) return;
 
         // 농작물 성장 상태 확인
-        String category = getCategoryForBlock(block.getType());
-        if ("농작물".equals(category)) {
-            if (block.getBlockData() instanceof Ageable ageable) { // 밀, 당근, 감자, 비트, 네더와트, 코코아(열매)
-                if (ageable.getAge() != ageable.getMaximumAge()) {
-                    return; // 다 자라지 않음
-                }
-            } else if (block.getType() == Material.MELON || block.getType() == Material.PUMPKIN) {
-                // 수박, 호박은 Ageable이 아님
-            } else {
-                // 농작물 카테고리지만 Ageable도 아니고 수박/호박도 아닌 경우 (예: 잘못된 설정)
-                return;
+        SoulCategory category = reward.category();
+        if (category == SoulCategory.FARMING && block.getBlockData() instanceof Ageable ageable) { // 밀, 당근, 감자, 비트, 네더와트, 코코아(열매)
+            if (ageable.getAge() != ageable.getMaximumAge()) {
+                return; // 다 자라지 않음
             }
+        } // 수박, 호박 등 Ageable이 아닌 농작물은 항상 지급
+
+        // 섬세한 손길 확인 (getItemMeta()는 메타를 복제하므로 사용하지 않음)
+        Player player = event.getPlayer();
+        if (player.getInventory().getItemInMainHand().containsEnchantment(Enchantment.SILK_TOUCH)) {
+            player.sendMessage(ChatColor.RED + "[영혼] 섬세한 손길로는 영혼을 획득할 수 없습니다.");
+            return;
+        }
+
+        PlayerSouls souls = soulCache.get(player.getUniqueId());
+        if (souls == null) return; // 아직 로드 중 (접속 직후 비동기 로드)
+        long amount = SoulChangeEvent.call(player.getUniqueId(), category, SoulChangeEvent.Cause.BLOCK_BREAK, reward.souls());
+        if (amount > 0) amount = applyLimit(player, category, amount); // 다른 플러그인이 바꾼 양(배율 등)에도 한도 적용
+        if (amount == 0) return;
+        souls.addSoul(category, amount);
+        metrics.minted(category, amount);
+        audit(SoulAuditLog.Kind.EARN, player.getUniqueId(), category, amount, souls.getSouls(category), null);
+        notifier.gained(player, category, amount);
+    }
+
+    // 획득 한도 적용 후 지급할 양. 한도에 걸리면 분야별로 1분에 한 번만 안내 (채팅이 넘치지 않도록)
+    private long applyLimit(Player player, SoulCategory category, long amount) {
+        long granted = limiter.acquire(player.getUniqueId(), category, amount);
+        if (granted < amount && limiter.takeWarning(player.getUniqueId(), category)) {
+            player.sendMessage(ChatColor.RED + "[영혼] 짧은 시간에 " + category.label() + " 영혼을 너무 많이 얻어 당분간 적게 지급됩니다.");
         }
+        return granted;
+    }
+
+    // 감사 기록 (꺼져 있으면 아무것도 하지 않음). 잠금/객체 생성 없이 버퍼에 넣기만 하므로 리스너에서 바로 호출해도 됨
+    private void audit(SoulAuditLog.Kind kind, UUID player, SoulCategory category, long delta, long value, UUID actor) {
+        if (audit != null) audit.record(kind, player, category, delta, value, actor);
+    }
+
+    // 설치한 보상 블록 기록. 보상이 없는 블록은 배열 조회 한 번으로 끝남
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (placedBlocks == null) return;
+        Block block = event.getBlockPlaced();
+        if (rewards.block(block.getType()) == null) return;
+        if (block.getBlockData() instanceof Ageable) return; // 심은 농작물은 다 자라야 보상을 주므로 기록하지 않음
+        placedBlocks.mark(block);
+    }
+
+    // 플레이어가 캐지 않고 사라지거나 옮겨진 보상 블록의 설치 기록 정리
+    // (남아 있으면 같은 자리에 자연히 자란 수박/호박을 캐도 보상이 없음)
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        movePlaced(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        movePlaced(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        clearPlaced(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        clearPlaced(event.blockList());
+    }
 
-        int soulAmount = getSoulAmountForBlock(block.getType());
+    /**
+     * 피스톤이 움직이는 블록의 설치 기록. 부서지는 블록(수박, 호박 등)은 지우고, 밀리는 블록은 기록을 함께 옮깁니다.
+     * (설치한 광석을 한 칸 밀어서 자연 블록처럼 캐는 것 방지) 모두 지운 뒤 새 위치에 기록하므로 줄지어 밀린 블록끼리 덮어쓰지 않습니다.
+     */
+    private void movePlaced(List<Block> blocks, BlockFace direction) {
+        if (placedBlocks == null) return;
+        List<Block> moved = null;
+        for (Block block : blocks) {
+            if (rewards.block(block.getType()) == null || !placedBlocks.clearIfPlaced(block)) continue;
+            if (block.getPistonMoveReaction() == PistonMoveReaction.BREAK) continue;
+            if (moved == null) moved = new ArrayList<>();
+            moved.add(block.getRelative(direction));
+        }
+        if (moved != null) moved.forEach(placedBlocks::mark);
+    }
 
-        if (soulAmount > 0 && category != null) {
-            PlayerSouls souls = playerSouls.computeIfAbsent(player.getUniqueId(), k -> new PlayerSouls());
-            souls.addSoul(category, soulAmount);
-            player.sendMessage(ChatColor.GREEN + "[영혼] 숙련자의 " + category + " 영혼을 " + soulAmount + "만큼 획득하셨습니다.");
+    private void clearPlaced(List<Block> blocks) {
+        if (placedBlocks == null) return;
+        for (Block block : blocks) {
+            if (rewards.block(block.getType()) != null) placedBlocks.clearIfPlaced(block);
         }
     }
 
     @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        if (placedBlocks != null) placedBlocks.unload(event.getChunk());
+    }
+
+    // 죽음 이벤트도 취소될 수 있으므로(부활 아이템, 미니게임 등) 최종 결과만 보고 보상
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerKill(PlayerDeathEvent event) {
         if (event.getEntity().getKiller() != null) { // 죽인 주체가 플레이어인지 확인
+            long start = System.nanoTime();
             Player killer = event.getEntity().getKiller();
-            PlayerSouls souls = playerSouls.computeIfAbsent(killer.getUniqueId(), k -> new PlayerSouls());
-            souls.addSoul("암살", 100); // 고정 수치
-            killer.sendMessage(ChatColor.GREEN + "[영혼] 숙련자의 암살 영혼을 100만큼 획득하셨습니다.");
+            PlayerSouls souls = soulCache.get(killer.getUniqueId());
+            long amount = souls == null ? 0 // 아직 로드 중
+                    : SoulChangeEvent.call(killer.getUniqueId(), SoulCategory.ASSASSINATION, SoulChangeEvent.Cause.PLAYER_KILL, 100); // 고정 수치
+            if (amount > 0) amount = applyLimit(killer, SoulCategory.ASSASSINATION, amount);
+            if (amount > 0) {
+                souls.addSoul(SoulCategory.ASSASSINATION, amount);
+                metrics.minted(SoulCategory.ASSASSINATION, amount);
+                audit(SoulAuditLog.Kind.EARN, killer.getUniqueId(), SoulCategory.ASSASSINATION, amount,
+                        souls.getSouls(SoulCategory.ASSASSINATION), null);
+                notifier.gained(killer, SoulCategory.ASSASSINATION, amount);
+            }
+            metrics.kill.recordSince(start);
         }
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onMonsterKill(EntityDeathEvent event) {
         if (!(event.getEntity() instanceof Monster monster)) return; // 몬스터인지 확인 및 캐스팅
         if (!(monster.getKiller() instanceof Player player)) return; // 죽인 주체가 플레이어인지 확인 및 캐스팅
 
-        int level = getMonsterStrengthLevel(monster.getType()); // 몬스터 타입으로 레벨 결정
-        int soulAmount = getSoulAmountByLevel(level);
+        long start = System.nanoTime();
+        int soulAmount = rewards.rollMonsterSouls(monster.getType()); // 몬스터 타입으로 레벨 결정 후 레벨별 영혼 수
 
         if (soulAmount > 0) {
-            PlayerSouls souls = playerSouls.computeIfAbsent(player.getUniqueId(), k -> new PlayerSouls());
-            souls.addSoul("사냥", soulAmount);
-            player.sendMessage(ChatColor.GREEN + "[영혼] 숙련자의 사냥 영혼을 " + soulAmount + "만큼 획득하셨습니다.");
-        }
-    }
-
-    private int getMonsterStrengthLevel(EntityType type) {
-        // ThreadLocalRandom 사용 (동시성 환경에서 new Random()보다 약간의 이점)
-        return switch (type) {
-            // 하급 (레벨 1~3 랜덤, 영혼 10)
-            case ZOMBIE, SKELETON, CREEPER, SPIDER, DROWNED, HUSK, SILVERFISH, SLIME, CAVE_SPIDER, ZOMBIE_VILLAGER -> ThreadLocalRandom.current().nextInt(1, 4); // bound is exclusive for upper
-            // 중급 (레벨 3~5 랜덤, 영혼 20)
-            case ENDERMAN, STRAY, WITCH, PILLAGER, VINDICATOR, BLAZE, GHAST, MAGMA_CUBE, PHANTOM, PIGLIN, ZOMBIFIED_PIGLIN, HOGLIN, ZOGLIN, ENDERMITE, SHULKER, VEX, GUARDIAN, BOGGED, BREEZE -> ThreadLocalRandom.current().nextInt(3, 6);
-            // 상급 (레벨 4~6 랜덤, 영혼 30)
-            case RAVAGER, EVOKER, WITHER_SKELETON, PIGLIN_BRUTE, ELDER_GUARDIAN -> ThreadLocalRandom.current().nextInt(4, 7);
-            // 매우 강력 (레벨 7-8 랜덤, 영혼 40)
-            case WARDEN -> ThreadLocalRandom.current().nextInt(7,9);
-            // 정예 (레벨 300~500 랜덤, 영혼 50)
-            case WITHER, ENDER_DRAGON -> ThreadLocalRandom.current().nextInt(300, 501);
-            default -> 2; // 위에 명시되지 않은 기타 몬스터는 기본 레벨 2 (영혼 1~3)
-        };
+            PlayerSouls souls = soulCache.get(player.getUniqueId());
+            long amount = souls == null ? 0 // 아직 로드 중
+                    : SoulChangeEvent.call(player.getUniqueId(), SoulCategory.HUNTING, SoulChangeEvent.Cause.MONSTER_KILL, soulAmount);
+            if (amount > 0) amount = applyLimit(player, SoulCategory.HUNTING, amount);
+            if (amount > 0) {
+                souls.addSoul(SoulCategory.HUNTING, amount);
+                metrics.minted(SoulCategory.HUNTING, amount);
+                audit(SoulAuditLog.Kind.EARN, player.getUniqueId(), SoulCategory.HUNTING, amount, souls.getSouls(SoulCategory.HUNTING), null);
+                notifier.gained(player, SoulCategory.HUNTING, amount);
+            }
+        }
+        metrics.kill.recordSince(start);
     }
 
-   private int getSoulAmountByLevel(int level) {
-    if (level <= 3) return randomBetween(1, 3);
-    if (level <= 5) return randomBetween(3, 5);
-    if (level <= 6) return randomBetween(4, 6);
-    if (level <= 8) return 50;
-    return randomBetween(300, 500);
-}
-
-private int randomBetween(int min, int max) {
-    return min + (int)(Math.random() * (max - min + 1));
-}
-
-    private int getSoulAmountForBlock(Material material) {
-        return switch (material) {
-            // 광물 - 1 영혼
-            case COAL_ORE, DEEPSLATE_COAL_ORE, IRON_ORE, DEEPSLATE_IRON_ORE, COPPER_ORE, DEEPSLATE_COPPER_ORE -> 1;
-            // 광물 - 2 영혼
-            case GOLD_ORE, DEEPSLATE_GOLD_ORE, DIAMOND_ORE, DEEPSLATE_DIAMOND_ORE, LAPIS_ORE, DEEPSLATE_LAPIS_ORE, REDSTONE_ORE, DEEPSLATE_REDSTONE_ORE -> 2;
-            // 광물 - 4 영혼
-            case EMERALD_ORE, DEEPSLATE_EMERALD_ORE -> 4;
-            // 광물 - 5 영혼
-            case ANCIENT_DEBRIS -> 5;
-
-            // 농작물 - 1 영혼 (다 자란 상태는 onBlockBreak에서 체크)
-            case WHEAT, CARROTS, POTATOES, BEETROOTS -> 1;
-            // 농작물 - 2 영혼
-            case COCOA, MELON, PUMPKIN, NETHER_WART -> 2;
-            default -> 0;
-        };
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        shopMenu.click(event); // 상점 화면이 아니면 아무것도 하지 않음
     }
 
-    private String getCategoryForBlock(Material material) {
-        return switch (material) {
-            case COAL_ORE, DEEPSLATE_COAL_ORE, IRON_ORE, DEEPSLATE_IRON_ORE, GOLD_ORE, DEEPSLATE_GOLD_ORE,
-                 DIAMOND_ORE, DEEPSLATE_DIAMOND_ORE, EMERALD_ORE, DEEPSLATE_EMERALD_ORE, COPPER_ORE, DEEPSLATE_COPPER_ORE,
-                 LAPIS_ORE, DEEPSLATE_LAPIS_ORE, REDSTONE_ORE, DEEPSLATE_REDSTONE_ORE, ANCIENT_DEBRIS -> "광물";
-
-            case WHEAT, CARROTS, POTATOES, BEETROOTS, COCOA, MELON, PUMPKIN, NETHER_WART -> "농작물";
-            default -> null;
-        };
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        shopMenu.drag(event);
     }
 
     private void handleSoulCommand(Player player, String[] args) {
         if (args.length == 0) { // 기본 /souls 명령어
-            PlayerSouls souls = playerSouls.get(player.getUniqueId());
+            PlayerSouls souls = soulCache.get(player.getUniqueId());
             if (souls == null) {
                 player.sendMessage(ChatColor.RED + "[영혼] 영혼 수치를 찾을 수 없습니다. 활동을 시작하여 영혼을 모아보세요!");
                 // 필요시 여기서 새 PlayerSouls 객체 생성 및 playerSouls 맵에 추가 가능
@@ -293,28 +644,43 @@ private int randomBetween(int min, int max) {
                 return;
             }
             player.sendMessage(ChatColor.AQUA + "--- " + player.getName() + "님의 영혼 수치 ---");
-            for (String category : categories) {
-                player.sendMessage(ChatColor.GREEN + "  " + category + ": " + ChatColor.WHITE + souls.getSouls(category));
+            for (SoulCategory category : SoulCategory.VALUES) {
+                player.sendMessage(ChatColor.GREEN + "  " + category.label() + ": " + ChatColor.WHITE + souls.getSouls(category));
             }
             return;
         }
 
         String subCommand = args[0].toLowerCase();
 
+        if ("top".equals(subCommand)) { // 순위표
+            handleTopCommand(player, args);
+            return;
+        }
+
+        if ("shop".equals(subCommand)) { // 영혼 상점
+            shopMenu.open(player, shop);
+            return;
+        }
+
+        if ("history".equals(subCommand)) { // 영혼 변경 기록 (본인은 누구나, 다른 플레이어는 관리자만)
+            handleHistoryCommand(player, args);
+            return;
+        }
+
         if ("redeem".equals(subCommand)) { // 영혼 인출 명령어
             if (args.length != 3) {
                 player.sendMessage(ChatColor.RED + "[영혼] 사용법: /souls redeem <분야> <수치>");
                 return;
             }
-            String categoryToRedeem = args[1];
-            if (!categories.contains(categoryToRedeem)) { // 유효한 분야인지 확인
-                player.sendMessage(ChatColor.RED + "[영혼] '" + categoryToRedeem + "'는 잘못된 분야입니다. 사용 가능 분야: " + String.join(", ", categories));
+            SoulCategory categoryToRedeem = SoulCategory.fromInput(args[1]);
+            if (categoryToRedeem == null) { // 유효한 분야인지 확인
+                player.sendMessage(ChatColor.RED + "[영혼] '" + args[1] + "'는 잘못된 분야입니다. 사용 가능 분야: " + String.join(", ", SoulCategory.labels()));
                 return;
             }
 
-            int amount;
+            long amount;
             try {
-                amount = Integer.parseInt(args[2]);
+                amount = Long.parseLong(args[2]);
                 if (amount <= 0) {
                     player.sendMessage(ChatColor.RED + "[영혼] 인출할 수치는 0보다 커야 합니다.");
                     return;
@@ -324,22 +690,14 @@ private int randomBetween(int min, int max) {
                 return;
             }
 
-            PlayerSouls souls = playerSouls.computeIfAbsent(player.getUniqueId(), k -> new PlayerSouls()); // 없으면 생성
-            if (!souls.canRedeem(categoryToRedeem, amount)) {
-                player.sendMessage(ChatColor.RED + "[영혼] " + categoryToRedeem + " 영혼이 부족합니다. (현재: " + souls.getSouls(categoryToRedeem) + ")");
+            PlayerSouls souls = soulCache.get(player.getUniqueId());
+            if (souls == null) {
+                player.sendMessage(ChatColor.RED + "[영혼] 영혼 데이터를 불러오는 중입니다. 잠시 후 다시 시도해주세요.");
                 return;
             }
-
-            ItemStack item = new ItemStack(Material.NETHER_STAR); // 인출 아이템
-            ItemMeta meta = item.getItemMeta();
-            if (meta != null) {
-                meta.setDisplayName(ChatColor.GOLD + "숙련자의 " + categoryToRedeem + " 영혼 응축물");
-                meta.setLore(List.of( // 아이템 설명
-                        ChatColor.GRAY + "가치: " + amount + " " + categoryToRedeem + " 영혼",
-                        ChatColor.DARK_PURPLE + "특별한 힘을 담고 있는 듯 하다."
-                ));
-                // meta.setCustomModelData(10001); // 리소스팩 사용 시 커스텀 모델 데이터
-                item.setItemMeta(meta);
+            if (!souls.canRedeem(categoryToRedeem, amount)) { // 빠른 안내용. 실제 차감은 아래 tryRedeem에서 원자적으로
+                player.sendMessage(ChatColor.RED + "[영혼] " + categoryToRedeem.label() + " 영혼이 부족합니다. (현재: " + souls.getSouls(categoryToRedeem) + ")");
+                return;
             }
 
             if (player.getInventory().firstEmpty() == -1) { // 인벤토리 공간 확인
@@ -347,9 +705,20 @@ private int randomBetween(int min, int max) {
                 return;
             }
 
+            if (SoulChangeEvent.call(player.getUniqueId(), categoryToRedeem, SoulChangeEvent.Cause.REDEEM, -amount) == 0) {
+                player.sendMessage(ChatColor.RED + "[영혼] 인출이 취소되었습니다.");
+                return;
+            }
+            // 확인과 차감을 한 번에 처리 (그 사이 다른 스레드에서 값이 바뀌어도 이중 인출 없음)
+            if (!souls.tryRedeem(categoryToRedeem, amount)) {
+                player.sendMessage(ChatColor.RED + "[영혼] " + categoryToRedeem.label() + " 영혼이 부족합니다. (현재: " + souls.getSouls(categoryToRedeem) + ")");
+                return;
+            }
+            metrics.redeemed(categoryToRedeem, amount);
+            audit(SoulAuditLog.Kind.REDEEM, player.getUniqueId(), categoryToRedeem, -amount, souls.getSouls(categoryToRedeem), null);
+            ItemStack item = shop.redeemItem(categoryToRedeem, amount); // 미리 만들어 둔 인출 아이템(네더의 별)을 복제
             player.getInventory().addItem(item);
-            souls.redeem(categoryToRedeem, amount);
-            player.sendMessage(ChatColor.GREEN + "[영혼] " + amount + "의 " + categoryToRedeem + " 영혼을 인출하여 아이템을 획득하셨습니다.");
+            player.sendMessage(ChatColor.GREEN + "[영혼] " + amount + "의 " + categoryToRedeem.label() + " 영혼을 인출하여 아이템을 획득하셨습니다.");
             return;
         }
 
@@ -359,63 +728,415 @@ private int randomBetween(int min, int max) {
             return;
         }
 
+        if ("reload".equals(subCommand)) { // 보상/상점 설정 다시 불러오기
+            reloadRewards(player);
+            reloadShop(player);
+            return;
+        }
+
+        if ("stats".equals(subCommand)) { // 영혼 경제 지표
+            handleStatsCommand(player);
+            return;
+        }
+
+        if ("export".equals(subCommand)) { // 저장소 내용을 souls.yml 형식으로 내보내기
+            exportSouls(player);
+            return;
+        }
+
+        if ("bulk".equals(subCommand)) { // 여러 플레이어(오프라인 포함) 대상 작업
+            handleBulkCommand(player, args);
+            return;
+        }
+
         if (args.length != 4) { // OP 명령어 형식 확인
             player.sendMessage(ChatColor.RED + "[영혼] 관리자 명령어 사용법:");
             player.sendMessage(ChatColor.YELLOW + "/souls set <플레이어> <분야> <수치>");
             player.sendMessage(ChatColor.YELLOW + "/souls add <플레이어> <분야> <수치>");
             player.sendMessage(ChatColor.YELLOW + "/souls remove <플레이어> <분야> <수치>");
+            player.sendMessage(ChatColor.YELLOW + "/souls reload");
+            player.sendMessage(ChatColor.YELLOW + "/souls stats");
+            player.sendMessage(ChatColor.YELLOW + "/souls export");
+            player.sendMessage(ChatColor.YELLOW + "/souls bulk <set|add|remove|reset> <대상> <분야|all> [수치] [--dry-run]");
+            player.sendMessage(ChatColor.YELLOW + "/souls bulk undo [--dry-run]");
+            player.sendMessage(ChatColor.YELLOW + "/souls history <플레이어> [기간] [페이지]");
             return;
         }
 
         // OP 명령어 공통 인자 처리
         String targetName = args[1];
-        String categoryOp = args[2];
-        int value;
+        SoulCategory categoryOp = SoulCategory.fromInput(args[2]);
+        long value;
 
-        if (!categories.contains(categoryOp)) { // 유효한 분야인지 확인
-            player.sendMessage(ChatColor.RED + "[영혼] '" + categoryOp + "'는 잘못된 분야입니다. 사용 가능 분야: " + String.join(", ", categories));
+        if (categoryOp == null) { // 유효한 분야인지 확인
+            player.sendMessage(ChatColor.RED + "[영혼] '" + args[2] + "'는 잘못된 분야입니다. 사용 가능 분야: " + String.join(", ", SoulCategory.labels()));
             return;
         }
 
         try {
-            value = Integer.parseInt(args[3]);
+            value = Long.parseLong(args[3]);
         } catch (NumberFormatException e) {
             player.sendMessage(ChatColor.RED + "[영혼] 수치를 정확한 숫자로 입력해주세요.");
             return;
         }
 
-        Player target = Bukkit.getPlayerExact(targetName); // 온라인 플레이어만 대상
+        if (!List.of("set", "add", "remove").contains(subCommand)) {
+            player.sendMessage(ChatColor.RED + "[영혼] 알 수 없는 관리자 명령어입니다. (set, add, remove 사용)");
+            return;
+        }
+
+        // 온라인 플레이어 우선, 없으면 서버에 접속한 적 있는 오프라인 플레이어 (이름 캐시만 조회하므로 블로킹 없음)
+        Player online = Bukkit.getPlayerExact(targetName);
+        OfflinePlayer target = online != null ? online : Bukkit.getOfflinePlayerIfCached(targetName);
+        if (target == null) {
+            player.sendMessage(ChatColor.RED + "[영혼] 플레이어 '" + targetName + "'을(를) 찾을 수 없습니다.");
+            return;
+        }
+        String resolvedName = target.getName() != null ? target.getName() : targetName;
+
+        // 오프라인 플레이어는 저장소에서 비동기로 읽은 뒤 메인 스레드에서 적용 (캐시에 올리는 작업 안에서 바꾸므로 바뀐 값이 버려지지 않음)
+        soulCache.modifyAsync(target.getUniqueId(), targetSouls -> {
+            applyAdminCommand(player, subCommand, target.getUniqueId(), resolvedName, targetSouls, categoryOp, value);
+            return null;
+        }, scheduler.async(), scheduler.global()).whenComplete((v, error) -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, resolvedName + "의 영혼 데이터를 불러오지 못했습니다.", error);
+                player.sendMessage(ChatColor.RED + "[영혼] " + resolvedName + "님의 영혼 데이터를 불러오지 못했습니다.");
+            }
+        });
+    }
+
+    // /souls top <분야> [페이지]
+    private void handleTopCommand(Player player, String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            player.sendMessage(ChatColor.RED + "[영혼] 사용법: /souls top <분야> [페이지]");
+            return;
+        }
+        SoulCategory category = SoulCategory.fromInput(args[1]);
+        if (category == null) {
+            player.sendMessage(ChatColor.RED + "[영혼] '" + args[1] + "'는 잘못된 분야입니다. 사용 가능 분야: " + String.join(", ", SoulCategory.labels()));
+            return;
+        }
+        int page = 1;
+        if (args.length == 3) {
+            try {
+                page = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                page = 0;
+            }
+            if (page < 1) {
+                player.sendMessage(ChatColor.RED + "[영혼] 페이지는 1 이상의 숫자로 입력해주세요.");
+                return;
+            }
+        }
+
+        int total = leaderboard.size(category);
+        int pages = Math.max((total + TOP_PAGE_SIZE - 1) / TOP_PAGE_SIZE, 1);
+        if (page > pages) {
+            player.sendMessage(ChatColor.RED + "[영혼] 마지막 페이지는 " + pages + "입니다.");
+            return;
+        }
+        int offset = (page - 1) * TOP_PAGE_SIZE;
+        List<SoulLeaderboard.Entry> entries = leaderboard.top(category, offset, TOP_PAGE_SIZE);
+
+        player.sendMessage(ChatColor.AQUA + "--- " + category.label() + " 영혼 순위 (" + page + "/" + pages + ") ---");
+        if (entries.isEmpty()) {
+            player.sendMessage(ChatColor.GRAY + "  아직 순위에 오른 플레이어가 없습니다.");
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            SoulLeaderboard.Entry entry = entries.get(i);
+            player.sendMessage(ChatColor.GOLD + "  " + (offset + i + 1) + ". " + ChatColor.GREEN
+                    + cachedName(entry.uuid()) + ChatColor.WHITE + " - " + entry.score());
+        }
+        PlayerSouls own = soulCache.get(player.getUniqueId());
+        if (own != null) {
+            long score = own.getSouls(category);
+            int rank = leaderboard.rank(category, player.getUniqueId(), score);
+            player.sendMessage(ChatColor.GRAY + "  내 순위: " + (rank > 0 ? rank + "위 / " + total + "명 (" + score + ")" : "순위 없음"));
+        }
+    }
+
+    /**
+     * 디스크를 읽지 않고 이름을 찾습니다. (접속 중인 플레이어, 서버가 메모리에 들고 있는 usercache 순)
+     * getOfflinePlayer(uuid).getName()은 캐시에 없으면 플레이어 데이터 파일을 읽으므로 명령어 처리 중에는 쓰지 않습니다.
+     * @return 이름을 모르면 UUID 문자열
+     */
+    private static String cachedName(UUID uuid) {
+        Player online = Bukkit.getPlayer(uuid);
+        if (online != null) return online.getName();
+        PlayerProfile profile = Bukkit.createProfile(uuid);
+        if (profile.completeFromCache() && profile.getName() != null) return profile.getName();
+        return uuid.toString();
+    }
+
+    // /souls history <플레이어> [기간(30m, 24h, 7d)] [페이지]
+    private void handleHistoryCommand(Player player, String[] args) {
+        if (audit == null) {
+            player.sendMessage(ChatColor.RED + "[영혼] 감사 기록이 꺼져 있습니다. (config.yml의 audit.enabled)");
+            return;
+        }
+        if (args.length < 2 || args.length > 4) {
+            player.sendMessage(ChatColor.RED + "[영혼] 사용법: /souls history <플레이어> [기간(예: 30m, 24h, 7d)] [페이지]");
+            return;
+        }
+        Player online = Bukkit.getPlayerExact(args[1]);
+        OfflinePlayer target = online != null ? online : Bukkit.getOfflinePlayerIfCached(args[1]);
         if (target == null) {
-            player.sendMessage(ChatColor.RED + "[영혼] 온라인 플레이어 '" + targetName + "'을(를) 찾을 수 없습니다.");
+            player.sendMessage(ChatColor.RED + "[영혼] 플레이어 '" + args[1] + "'을(를) 찾을 수 없습니다.");
+            return;
+        }
+        if (!target.getUniqueId().equals(player.getUniqueId()) && !player.hasPermission(PERMISSION_ADMIN)) {
+            player.sendMessage(ChatColor.RED + "[영혼] 다른 플레이어의 기록을 볼 권한이 없습니다.");
+            return;
+        }
+        String period = args.length >= 3 ? args[2].toLowerCase(Locale.ROOT) : "24h";
+        long periodMillis = parsePeriod(period);
+        if (periodMillis <= 0) {
+            player.sendMessage(ChatColor.RED + "[영혼] 기간은 30m, 24h, 7d처럼 숫자와 단위(m, h, d)로 입력해주세요.");
+            return;
+        }
+        int page = 1;
+        if (args.length == 4) {
+            try {
+                page = Integer.parseInt(args[3]);
+            } catch (NumberFormatException e) {
+                page = 0;
+            }
+            if (page < 1) {
+                player.sendMessage(ChatColor.RED + "[영혼] 페이지는 1 이상의 숫자로 입력해주세요.");
+                return;
+            }
+        }
+
+        String name = target.getName() != null ? target.getName() : args[1];
+        UUID uuid = target.getUniqueId();
+        int shownPage = page;
+        long now = System.currentTimeMillis();
+        SoulAuditLog log = audit;
+        // 세그먼트를 풀어 읽으므로 비동기로 조회하고, 결과는 메인 스레드(Folia는 글로벌 리전)에서 전송
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return log.query(uuid, now - periodMillis, now, (shownPage - 1) * HISTORY_PAGE_SIZE, HISTORY_PAGE_SIZE + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, scheduler.async()).whenCompleteAsync((entries, error) -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, name + "의 감사 기록을 읽지 못했습니다.", error);
+                player.sendMessage(ChatColor.RED + "[영혼] 기록을 읽지 못했습니다. (콘솔 확인)");
+                return;
+            }
+            player.sendMessage(ChatColor.AQUA + "--- " + name + "님의 영혼 기록 (최근 " + period + ", " + shownPage + "페이지) ---");
+            if (entries.isEmpty()) {
+                player.sendMessage(ChatColor.GRAY + "  기록이 없습니다.");
+            }
+            for (int i = 0; i < Math.min(entries.size(), HISTORY_PAGE_SIZE); i++) {
+                player.sendMessage(formatHistory(entries.get(i)));
+            }
+            if (entries.size() > HISTORY_PAGE_SIZE) {
+                player.sendMessage(ChatColor.GRAY + "  다음 페이지: /souls history " + name + " " + period + " " + (shownPage + 1));
+            }
+        }, scheduler.global());
+    }
+
+    private static String formatHistory(SoulAuditLog.Entry entry) {
+        String line = ChatColor.GRAY + "  " + HISTORY_TIME.format(Instant.ofEpochMilli(entry.time())) + " " + ChatColor.GREEN
+                + entry.kind().label() + " " + ChatColor.WHITE + entry.category().label() + " " + (entry.delta() >= 0 ? "+" : "")
+                + entry.delta() + ChatColor.GRAY + " (→ " + entry.value() + ")";
+        if (entry.actor() == null) return line;
+        return line + " by " + cachedName(entry.actor());
+    }
+
+    // "30m", "24h", "7d" -> 밀리초. 형식이 틀리면 -1
+    private static long parsePeriod(String input) {
+        if (input.length() < 2) return -1;
+        long unit = switch (input.charAt(input.length() - 1)) {
+            case 'm' -> 60_000L;
+            case 'h' -> 3_600_000L;
+            case 'd' -> 86_400_000L;
+            default -> -1;
+        };
+        if (unit < 0) return -1;
+        try {
+            long amount = Long.parseLong(input.substring(0, input.length() - 1));
+            return amount > 0 && amount <= 3650 * 86_400_000L / unit ? amount * unit : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // /souls bulk <set|add|remove|reset> <all|online|@선택자|file:파일|플레이어> <분야|all> [수치] [--dry-run]
+    // /souls bulk undo [--dry-run]
+    private void handleBulkCommand(Player player, String[] args) {
+        List<String> params = new ArrayList<>(Arrays.asList(args).subList(1, args.length));
+        boolean dryRun = params.removeIf("--dry-run"::equalsIgnoreCase);
+        String usage = "[영혼] 사용법: /souls bulk <set|add|remove|reset> <대상> <분야|all> [수치] [--dry-run] 또는 /souls bulk undo [--dry-run]";
+        if (params.isEmpty()) {
+            player.sendMessage(ChatColor.RED + usage);
             return;
         }
+        if (bulk.isRunning()) {
+            player.sendMessage(ChatColor.RED + "[영혼] 이미 다른 대량 작업이 진행 중입니다.");
+            return;
+        }
+
+        String opName = params.get(0).toLowerCase(Locale.ROOT);
+        if ("undo".equals(opName) && params.size() == 1) {
+            player.sendMessage(ChatColor.YELLOW + "[영혼] 마지막 대량 작업을 " + (dryRun ? "되돌릴 경우를 미리 계산합니다." : "되돌립니다."));
+            bulk.undo(dryRun, player.getUniqueId(), message -> player.sendMessage(ChatColor.GRAY + "[영혼] " + message))
+                    .whenCompleteAsync((result, error) -> reportBulk(player, SoulBulkOperation.Op.UNDO, result, error), scheduler.global());
+            return;
+        }
+        SoulBulkOperation.Op op = switch (opName) {
+            case "set" -> SoulBulkOperation.Op.SET;
+            case "add" -> SoulBulkOperation.Op.ADD;
+            case "remove" -> SoulBulkOperation.Op.REMOVE;
+            case "reset" -> SoulBulkOperation.Op.RESET;
+            default -> null;
+        };
+        boolean needsValue = op != SoulBulkOperation.Op.RESET;
+        if (op == null || params.size() != (needsValue ? 4 : 3)) {
+            player.sendMessage(ChatColor.RED + usage);
+            return;
+        }
+
+        SoulCategory[] categories;
+        if ("all".equalsIgnoreCase(params.get(2))) {
+            categories = SoulCategory.VALUES;
+        } else {
+            SoulCategory category = SoulCategory.fromInput(params.get(2));
+            if (category == null) {
+                player.sendMessage(ChatColor.RED + "[영혼] '" + params.get(2) + "'는 잘못된 분야입니다. 사용 가능 분야: " + String.join(", ", SoulCategory.labels()) + ", all");
+                return;
+            }
+            categories = new SoulCategory[]{category};
+        }
+
+        long value = 0;
+        if (needsValue) {
+            try {
+                value = Long.parseLong(params.get(3));
+            } catch (NumberFormatException e) {
+                player.sendMessage(ChatColor.RED + "[영혼] 수치를 정확한 숫자로 입력해주세요.");
+                return;
+            }
+            if (value < 0 || (value == 0 && op != SoulBulkOperation.Op.SET)) {
+                player.sendMessage(ChatColor.RED + (op == SoulBulkOperation.Op.SET
+                        ? "[영혼] 설정할 수치는 0 이상이어야 합니다." : "[영혼] 수치는 0보다 커야 합니다."));
+                return;
+            }
+        }
+
+        player.sendMessage(ChatColor.YELLOW + "[영혼] 대량 작업(" + op.label() + ")을 " + (dryRun ? "미리 계산합니다." : "시작합니다.")
+                + " 대상: " + params.get(1));
+        bulk.run(op, bulk.resolve(params.get(1), player), categories, value, dryRun, player.getUniqueId(),
+                        message -> player.sendMessage(ChatColor.GRAY + "[영혼] " + message))
+                .whenCompleteAsync((result, error) -> reportBulk(player, op, result, error), scheduler.global());
+    }
+
+    private void reportBulk(Player player, SoulBulkOperation.Op op, SoulBulkOperation.Result result, Throwable error) {
+        if (error != null) {
+            getLogger().log(Level.WARNING, "대량 작업(" + op.label() + ") 실패", error);
+            player.sendMessage(ChatColor.RED + "[영혼] 대량 작업 실패: " + SoulBulkOperation.describe(error));
+            return;
+        }
+        String prefix = result.dryRun() ? "[영혼] (미리 보기) " : "[영혼] ";
+        player.sendMessage(ChatColor.GREEN + prefix + "대상 " + result.targets() + "명 중 " + result.changed() + "명의 영혼이 "
+                + (result.dryRun() ? "바뀝니다." : "바뀌었습니다."));
+        for (SoulCategory category : SoulCategory.VALUES) {
+            long delta = result.deltas()[category.ordinal()];
+            if (delta != 0) {
+                player.sendMessage(ChatColor.GREEN + "  " + category.label() + ": " + ChatColor.WHITE + (delta > 0 ? "+" : "") + delta);
+            }
+        }
+        if (result.skipped() > 0) {
+            player.sendMessage(ChatColor.YELLOW + "[영혼] 작업 뒤에 값이 바뀐 " + result.skipped() + "명은 바뀐 분야를 "
+                    + (result.dryRun() ? "되돌리지 않습니다." : "되돌리지 않았습니다.") + " (콘솔에 목록)");
+        }
+        if (!result.dryRun() && op != SoulBulkOperation.Op.UNDO && result.changed() > 0) {
+            player.sendMessage(ChatColor.GRAY + "[영혼] /souls bulk undo 로 되돌릴 수 있습니다.");
+        }
+    }
+
+    // /souls export: 메모리의 변경분을 먼저 저장한 뒤 souls-export.yml로 내보냄 (저장과 같은 I/O 스레드에서 순서대로 실행)
+    private void exportSouls(Player player) {
+        saveSoulsData();
+        File target = new File(getDataFolder(), "souls-export.yml");
+        soulSaver.exportYamlAsync(target).whenCompleteAsync((count, error) -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, "souls-export.yml 내보내기 실패", error);
+                player.sendMessage(ChatColor.RED + "[영혼] 영혼 데이터를 내보내지 못했습니다. (콘솔 확인)");
+                return;
+            }
+            player.sendMessage(ChatColor.GREEN + "[영혼] " + count + "명의 영혼 데이터를 " + target.getName() + "(으)로 내보냈습니다.");
+        }, scheduler.global());
+    }
 
-        PlayerSouls targetSouls = playerSouls.computeIfAbsent(target.getUniqueId(), k -> new PlayerSouls());
+    // /souls stats: JMX/Prometheus와 같은 값을 게임 안에서 확인
+    private void handleStatsCommand(Player player) {
+        long uptime = metrics.getUptimeSeconds();
+        player.sendMessage(ChatColor.AQUA + "--- 영혼 경제 지표 (가동 " + uptime / 3600 + "시간 " + uptime / 60 % 60 + "분) ---");
+        for (SoulCategory category : SoulCategory.VALUES) {
+            player.sendMessage(ChatColor.GREEN + "  " + category.label() + ": " + ChatColor.WHITE + "획득 " + metrics.mintedTotal(category)
+                    + " / 인출 " + metrics.redeemedTotal(category));
+        }
+        player.sendMessage(formatLatency("블록 파괴", metrics.blockBreak, 1_000L, "µs"));
+        player.sendMessage(formatLatency("처치", metrics.kill, 1_000L, "µs"));
+        player.sendMessage(formatLatency("저장", metrics.save, 1_000_000L, "ms"));
+        player.sendMessage(formatLatency("로드", metrics.load, 1_000_000L, "ms"));
+        player.sendMessage(ChatColor.GREEN + "  기록한 데이터: " + ChatColor.WHITE + (metrics.getBytesWritten() / 1024) + " KiB");
+        player.sendMessage(ChatColor.GREEN + "  메모리: " + ChatColor.WHITE + metrics.getResidentPlayers()
+                + "명 (오프라인 캐시 " + metrics.getOfflineCachedPlayers() + "명)");
+        if (audit != null) {
+            player.sendMessage(ChatColor.GREEN + "  감사 기록: " + ChatColor.WHITE + "버퍼가 가득 차 버린 기록 " + metrics.getAuditDropped() + "건");
+        }
+    }
+
+    private static String formatLatency(String name, LatencyHistogram histogram, long divisor, String unit) {
+        LatencyHistogram.Summary s = histogram.summary();
+        return ChatColor.GREEN + "  " + name + ": " + ChatColor.WHITE + s.count() + "회, p50 " + s.p50() / divisor
+                + unit + ", p99 " + s.p99() / divisor + unit + ", 최대 " + s.max() / divisor + unit;
+    }
 
+    private void applyAdminCommand(Player player, String subCommand, UUID targetId, String targetName,
+                                   PlayerSouls targetSouls, SoulCategory categoryOp, long value) {
+        Player target = Bukkit.getPlayer(targetId); // 접속 중일 때만 알림
+        boolean notify = target != null && !target.equals(player); // 대상에게 알림 (본인이 아닐 경우)
+        long before = targetSouls.getSouls(categoryOp);
         switch (subCommand) { // Enhanced switch
             case "set" -> {
                 targetSouls.setSoul(categoryOp, value);
-                player.sendMessage(ChatColor.GREEN + target.getName() + "님의 " + categoryOp + " 영혼을 " + value + "(으)로 설정했습니다.");
-                if (target.isOnline() && !target.equals(player)) { // 대상에게 알림 (본인이 아닐 경우)
-                    target.sendMessage(ChatColor.AQUA + "[영혼] 관리자에 의해 당신의 " + categoryOp + " 영혼이 " + value + "(으)로 설정되었습니다.");
+                player.sendMessage(ChatColor.GREEN + targetName + "님의 " + categoryOp.label() + " 영혼을 " + value + "(으)로 설정했습니다.");
+                if (notify) {
+                    target.sendMessage(ChatColor.AQUA + "[영혼] 관리자에 의해 당신의 " + categoryOp.label() + " 영혼이 " + value + "(으)로 설정되었습니다.");
                 }
             }
             case "add" -> {
                 targetSouls.addSoul(categoryOp, value);
-                player.sendMessage(ChatColor.GREEN + target.getName() + "님의 " + categoryOp + " 영혼에 " + value + "만큼 추가했습니다.");
-                if (target.isOnline() && !target.equals(player)) {
-                    target.sendMessage(ChatColor.AQUA + "[영혼] 관리자에 의해 당신의 " + categoryOp + " 영혼이 " + value + "만큼 추가되었습니다.");
+                player.sendMessage(ChatColor.GREEN + targetName + "님의 " + categoryOp.label() + " 영혼에 " + value + "만큼 추가했습니다.");
+                if (notify) {
+                    target.sendMessage(ChatColor.AQUA + "[영혼] 관리자에 의해 당신의 " + categoryOp.label() + " 영혼이 " + value + "만큼 추가되었습니다.");
                 }
             }
             case "remove" -> {
                 targetSouls.removeSoul(categoryOp, value);
-                player.sendMessage(ChatColor.GREEN + target.getName() + "님의 " + categoryOp + " 영혼을 " + value + "만큼 감소시켰습니다.");
-                if (target.isOnline() && !target.equals(player)) {
-                    target.sendMessage(ChatColor.AQUA + "[영혼] 관리자에 의해 당신의 " + categoryOp + " 영혼이 " + value + "만큼 감소되었습니다.");
+                player.sendMessage(ChatColor.GREEN + targetName + "님의 " + categoryOp.label() + " 영혼을 " + value + "만큼 감소시켰습니다.");
+                if (notify) {
+                    target.sendMessage(ChatColor.AQUA + "[영혼] 관리자에 의해 당신의 " + categoryOp.label() + " 영혼이 " + value + "만큼 감소되었습니다.");
                 }
             }
-            default -> player.sendMessage(ChatColor.RED + "[영혼] 알 수 없는 관리자 명령어입니다. (set, add, remove 사용)");
+            default -> {
+                player.sendMessage(ChatColor.RED + "[영혼] 알 수 없는 관리자 명령어입니다. (set, add, remove 사용)");
+                return;
+            }
         }
+        SoulAuditLog.Kind kind = switch (subCommand) {
+            case "set" -> SoulAuditLog.Kind.ADMIN_SET;
+            case "add" -> SoulAuditLog.Kind.ADMIN_ADD;
+            default -> SoulAuditLog.Kind.ADMIN_REMOVE;
+        };
+        long after = targetSouls.getSouls(categoryOp);
+        audit(kind, targetId, categoryOp, after - before, after, player.getUniqueId());
     }
 
     private List<String> handleTabComplete(String[] args) {
@@ -423,19 +1144,23 @@ private int randomBetween(int min, int max) {
         String currentArg = args[args.length - 1].toLowerCase(); // 현재 입력 중인 인수
 
         if (args.length == 1) { // 첫 번째 인수 (하위 명령어)
-            List<String> subcommands = new ArrayList<>(List.of("redeem"));
+            List<String> subcommands = new ArrayList<>(List.of("shop", "redeem", "top", "history"));
             // 권한 있는 사용자에게만 관리자 명령어 제안 (여기서는 간단히 모두 제안, 실제 실행은 권한 체크)
-            subcommands.addAll(List.of("set", "add", "remove"));
+            subcommands.addAll(List.of("set", "add", "remove", "reload", "stats", "export", "bulk"));
             subcommands.stream()
                     .filter(cmd -> cmd.toLowerCase().startsWith(currentArg))
                     .forEach(completions::add);
         } else if (args.length == 2) { // 두 번째 인수
             String mainCmd = args[0].toLowerCase();
-            if ("redeem".equals(mainCmd)) { // /souls redeem <분야>
-                categories.stream()
+            if ("redeem".equals(mainCmd) || "top".equals(mainCmd)) { // /souls redeem|top <분야>
+                SoulCategory.labels().stream()
                         .filter(cat -> cat.toLowerCase().startsWith(currentArg))
                         .forEach(completions::add);
-            } else if (List.of("set", "add", "remove").contains(mainCmd)) { // /souls <op_cmd> <플레이어>
+            } else if ("bulk".equals(mainCmd)) { // /souls bulk <작업>
+                List.of("set", "add", "remove", "reset", "undo").stream()
+                        .filter(s -> s.startsWith(currentArg))
+                        .forEach(completions::add);
+            } else if (List.of("set", "add", "remove", "history").contains(mainCmd)) { // /souls <op_cmd|history> <플레이어>
                 Bukkit.getOnlinePlayers().stream()
                         .map(Player::getName)
                         .filter(name -> name.toLowerCase().startsWith(currentArg))
@@ -447,8 +1172,16 @@ private int randomBetween(int min, int max) {
                 List.of("10", "50", "100", "500").stream() // 수치 제안
                         .filter(s -> s.startsWith(currentArg))
                         .forEach(completions::add);
+            } else if ("history".equals(mainCmd)) { // /souls history <플레이어> [기간]
+                List.of("1h", "24h", "7d", "30d").stream()
+                        .filter(s -> s.startsWith(currentArg))
+                        .forEach(completions::add);
+            } else if ("bulk".equals(mainCmd) && !"undo".equalsIgnoreCase(args[1])) { // /souls bulk <작업> <대상>
+                List.of("all", "online", "@a", "file:").stream()
+                        .filter(s -> s.startsWith(currentArg))
+                        .forEach(completions::add);
             } else if (List.of("set", "add", "remove").contains(mainCmd)) { // /souls <op_cmd> <플레이어> <분야>
-                categories.stream()
+                SoulCategory.labels().stream()
                         .filter(cat -> cat.toLowerCase().startsWith(currentArg))
                         .forEach(completions::add);
             }
@@ -458,56 +1191,19 @@ private int randomBetween(int min, int max) {
                 List.of("10", "50", "100", "500", "1000").stream() // 수치 제안
                         .filter(s -> s.startsWith(currentArg))
                         .forEach(completions::add);
+            } else if ("bulk".equals(mainCmd)) { // /souls bulk <작업> <대상> <분야|all>
+                SoulCategory.labels().stream()
+                        .filter(cat -> cat.toLowerCase().startsWith(currentArg))
+                        .forEach(completions::add);
+                if ("all".startsWith(currentArg)) completions.add("all");
             }
+        } else if (args.length == 5 && "bulk".equals(args[0].toLowerCase())) { // /souls bulk <작업> <대상> <분야> [수치] [--dry-run]
+            List.of("100", "1000", "--dry-run").stream()
+                    .filter(s -> s.startsWith(currentArg))
+                    .forEach(completions::add);
         }
         // 부분 일치하는 것만 반환하도록 정렬 (선택 사항)
         // Collections.sort(completions);
         return completions;
     }
-
-    // 플레이어별 영혼 관리 내부 클래스 (static으로 선언하여 외부 클래스 인스턴스 불필요)
-    private static class PlayerSouls {
-        private final Map<String, Integer> soulsByCategory = new HashMap<>();
-        // PlayerSouls 클래스 내에서도 카테고리 목록을 인지하도록 함 (외부 클래스 categories 직접 참조도 가능)
-        private static final List<String> KNOWN_CATEGORIES = List.of("광물", "농작물", "암살", "사냥");
-
-        public PlayerSouls() {
-            // 생성 시 모든 알려진 카테고리를 0으로 초기화
-            KNOWN_CATEGORIES.forEach(cat -> soulsByCategory.put(cat, 0));
-        }
-
-        public int getSouls(String category) {
-            return soulsByCategory.getOrDefault(category, 0); // 존재하지 않는 카테고리 요청 시 0 반환
-        }
-
-        public void setSoul(String category, int amount) {
-            if (KNOWN_CATEGORIES.contains(category)) { // 알려진 카테고리인지 확인
-                soulsByCategory.put(category, Math.max(amount, 0)); // 0 미만으로 설정 방지
-            }
-        }
-
-        public void addSoul(String category, int amount) {
-            if (amount <= 0) return; // 0 이하의 값은 추가하지 않음
-            if (KNOWN_CATEGORIES.contains(category)) {
-                soulsByCategory.put(category, getSouls(category) + amount);
-            }
-        }
-
-        public void removeSoul(String category, int amount) {
-            if (amount <= 0) return;
-            if (KNOWN_CATEGORIES.contains(category)) {
-                soulsByCategory.put(category, Math.max(getSouls(category) - amount, 0)); // 0 미만으로 감소 방지
-            }
-        }
-
-        public boolean canRedeem(String category, int amount) {
-            return amount > 0 && KNOWN_CATEGORIES.contains(category) && soulsByCategory.getOrDefault(category, 0) >= amount;
-        }
-
-        public void redeem(String category, int amount) {
-            if (canRedeem(category, amount)) { // 인출 가능 여부 재확인
-                removeSoul(category, amount);
-            }
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 플레이어·분야별 영혼 획득 한도. (토큰 버킷)
+ * <p>
+ * 분야마다 최대 capacity만큼 모아 둘 수 있고 분당 refill만큼 다시 찹니다. 보상은 남은 양만큼만 지급하므로,
+ * 평소 플레이에서는 걸리지 않고 AFK 몹 농장이나 반복 채굴처럼 오래 계속되는 획득만 분당 refill로 제한됩니다.
+ * 가득 찬 버킷은 없는 것과 같으므로 주기적으로 지우고(evictFull), 접속 종료 시에는 지우지 않습니다. (재접속으로 초기화 방지)
+ * <p>
+ * 버킷은 플레이어마다 하나이고 그 안에서만 잠그므로, 서로 다른 플레이어(Folia 지역 스레드)끼리는 경쟁하지 않습니다.
+ */
+final class SoulRateLimiter {
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final long WARN_INTERVAL_NANOS = 60_000_000_000L; // 한도 안내는 분야별로 1분에 한 번
+
+    private final double[] capacity = new double[SoulCategory.COUNT]; // 0이면 제한 없음
+    private final double[] refillPerNano = new double[SoulCategory.COUNT];
+    private final Map<UUID, Buckets> buckets = new ConcurrentHashMap<>();
+
+    private final class Buckets {
+        private final double[] tokens = new double[SoulCategory.COUNT];
+        private final long[] updated = new long[SoulCategory.COUNT];
+        private final long[] warned = new long[SoulCategory.COUNT];
+
+        Buckets(long now) {
+            for (int i = 0; i < SoulCategory.COUNT; i++) {
+                tokens[i] = capacity[i];
+                updated[i] = now;
+                warned[i] = now - WARN_INTERVAL_NANOS;
+            }
+        }
+
+        // 호출하는 쪽이 this 잠금을 잡고 있어야 함
+        private void refill(int i, long now) {
+            if (now <= updated[i]) return; // 다른 스레드가 더 나중 시각으로 이미 갱신함
+            tokens[i] = Math.min(capacity[i], tokens[i] + (now - updated[i]) * refillPerNano[i]);
+            updated[i] = now;
+        }
+
+        synchronized long acquire(int i, long amount, long now) {
+            refill(i, now);
+            long granted = Math.min(amount, (long) tokens[i]);
+            tokens[i] -= granted;
+            return granted;
+        }
+
+        synchronized boolean takeWarning(int i, long now) {
+            if (now - warned[i] < WARN_INTERVAL_NANOS) return false;
+            warned[i] = now;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            for (int i = 0; i < SoulCategory.COUNT; i++) {
+                if (capacity[i] <= 0) continue;
+                refill(i, now);
+                if (tokens[i] < capacity[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * config.yml의 anti-farming.limits 섹션으로 만듭니다. (&lt;분야&gt;: {capacity, refill-per-minute})
+     * 섹션이 없거나 capacity가 0 이하인 분야는 제한하지 않습니다.
+     */
+    SoulRateLimiter(ConfigurationSection limits) {
+        if (limits == null) return;
+        for (String key : limits.getKeys(false)) {
+            SoulCategory category = SoulCategory.fromInput(key);
+            ConfigurationSection section = limits.getConfigurationSection(key);
+            if (category == null || section == null) continue;
+            int i = category.ordinal();
+            capacity[i] = Math.max(section.getLong("capacity", 0), 0);
+            refillPerNano[i] = Math.max(section.getDouble("refill-per-minute", 0), 0) / NANOS_PER_MINUTE;
+        }
+    }
+
+    /**
+     * amount만큼의 획득을 요청합니다.
+     * @return 실제로 지급할 양 (0 ~ amount)
+     */
+    long acquire(UUID player, SoulCategory category, long amount) {
+        int i = category.ordinal();
+        if (capacity[i] <= 0 || amount <= 0) return amount;
+        long now = System.nanoTime();
+        return buckets.computeIfAbsent(player, k -> new Buckets(now)).acquire(i, amount, now);
+    }
+
+    // 한도 초과 안내를 보낼 차례인지 (분야별 1분에 한 번)
+    boolean takeWarning(UUID player, SoulCategory category) {
+        Buckets b = buckets.get(player);
+        return b != null && b.takeWarning(category.ordinal(), System.nanoTime());
+    }
+
+    // 다시 가득 찬 버킷 정리 (주기적으로 호출)
+    // 지우는 순간 다른 스레드가 같은 버킷에서 꺼내 쓰면 그 양은 잊히지만, 가득 찬 버킷이라 최대 한 번의 보상 차이뿐
+    void evictFull() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.isFull(now));
+    }
+}
@@ -0,0 +1,164 @@
+package me.yourname.soulplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 영혼 데이터 비동기 저장 담당.
+ * <p>
+ * 한 번에 하나의 저장만 실행되며, 저장 중에 들어온 요청은 하나의 스냅샷으로 합쳐집니다.
+ * 디스크가 느려도 저장 작업이 겹겹이 쌓이지 않습니다.
+ * 저널 flush도 같은 I/O 스레드에서 실행되므로, 세그먼트 정리와 스냅샷 쓰기의 순서가 보장됩니다.
+ */
+final class SoulSaver {
+    private final SoulStorage storage;
+    private final SoulJournal journal;
+    private final Logger logger;
+    private final LatencyHistogram saveTimes; // 저장소 쓰기 소요 시간 (null이면 기록하지 않음)
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "SoulPlugin-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<SoulSnapshot> pending = new AtomicReference<>();
+    private SoulSnapshot failed; // 저장에 실패하여 다음 저장에 합쳐야 하는 스냅샷 (I/O 스레드 전용)
+    private volatile int savedJournalSeq; // 저장소에 기록이 끝난 마지막 스냅샷의 저널 번호
+
+    SoulSaver(SoulStorage storage, SoulJournal journal, Logger logger) {
+        this(storage, journal, logger, null);
+    }
+
+    SoulSaver(SoulStorage storage, SoulJournal journal, Logger logger, LatencyHistogram saveTimes) {
+        this.storage = storage;
+        this.journal = journal;
+        this.logger = logger;
+        this.saveTimes = saveTimes;
+    }
+
+    // 이 번호 이하의 스냅샷에 포함된 값은 저장소에 안전하게 기록됨 (캐시 eviction 판단용)
+    int savedJournalSeq() {
+        return savedJournalSeq;
+    }
+
+    // 저널에 쌓인 변경 내역을 I/O 스레드에서 디스크에 기록
+    void flushJournalAsync() {
+        if (executor.isShutdown()) return;
+        executor.execute(journal::flush);
+    }
+
+    // 저장 요청. 아직 처리되지 않은 이전 요청이 있으면 하나로 합쳐짐
+    void saveAsync(SoulSnapshot snapshot) {
+        if (executor.isShutdown()) return;
+        pending.accumulateAndGet(snapshot, (prev, next) -> prev == null ? next : SoulSnapshot.merge(prev, next));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (pending.get() != null && running.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            SoulSnapshot snapshot;
+            while ((snapshot = pending.getAndSet(null)) != null) {
+                long start = System.nanoTime();
+                if (write(snapshot)) {
+                    logger.info("영혼 데이터 자동 저장 완료. (변경 " + snapshot.size() + "명, "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms)");
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        // running 해제 직전에 들어온 요청이 있으면 다시 처리
+        if (!executor.isShutdown()) scheduleDrain();
+    }
+
+    /**
+     * 저장소 전체를 souls.yml 형식으로 내보냅니다. (이진 저장소 내용을 사람이 확인하거나 yaml 저장소로 되돌릴 때)
+     * 같은 I/O 스레드에서 실행되므로 먼저 요청된 저장이 모두 끝난 뒤의 내용이 기록됩니다.
+     * @return 내보낸 플레이어 수
+     */
+    CompletableFuture<Integer> exportYamlAsync(File target) {
+        return CompletableFuture.supplyAsync(() -> {
+            Path targetPath = target.toPath();
+            Path tempPath = targetPath.resolveSibling(target.getName() + ".tmp");
+            try {
+                int count;
+                try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                    count = SoulsYaml.write(writer, storage.journalSeq(), storage::loadAll);
+                }
+                try {
+                    Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 진행 중인 비동기 저장이 끝날 때까지 기다린 뒤, 마지막 스냅샷을 호출 스레드에서 직접 저장합니다.
+     * onDisable에서 사용합니다.
+     */
+    void shutdownAndFlush(SoulSnapshot finalSnapshot) {
+        SoulSnapshot unsaved = pending.getAndSet(null);
+        executor.execute(journal::flush);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("진행 중인 영혼 데이터 저장이 30초 안에 끝나지 않았습니다. 최종 저장을 계속합니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write(unsaved == null ? finalSnapshot : SoulSnapshot.merge(unsaved, finalSnapshot));
+        journal.close();
+        storage.close();
+    }
+
+    // 저장 후 스냅샷에 포함된 저널 세그먼트를 정리. 실패하면 다음 저장에 합치고, 세그먼트는 남겨 둠
+    private synchronized boolean write(SoulSnapshot snapshot) {
+        if (failed != null) {
+            snapshot = SoulSnapshot.merge(failed, snapshot);
+        }
+        journal.flush(); // 스냅샷에 포함된 세그먼트를 먼저 닫음
+        try {
+            if (snapshot.size() > 0) {
+                long start = System.nanoTime();
+                storage.upsert(snapshot);
+                if (saveTimes != null) saveTimes.recordSince(start);
+            }
+            failed = null;
+            savedJournalSeq = Math.max(savedJournalSeq, snapshot.journalSeq());
+            journal.deleteUpTo(snapshot.journalSeq());
+            return true;
+        } catch (IOException e) {
+            // 저널 세그먼트가 남아 있으므로 서버가 이대로 종료되어도 다음 시작 시 재생으로 복구됨
+            failed = snapshot;
+            logger.log(Level.SEVERE, storage.name() + " 저장 중 오류 발생!", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Paper/Folia 공통 스케줄러.
+ * <p>
+ * Folia에는 메인 스레드가 없고 Bukkit.getScheduler()를 쓸 수 없으므로, 플러그인의 모든 예약 작업은 이 인터페이스를 거칩니다.
+ * "글로벌" 작업은 Paper에서는 메인 스레드, Folia에서는 글로벌 리전 스레드에서 실행되며 한 번에 하나씩만 실행됩니다.
+ * (캐시 올리기/내보내기, 스냅샷 캡처, 알림 전송 등)
+ */
+interface SoulScheduler {
+
+    // Folia 서버이면 Folia용, 아니면 Bukkit 스케줄러 구현
+    static SoulScheduler create(Plugin plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return new FoliaSoulScheduler(plugin);
+        } catch (ClassNotFoundException e) {
+            return new BukkitSoulScheduler(plugin);
+        }
+    }
+
+    // 로그 표시용 이름
+    String name();
+
+    // 디스크/DB 등 블로킹 작업용
+    Executor async();
+
+    // 메인 스레드(Folia는 글로벌 리전)
+    Executor global();
+
+    void runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+
+    void runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    // 비활성화 시 남은 예약 작업 취소
+    void cancelAll();
+}
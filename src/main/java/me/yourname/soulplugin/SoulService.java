@@ -0,0 +1,68 @@
+package me.yourname.soulplugin;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 다른 플러그인(퀘스트, 등급, 웹 패널 등)용 영혼 API. Bukkit ServicesManager로 제공합니다.
+ * <pre>
+ * SoulService souls = Bukkit.getServicesManager().load(SoulService.class);
+ * </pre>
+ * getCached*는 메모리에 있는 값만 잠금 없이 읽으므로 어느 스레드에서든 바로 호출할 수 있습니다.
+ * 나머지는 오프라인 플레이어도 다룰 수 있도록 CompletableFuture를 반환합니다.
+ * 디스크 조회는 비동기 스레드에서 하고, 변경은 메인 스레드(Folia는 글로벌 리전)에서 적용한 뒤 완료됩니다.
+ * 완료 콜백에서 Bukkit API를 쓰려면 thenAcceptAsync 등으로 실행할 스레드를 지정하세요.
+ * <p>
+ * 변경 알림:
+ * <ul>
+ *     <li>SoulChangeEvent - 획득/인출/상점 구매/deposit/withdraw 직전. 취소하거나 획득량을 바꿀 수 있음</li>
+ *     <li>SoulBalanceUpdateEvent - 주기마다 그 사이 바뀐 플레이어의 현재 값을 한 번에 (관리자 변경, 다른 서버에서 받은 값 포함)</li>
+ * </ul>
+ * 모든 변경을 따라가야 하는 플러그인은 souls.yml을 읽지 말고 SoulBalanceUpdateEvent를 사용하세요.
+ */
+public interface SoulService {
+
+    /**
+     * 메모리에 있는 플레이어(접속 중이거나 최근 사용한 오프라인 플레이어)의 값. 메모리에 없으면 비어 있음.
+     */
+    OptionalLong getCached(UUID player, SoulCategory category);
+
+    Optional<SoulBalance> getCachedBalance(UUID player);
+
+    // 오프라인 플레이어 포함. 저장된 적이 없으면 모두 0
+    CompletableFuture<SoulBalance> getBalance(UUID player);
+
+    /**
+     * 여러 플레이어를 한 번에 조회합니다. (오프라인 포함, 중복은 한 번만)
+     * 메모리에 있는 플레이어는 바로 채우고, 나머지만 비동기 스레드에서 한꺼번에 읽습니다. 읽은 플레이어를 캐시에 올리지는 않습니다.
+     * 모두 메모리에 있으면 이미 완료된 future를 반환합니다.
+     */
+    CompletableFuture<Map<UUID, SoulBalance>> getBalances(Collection<UUID> players);
+
+    /**
+     * amount만큼 더합니다. SoulChangeEvent(Cause.PLUGIN)에서 취소되거나 양이 바뀔 수 있습니다.
+     * @return 변경 후 값 (취소되었으면 현재 값)
+     * @throws IllegalArgumentException amount가 0 이하 (future가 이 예외로 실패)
+     */
+    CompletableFuture<Long> deposit(UUID player, SoulCategory category, long amount);
+
+    /**
+     * 잔액이 충분할 때만 amount만큼 뺍니다. 확인과 차감이 한 번에 이루어집니다.
+     * @return 뺐으면 true, 잔액 부족이거나 SoulChangeEvent에서 취소되었으면 false
+     * @throws IllegalArgumentException amount가 0 이하 (future가 이 예외로 실패)
+     */
+    CompletableFuture<Boolean> withdraw(UUID player, SoulCategory category, long amount);
+
+    /**
+     * 현재 값을 operator로 바꿉니다. 읽기와 쓰기 사이에 다른 변경이 끼어들지 않도록 플레이어 잠금 안에서 실행하므로
+     * operator는 빠르고 부작용이 없어야 합니다. 결과가 0 미만이면 0으로 저장합니다.
+     * 조건 판단은 operator가 하므로 SoulChangeEvent는 발생하지 않습니다. (SoulBalanceUpdateEvent에는 포함)
+     * @return 변경 후 값
+     */
+    CompletableFuture<Long> modify(UUID player, SoulCategory category, LongUnaryOperator operator);
+}
@@ -0,0 +1,166 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * SoulService 구현. SoulCache 위에서 동작하며, 변경 알림(SoulChangeListener)으로 바뀐 플레이어를 모아 두었다가
+ * flushUpdates()에서 SoulBalanceUpdateEvent 하나로 보냅니다.
+ * <p>
+ * 캐시보다 먼저 만들어 변경 리스너로 넘기고, 캐시와 감사 기록이 준비되면 attach로 연결합니다. (서로를 참조하므로)
+ */
+final class SoulServiceProvider implements SoulService, SoulChangeListener {
+    private final Executor asyncExecutor;
+    private final Executor mainExecutor;
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet(); // 마지막 flushUpdates 이후 바뀐 플레이어
+    private volatile SoulCache cache;
+    private volatile SoulAuditLog audit; // null이면 기록하지 않음
+
+    SoulServiceProvider(Executor asyncExecutor, Executor mainExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        this.mainExecutor = mainExecutor;
+    }
+
+    void attach(SoulCache cache, SoulAuditLog audit) {
+        this.cache = cache;
+        this.audit = audit;
+        changed.clear(); // 시작 시 저널 재생으로 바뀐 값은 알리지 않음
+    }
+
+    // 플레이어 잠금 안에서 호출되므로 집합에 넣기만 함
+    @Override
+    public void changed(UUID owner, SoulCategory category, long oldValue, long newValue, boolean remote) {
+        changed.add(owner);
+    }
+
+    /**
+     * 모아 둔 변경을 SoulBalanceUpdateEvent로 보냅니다. 메인 스레드(Folia는 글로벌 리전)에서 주기적으로 호출합니다.
+     * 받는 플러그인이 없으면 모아 둔 것만 비웁니다.
+     */
+    void flushUpdates() {
+        if (changed.isEmpty()) return;
+        if (SoulBalanceUpdateEvent.getHandlerList().getRegisteredListeners().length == 0) {
+            changed.clear();
+            return;
+        }
+        Map<UUID, SoulBalance> balances = new HashMap<>();
+        for (Iterator<UUID> it = changed.iterator(); it.hasNext(); ) {
+            UUID uuid = it.next();
+            it.remove(); // 지운 뒤에 읽으므로, 그 사이 바뀌면 다음 주기에 다시 들어감
+            PlayerSouls souls = cache.resident().get(uuid);
+            if (souls != null) balances.put(uuid, SoulBalance.of(souls));
+        }
+        if (!balances.isEmpty()) Bukkit.getPluginManager().callEvent(new SoulBalanceUpdateEvent(balances));
+    }
+
+    @Override
+    public OptionalLong getCached(UUID player, SoulCategory category) {
+        PlayerSouls souls = cache.resident().get(player); // 조회만으로 오프라인 캐시 수명을 늘리지 않음
+        return souls == null ? OptionalLong.empty() : OptionalLong.of(souls.getSouls(category));
+    }
+
+    @Override
+    public Optional<SoulBalance> getCachedBalance(UUID player) {
+        PlayerSouls souls = cache.resident().get(player);
+        return souls == null ? Optional.empty() : Optional.of(SoulBalance.of(souls));
+    }
+
+    @Override
+    public CompletableFuture<SoulBalance> getBalance(UUID player) {
+        return getBalances(List.of(player)).thenApply(balances -> balances.get(player));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, SoulBalance>> getBalances(Collection<UUID> players) {
+        SoulCache cache = this.cache;
+        Map<UUID, SoulBalance> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : new LinkedHashSet<>(players)) {
+            PlayerSouls souls = cache.resident().get(uuid);
+            if (souls != null) {
+                result.put(uuid, SoulBalance.of(souls));
+            } else {
+                missing.add(uuid);
+            }
+        }
+        if (missing.isEmpty()) return CompletableFuture.completedFuture(Collections.unmodifiableMap(result));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                cache.peekAll(missing, null).forEach((uuid, values) -> result.put(uuid, SoulBalance.of(uuid, values))); // 저장소는 한 번만 읽음
+            } catch (IOException e) {
+                throw new UncheckedIOException(missing.size() + "명의 영혼 데이터를 불러오지 못했습니다.", e);
+            }
+            return Collections.unmodifiableMap(result);
+        }, asyncExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Long> deposit(UUID player, SoulCategory category, long amount) {
+        if (amount <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("amount는 0보다 커야 합니다: " + amount));
+        return cache.modifyAsync(player, souls -> {
+            long granted = SoulChangeEvent.call(player, category, SoulChangeEvent.Cause.PLUGIN, amount);
+            if (granted <= 0) return souls.getSouls(category);
+            long value;
+            synchronized (souls) { // 기록할 변경 후 값이 다른 변경과 섞이지 않도록
+                souls.addSoul(category, granted);
+                value = souls.getSouls(category);
+            }
+            record(player, category, granted, value);
+            return value;
+        }, asyncExecutor, mainExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> withdraw(UUID player, SoulCategory category, long amount) {
+        if (amount <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("amount는 0보다 커야 합니다: " + amount));
+        return cache.modifyAsync(player, souls -> {
+            if (!souls.canRedeem(category, amount)) return false; // 잔액 부족이면 이벤트 없이 끝냄
+            if (SoulChangeEvent.call(player, category, SoulChangeEvent.Cause.PLUGIN, -amount) == 0) return false;
+            long value;
+            synchronized (souls) {
+                if (!souls.tryRedeem(category, amount)) return false;
+                value = souls.getSouls(category);
+            }
+            record(player, category, -amount, value);
+            return true;
+        }, asyncExecutor, mainExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Long> modify(UUID player, SoulCategory category, LongUnaryOperator operator) {
+        return cache.modifyAsync(player, souls -> {
+            long old;
+            long value;
+            synchronized (souls) {
+                old = souls.getSouls(category);
+                value = Math.max(operator.applyAsLong(old), 0);
+                if (value != old) souls.setSoul(category, value);
+            }
+            if (value != old) record(player, category, value - old, value);
+            return value;
+        }, asyncExecutor, mainExecutor);
+    }
+
+    private void record(UUID player, SoulCategory category, long delta, long value) {
+        SoulAuditLog log = audit;
+        if (log != null) log.record(SoulAuditLog.Kind.PLUGIN, player, category, delta, value, null);
+    }
+}
@@ -0,0 +1,242 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * shop.yml을 컴파일한 영혼 상점 목록. 생성 후에는 바뀌지 않습니다. (/souls reload 시 새로 만들어 참조만 교체)
+ * <p>
+ * 지급할 아이템, 상점에 보일 아이콘(가격 설명 포함), 페이지별 인벤토리 내용을 불러올 때 한 번만 만들어 두고,
+ * 상점을 열거나 페이지를 넘길 때는 만들어 둔 배열을 그대로 넣습니다. (Inventory.setContents가 복사하므로 공유해도 됨)
+ * 지급할 때만 clone()합니다.
+ */
+final class SoulShop {
+    static final int SIZE = 54; // 6줄
+    static final int PAGE_SIZE = 45; // 위 5줄은 상품, 맨 아래 줄은 이동 버튼
+    static final int PREV_SLOT = 45;
+    static final int INFO_SLOT = 49;
+    static final int NEXT_SLOT = 53;
+
+    // 상품 하나. item(아이템 지급)과 effect(버프) 중 하나만 있음
+    record Entry(String id, String name, SoulCategory category, long price, ItemStack item, PotionEffect effect) {
+    }
+
+    private final String title;
+    private final List<Entry> entries;
+    private final ItemStack[][] pages;
+    private final ItemStack[] redeemTemplates = new ItemStack[SoulCategory.COUNT]; // /souls redeem 아이템 (분야별)
+    private final ItemStack balanceTemplate;
+
+    private SoulShop(String title, List<Entry> entries, List<ItemStack> icons) {
+        this.title = title;
+        this.entries = List.copyOf(entries);
+        int pageCount = Math.max((entries.size() + PAGE_SIZE - 1) / PAGE_SIZE, 1);
+        this.pages = new ItemStack[pageCount][];
+        ItemStack prev = named(new ItemStack(Material.ARROW), ChatColor.YELLOW + "이전 페이지", List.of());
+        ItemStack next = named(new ItemStack(Material.ARROW), ChatColor.YELLOW + "다음 페이지", List.of());
+        ItemStack filler = named(new ItemStack(Material.GRAY_STAINED_GLASS_PANE), " ", List.of());
+        for (int page = 0; page < pageCount; page++) {
+            ItemStack[] contents = new ItemStack[SIZE];
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                int index = page * PAGE_SIZE + slot;
+                if (index < icons.size()) contents[slot] = icons.get(index);
+            }
+            for (int slot = PAGE_SIZE; slot < SIZE; slot++) {
+                contents[slot] = filler;
+            }
+            if (page > 0) contents[PREV_SLOT] = prev;
+            if (page < pageCount - 1) contents[NEXT_SLOT] = next;
+            pages[page] = contents;
+        }
+        for (SoulCategory category : SoulCategory.VALUES) {
+            redeemTemplates[category.ordinal()] = named(new ItemStack(Material.NETHER_STAR),
+                    ChatColor.GOLD + "숙련자의 " + category.label() + " 영혼 응축물", List.of());
+        }
+        balanceTemplate = named(new ItemStack(Material.PAPER), ChatColor.AQUA + "보유 영혼", List.of());
+    }
+
+    String title() {
+        return title;
+    }
+
+    int pageCount() {
+        return pages.length;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // 페이지 내용 (수정하지 말 것)
+    ItemStack[] page(int page) {
+        return pages[page];
+    }
+
+    // 해당 페이지 칸의 상품. 빈 칸이면 null
+    Entry entry(int page, int slot) {
+        if (slot < 0 || slot >= PAGE_SIZE) return null;
+        int index = page * PAGE_SIZE + slot;
+        return index < entries.size() ? entries.get(index) : null;
+    }
+
+    // 잔액 표시 아이템. 구매할 때마다 이 칸 하나만 다시 만듦
+    ItemStack balanceIcon(PlayerSouls souls) {
+        List<String> lore = new ArrayList<>(SoulCategory.COUNT);
+        for (SoulCategory category : SoulCategory.VALUES) {
+            lore.add(ChatColor.GREEN + category.label() + ": " + ChatColor.WHITE + (souls == null ? "-" : souls.getSouls(category)));
+        }
+        return withLore(balanceTemplate.clone(), lore);
+    }
+
+    // /souls redeem 아이템. 이름은 미리 만들어 둔 것을 복제하고, 수치가 들어가는 설명만 새로 씀
+    ItemStack redeemItem(SoulCategory category, long amount) {
+        return withLore(redeemTemplates[category.ordinal()].clone(), List.of(
+                ChatColor.GRAY + "가치: " + amount + " " + category.label() + " 영혼",
+                ChatColor.DARK_PURPLE + "특별한 힘을 담고 있는 듯 하다."
+        ));
+    }
+
+    /**
+     * shop.yml 파일을 읽어 상점 목록을 만듭니다.
+     * 파일을 읽을 수 없거나 YAML 문법이 틀리면 IOException, 잘못된 항목은 경고 후 건너뜁니다.
+     */
+    static SoulShop load(File file, Logger logger) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (InvalidConfigurationException e) {
+            throw new IOException(file.getName() + " 형식이 올바르지 않습니다: " + e.getMessage(), e);
+        }
+        return compile(yaml, logger);
+    }
+
+    static SoulShop compile(ConfigurationSection config, Logger logger) {
+        List<Entry> entries = new ArrayList<>();
+        List<ItemStack> icons = new ArrayList<>();
+
+        // items.<id>: category, price, material, amount, name, lore
+        ConfigurationSection items = config.getConfigurationSection("items");
+        if (items != null) {
+            for (String id : items.getKeys(false)) {
+                ConfigurationSection section = items.getConfigurationSection(id);
+                if (section == null) continue;
+                SoulCategory category = category(section, "items." + id, logger);
+                long price = price(section, "items." + id, logger);
+                Material material = material(section.getString("material", ""), "items." + id, logger);
+                if (category == null || price <= 0 || material == null) continue;
+                int amount = Math.min(Math.max(section.getInt("amount", 1), 1), material.getMaxStackSize());
+                ItemStack item = named(new ItemStack(material, amount), color(section.getString("name")), colorAll(section.getStringList("lore")));
+                entries.add(new Entry(id, displayName(section, id), category, price, item, null));
+                icons.add(icon(item.clone(), section, category, price));
+            }
+        }
+
+        // buffs.<id>: category, price, icon, effect, level, duration-seconds, name, lore
+        ConfigurationSection buffs = config.getConfigurationSection("buffs");
+        if (buffs != null) {
+            for (String id : buffs.getKeys(false)) {
+                ConfigurationSection section = buffs.getConfigurationSection(id);
+                if (section == null) continue;
+                SoulCategory category = category(section, "buffs." + id, logger);
+                long price = price(section, "buffs." + id, logger);
+                Material iconMaterial = material(section.getString("icon", "POTION"), "buffs." + id, logger);
+                String effectName = section.getString("effect", "");
+                PotionEffectType type = effectName.isBlank() ? null : Registry.EFFECT.match(effectName.trim());
+                if (type == null) {
+                    logger.warning("shop.yml: buffs." + id + "의 효과 '" + effectName + "'을(를) 알 수 없어 건너뜁니다.");
+                    continue;
+                }
+                if (category == null || price <= 0 || iconMaterial == null) continue;
+                int level = Math.max(section.getInt("level", 1), 1);
+                int seconds = Math.max(section.getInt("duration-seconds", 60), 1);
+                PotionEffect effect = new PotionEffect(type, seconds * 20, level - 1);
+                ItemStack iconItem = named(new ItemStack(iconMaterial), color(section.getString("name")), colorAll(section.getStringList("lore")));
+                entries.add(new Entry(id, displayName(section, id), category, price, null, effect));
+                icons.add(icon(iconItem, section, category, price));
+            }
+        }
+
+        String title = color(config.getString("title", "영혼 상점"));
+        return new SoulShop(title == null ? "영혼 상점" : title, entries, icons);
+    }
+
+    private static SoulCategory category(ConfigurationSection section, String path, Logger logger) {
+        String name = section.getString("category", "");
+        SoulCategory category = SoulCategory.fromInput(name);
+        if (category == null) {
+            logger.warning("shop.yml: " + path + "의 분야 '" + name + "'을(를) 알 수 없어 건너뜁니다.");
+        }
+        return category;
+    }
+
+    private static long price(ConfigurationSection section, String path, Logger logger) {
+        long price = section.getLong("price", 0);
+        if (price <= 0) {
+            logger.warning("shop.yml: " + path + "의 가격이 올바르지 않아 건너뜁니다. (1 이상)");
+        }
+        return price;
+    }
+
+    private static Material material(String name, String path, Logger logger) {
+        Material material = Material.matchMaterial(name);
+        if (material == null || !material.isItem() || material.isAir()) {
+            logger.warning("shop.yml: " + path + "의 아이템 '" + name + "'을(를) 알 수 없어 건너뜁니다.");
+            return null;
+        }
+        return material;
+    }
+
+    // 구매 메시지에 쓸 이름 (색 코드 제외)
+    private static String displayName(ConfigurationSection section, String id) {
+        String name = section.getString("name");
+        return name == null ? id : name.replaceAll("&[0-9a-fk-orA-FK-OR]", "");
+    }
+
+    // 지급할 아이템 설명 뒤에 가격/구매 안내를 붙인 아이콘
+    private static ItemStack icon(ItemStack item, ConfigurationSection section, SoulCategory category, long price) {
+        List<String> lore = new ArrayList<>(colorAll(section.getStringList("lore")));
+        lore.add("");
+        lore.add(ChatColor.GOLD + "가격: " + ChatColor.WHITE + price + " " + category.label() + " 영혼");
+        lore.add(ChatColor.GRAY + "클릭하여 구매");
+        return withLore(item, lore);
+    }
+
+    private static ItemStack named(ItemStack item, String name, List<String> lore) {
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) return item;
+        if (name != null) meta.setDisplayName(name);
+        if (!lore.isEmpty()) meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private static ItemStack withLore(ItemStack item, List<String> lore) {
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) return item;
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private static String color(String text) {
+        return text == null ? null : ChatColor.translateAlternateColorCodes('&', text);
+    }
+
+    private static List<String> colorAll(List<String> lines) {
+        return lines.stream().map(SoulShop::color).toList();
+    }
+}
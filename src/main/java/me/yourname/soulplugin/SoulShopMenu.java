@@ -0,0 +1,156 @@
+package me.yourname.soulplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 영혼 상점 인벤토리 화면. (/souls shop)
+ * <p>
+ * 상점 인벤토리 안의 클릭/드래그는 모두 취소하고, 상품·페이지 버튼 클릭만 처리합니다.
+ * 플레이어마다 마지막으로 처리한 클릭 시각을 기억해 두고 쿨다운 안의 클릭은 무시하므로,
+ * 연타나 매크로로 같은 상품을 여러 번 사거나 페이지를 계속 다시 그리게 할 수 없습니다.
+ * 차감은 PlayerSouls.tryRedeem으로 확인과 함께 한 번에 처리합니다.
+ * <p>
+ * 클릭 이벤트는 그 플레이어의 스레드(Folia에서는 플레이어가 있는 리전)에서만 오므로 플레이어별 상태는 따로 잠그지 않습니다.
+ */
+final class SoulShopMenu {
+
+    // 열려 있는 상점 화면 하나. 열 때의 상점 목록을 들고 있어 /souls reload 중에도 칸과 상품이 어긋나지 않음
+    static final class View implements InventoryHolder {
+        private final SoulShop shop;
+        private final Inventory inventory;
+        private int page;
+
+        private View(SoulShop shop) {
+            this.shop = shop;
+            this.inventory = Bukkit.createInventory(this, SoulShop.SIZE, shop.title());
+        }
+
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+    }
+
+    private final SoulCache cache;
+    private final SoulMetrics metrics;
+    private final SoulAuditLog audit; // null이면 기록하지 않음
+    private final long cooldownNanos;
+    private final Map<UUID, Long> lastAction = new ConcurrentHashMap<>(); // 플레이어 -> 마지막으로 처리한 클릭(System.nanoTime())
+
+    SoulShopMenu(SoulCache cache, SoulMetrics metrics, SoulAuditLog audit, long cooldownMillis) {
+        this.cache = cache;
+        this.metrics = metrics;
+        this.audit = audit;
+        this.cooldownNanos = Math.max(cooldownMillis, 0) * 1_000_000L;
+    }
+
+    void open(Player player, SoulShop shop) {
+        if (shop.size() == 0) {
+            player.sendMessage(ChatColor.RED + "[영혼] 상점에 등록된 상품이 없습니다.");
+            return;
+        }
+        if (!acquire(player.getUniqueId())) return; // 명령어 연타로 인벤토리를 계속 새로 만들지 않도록
+        PlayerSouls souls = cache.get(player.getUniqueId());
+        if (souls == null) {
+            player.sendMessage(ChatColor.RED + "[영혼] 영혼 데이터를 불러오는 중입니다. 잠시 후 다시 시도해주세요.");
+            return;
+        }
+        View view = new View(shop);
+        show(view, 0, souls);
+        player.openInventory(view.inventory);
+    }
+
+    void click(InventoryClickEvent event) {
+        if (!(event.getInventory().getHolder() instanceof View view)) return;
+        event.setCancelled(true); // 아래쪽(플레이어) 인벤토리의 Shift 클릭 등도 상점으로 옮겨지지 않도록 모두 취소
+        if (!(event.getWhoClicked() instanceof Player player)) return;
+        int slot = event.getRawSlot();
+        if (slot < 0 || slot >= SoulShop.SIZE) return; // 상점 칸이 아님
+
+        int targetPage = view.page;
+        SoulShop.Entry entry = null;
+        if (slot == SoulShop.PREV_SLOT && view.page > 0) {
+            targetPage = view.page - 1;
+        } else if (slot == SoulShop.NEXT_SLOT && view.page < view.shop.pageCount() - 1) {
+            targetPage = view.page + 1;
+        } else {
+            entry = view.shop.entry(view.page, slot);
+            if (entry == null) return; // 빈 칸/장식 (쿨다운도 소모하지 않음)
+        }
+        if (!acquire(player.getUniqueId())) return;
+
+        PlayerSouls souls = cache.get(player.getUniqueId());
+        if (entry == null) {
+            show(view, targetPage, souls);
+        } else {
+            buy(player, view, entry, souls);
+        }
+    }
+
+    void drag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof View) event.setCancelled(true);
+    }
+
+    void quit(UUID uuid) {
+        lastAction.remove(uuid);
+    }
+
+    private void buy(Player player, View view, SoulShop.Entry entry, PlayerSouls souls) {
+        if (souls == null) {
+            player.sendMessage(ChatColor.RED + "[영혼] 영혼 데이터를 불러오는 중입니다. 잠시 후 다시 시도해주세요.");
+            return;
+        }
+        if (entry.item() != null && player.getInventory().firstEmpty() == -1) { // 인벤토리 공간 확인
+            player.sendMessage(ChatColor.RED + "[영혼] 인벤토리에 공간이 부족하여 구매할 수 없습니다.");
+            return;
+        }
+        if (SoulChangeEvent.call(player.getUniqueId(), entry.category(), SoulChangeEvent.Cause.SHOP, -entry.price()) == 0) {
+            player.sendMessage(ChatColor.RED + "[영혼] 구매가 취소되었습니다.");
+            return;
+        }
+        // 확인과 차감을 한 번에 처리 (다른 스레드의 변경이나 다른 서버의 동기화와 겹쳐도 이중 차감 없음)
+        if (!souls.tryRedeem(entry.category(), entry.price())) {
+            player.sendMessage(ChatColor.RED + "[영혼] " + entry.category().label() + " 영혼이 부족합니다. (필요: " + entry.price()
+                    + ", 현재: " + souls.getSouls(entry.category()) + ")");
+            return;
+        }
+        metrics.redeemed(entry.category(), entry.price());
+        if (audit != null) {
+            audit.record(SoulAuditLog.Kind.SHOP, player.getUniqueId(), entry.category(), -entry.price(), souls.getSouls(entry.category()), null);
+        }
+        if (entry.item() != null) {
+            player.getInventory().addItem(entry.item().clone());
+        }
+        if (entry.effect() != null) {
+            player.addPotionEffect(entry.effect()); // PotionEffect는 바뀌지 않는 객체라 그대로 사용
+        }
+        player.sendMessage(ChatColor.GREEN + "[영혼] " + entry.price() + "의 " + entry.category().label() + " 영혼으로 "
+                + entry.name() + "을(를) 구매했습니다.");
+        view.inventory.setItem(SoulShop.INFO_SLOT, view.shop.balanceIcon(souls)); // 잔액 칸만 갱신
+    }
+
+    private void show(View view, int page, PlayerSouls souls) {
+        view.page = page;
+        view.inventory.setContents(view.shop.page(page));
+        view.inventory.setItem(SoulShop.INFO_SLOT, view.shop.balanceIcon(souls));
+    }
+
+    // 쿨다운이 지났으면 지금을 기록하고 true
+    private boolean acquire(UUID uuid) {
+        long now = System.nanoTime();
+        Long last = lastAction.get(uuid);
+        if (last != null && now - last < cooldownNanos) return false;
+        lastAction.put(uuid, now);
+        return true;
+    }
+}
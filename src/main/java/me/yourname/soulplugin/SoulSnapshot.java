@@ -0,0 +1,101 @@
+package me.yourname.soulplugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 특정 시점의 영혼 데이터를 복사해 둔 불변 스냅샷.
+ * 배열 복사만으로 빠르게 캡처하고, 직렬화와 파일 쓰기는 백그라운드 스레드에서 수행합니다.
+ * 직전 스냅샷 이후 변경된(dirty) 플레이어만 담으므로 저장 I/O는 전체 플레이어 수가 아니라 활동량에 비례합니다.
+ */
+final class SoulSnapshot {
+    static final int STRIDE = SoulCategory.COUNT;
+
+    private final UUID[] uuids;
+    private final long[] values; // uuids[i]의 카테고리 값은 values[i * STRIDE + SoulCategory.ordinal()]
+    private final int journalSeq; // 이 스냅샷에 반영된 마지막 저널 세그먼트 번호
+
+    private SoulSnapshot(UUID[] uuids, long[] values, int journalSeq) {
+        this.uuids = uuids;
+        this.values = values;
+        this.journalSeq = journalSeq;
+    }
+
+    /**
+     * 변경된 플레이어만 캡처합니다.
+     * SoulJournal.rotate() 직후에 호출해야 합니다. 다른 스레드가 동시에 값을 바꾸어도 되며,
+     * 플레이어별로 잠금을 잡고 복사하므로 한 플레이어의 값이 섞이지 않습니다.
+     * 캡처와 동시에 각 플레이어의 dirty 표시를 지웁니다.
+     */
+    static SoulSnapshot captureDirty(Map<UUID, PlayerSouls> source, int journalSeq) {
+        List<PlayerSouls> dirty = new ArrayList<>();
+        for (PlayerSouls souls : source.values()) {
+            if (souls.isDirty()) dirty.add(souls);
+        }
+        UUID[] uuids = new UUID[dirty.size()];
+        long[] values = new long[uuids.length * STRIDE];
+        for (int i = 0; i < uuids.length; i++) {
+            PlayerSouls souls = dirty.get(i);
+            uuids[i] = souls.owner();
+            souls.captureInto(values, i * STRIDE, journalSeq);
+        }
+        return new SoulSnapshot(uuids, values, journalSeq);
+    }
+
+    // 저장소 전체를 복사 (저장소 간 마이그레이션용)
+    static SoulSnapshot copyOf(SoulStorage storage) throws IOException {
+        List<UUID> uuidList = new ArrayList<>();
+        List<long[]> valueList = new ArrayList<>();
+        storage.loadAll((uuid, values) -> {
+            uuidList.add(uuid);
+            valueList.add(values);
+        });
+        long[] values = new long[uuidList.size() * STRIDE];
+        for (int i = 0; i < valueList.size(); i++) {
+            System.arraycopy(valueList.get(i), 0, values, i * STRIDE, STRIDE);
+        }
+        return new SoulSnapshot(uuidList.toArray(new UUID[0]), values, storage.journalSeq());
+    }
+
+    // 저장에 실패한 이전 스냅샷을 다음 스냅샷과 합침 (같은 플레이어는 newer 값이 우선)
+    static SoulSnapshot merge(SoulSnapshot older, SoulSnapshot newer) {
+        Map<UUID, long[]> merged = new LinkedHashMap<>();
+        for (int i = 0; i < older.size(); i++) merged.put(older.uuid(i), older.values(i));
+        for (int i = 0; i < newer.size(); i++) merged.put(newer.uuid(i), newer.values(i));
+        UUID[] uuids = new UUID[merged.size()];
+        long[] values = new long[uuids.length * STRIDE];
+        int i = 0;
+        for (Map.Entry<UUID, long[]> entry : merged.entrySet()) {
+            uuids[i] = entry.getKey();
+            System.arraycopy(entry.getValue(), 0, values, i * STRIDE, STRIDE);
+            i++;
+        }
+        return new SoulSnapshot(uuids, values, Math.max(older.journalSeq, newer.journalSeq));
+    }
+
+    int size() {
+        return uuids.length;
+    }
+
+    UUID uuid(int index) {
+        return uuids[index];
+    }
+
+    long value(int index, int categoryIndex) {
+        return values[index * STRIDE + categoryIndex];
+    }
+
+    // index번째 플레이어의 값 복사본
+    long[] values(int index) {
+        return Arrays.copyOfRange(values, index * STRIDE, (index + 1) * STRIDE);
+    }
+
+    int journalSeq() {
+        return journalSeq;
+    }
+}
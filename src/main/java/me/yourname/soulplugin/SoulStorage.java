@@ -0,0 +1,61 @@
+package me.yourname.soulplugin;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * 영혼 데이터 저장소 SPI.
+ * <p>
+ * 값 배열(long[])은 항상 {@link SoulCategory#ordinal()} 순서를 따릅니다.
+ * open/close를 제외한 메서드는 메인 스레드가 아닌 I/O 스레드에서 호출될 수 있으므로 구현체는 스레드 안전해야 합니다.
+ */
+interface SoulStorage {
+
+    // 로그 등에 표시할 저장소 이름
+    String name();
+
+    // 파일/연결 준비. 실패하면 플러그인을 사용할 수 없음
+    void open() throws IOException;
+
+    // 마지막으로 저장된 스냅샷에 반영된 저널 세그먼트 번호 (없으면 0)
+    int journalSeq() throws IOException;
+
+    // 저장된 플레이어 수
+    int count() throws IOException;
+
+    // 저장된 모든 플레이어를 consumer에 전달
+    void loadAll(BiConsumer<UUID, long[]> consumer) throws IOException;
+
+    // 플레이어 한 명의 값. 저장된 적이 없으면 null
+    long[] load(UUID uuid) throws IOException;
+
+    /**
+     * 여러 플레이어의 값을 한 번에 읽습니다. 저장된 적이 없는 플레이어는 결과에 없습니다.
+     * 기본 구현은 한 명씩 읽으므로, 한 명 읽는 비용이 큰 구현체는 한 번의 읽기/쿼리로 처리하도록 재정의합니다.
+     */
+    default Map<UUID, long[]> load(Collection<UUID> uuids) throws IOException {
+        Map<UUID, long[]> found = new HashMap<>();
+        for (UUID uuid : uuids) {
+            long[] values = load(uuid);
+            if (values != null) found.put(uuid, values);
+        }
+        return found;
+    }
+
+    /**
+     * 스냅샷에 포함된 플레이어들을 한 번에 저장(없으면 추가, 있으면 갱신)하고 스냅샷의 저널 번호를 기록합니다.
+     * 스냅샷에 없는 플레이어는 건드리지 않습니다.
+     */
+    void upsert(SoulSnapshot snapshot) throws IOException;
+
+    // 지금까지 파일에 기록한 바이트 수 (지표용). 알 수 없으면 0
+    default long bytesWritten() {
+        return 0;
+    }
+
+    void close();
+}
@@ -0,0 +1,258 @@
+package me.yourname.soulplugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 프록시(Velocity/BungeeCord) 뒤의 여러 백엔드 서버 사이에서 영혼 수치를 동기화합니다.
+ * <p>
+ * 로컬 변경은 플레이어별 분야 변경량으로 모아 두었다가 flush 주기마다 한 메시지로 묶어 보냅니다.
+ * 각 항목에는 변경량과 함께 변경 후 값, 플레이어별 버전 번호가 들어 있습니다.
+ * <ul>
+ *     <li>받은 버전이 내 버전보다 높고 내 쪽에 아직 보내지 않은 변경이 없으면 받은 값을 그대로 사용 (일반적인 경우: 플레이어가 한 서버에만 있음)</li>
+ *     <li>그렇지 않으면 두 서버에서 동시에 바뀐 것이므로 받은 변경량을 내 값에 더하고, 합친 값을 다시 보냄
+ *         (덧셈이라 순서와 관계없이 모든 서버가 같은 값으로 수렴)</li>
+ * </ul>
+ * 같은 묶음을 두 번 받아도 서버별 묶음 번호로 걸러내므로 중복 적용되지 않습니다.
+ * 아직 보내지 않은 변경이 있는 플레이어는 SoulCache에서 내보내지 않으므로, 보내기 전에 변경량이 버려지지 않습니다.
+ * <p>
+ * 메모리에 없는 플레이어의 변경을 받으면 비동기로 불러와 적용하고(이 서버의 저장소에도 기록됨), 불러오는 동안 받은 값은
+ * 캐시에 올라가는 순간 적용합니다. 서버 이동 시 접속 스레드는 기다리지 않으며, 이전 서버는 접속 종료 시 바로 flush합니다.
+ * 버전 번호는 메모리에만 있으며, 서버를 재시작하면 0부터 시작하여 다른 서버의 값을 받아들입니다.
+ */
+final class SoulSync implements SoulChangeListener {
+    private static final byte FORMAT = 1;
+    private static final int MAX_ENTRIES_PER_MESSAGE = 256; // 약 23KB (플러그인 메시지 한도 32KB 이하)
+
+    // 한 플레이어의 변경. deltas/values는 SoulCategory.ordinal() 순서
+    record Entry(UUID uuid, long version, long[] deltas, long[] values) {
+    }
+
+    record Batch(UUID origin, long seq, List<Entry> entries) {
+    }
+
+    // 메모리에 없는 플레이어에 대해 받은 최신 값
+    private record RemoteState(long version, long[] values) {
+    }
+
+    private final SyncTransport transport;
+    private final Executor asyncExecutor;
+    private final Executor mainExecutor;
+    private final Logger logger;
+    private final UUID serverId = UUID.randomUUID(); // 자기 메시지 구분용 (재시작마다 새로)
+
+    private final Map<UUID, long[]> pending = new ConcurrentHashMap<>(); // 보내지 않은 변경량 (해당 PlayerSouls 잠금 안에서 갱신)
+    private final Map<UUID, RemoteState> handoff = new ConcurrentHashMap<>(); // 불러오는 중인 플레이어
+    private final Map<UUID, Long> lastBatch = new ConcurrentHashMap<>(); // 보낸 서버 -> 마지막으로 적용한 묶음 번호 (receiveLock)
+    private final Object receiveLock = new Object();
+
+    private SoulCache cache;
+    private long batchSeq; // flush 전용 (this 잠금)
+    private volatile boolean started;
+
+    SoulSync(SyncTransport transport, Executor asyncExecutor, Executor mainExecutor, Logger logger) {
+        this.transport = transport;
+        this.asyncExecutor = asyncExecutor;
+        this.mainExecutor = mainExecutor;
+        this.logger = logger;
+    }
+
+    String transportName() {
+        return transport.name();
+    }
+
+    /**
+     * 저장소 로드와 저널 재생이 끝난 뒤 호출합니다. 이전의 변경(재생 등)은 보내지 않습니다.
+     */
+    void start(SoulCache cache) {
+        this.cache = cache;
+        cache.setInstallHook(this::installed);
+        cache.setPinned(pending::containsKey); // 보내기 전에 내보내지면 변경량을 보낼 때 쓸 값/버전이 없어짐
+        transport.start(this::receive);
+        started = true;
+    }
+
+    // 남은 변경을 보내고 종료
+    void close() {
+        flush();
+        started = false;
+        transport.close();
+    }
+
+    @Override
+    public void changed(UUID owner, SoulCategory category, long oldValue, long newValue, boolean remote) {
+        if (!started || remote) return; // 받은 값은 다시 보내지 않음
+        pending.computeIfAbsent(owner, k -> new long[SoulCategory.COUNT])[category.ordinal()] += newValue - oldValue;
+    }
+
+    /**
+     * 모인 변경을 묶어 보냅니다. 비동기 스레드에서 주기적으로, 그리고 플레이어가 나갈 때 바로 호출합니다.
+     */
+    synchronized void flush() {
+        if (!started || pending.isEmpty()) return;
+        List<Entry> entries = new ArrayList<>();
+        for (UUID uuid : pending.keySet()) {
+            PlayerSouls souls = cache.resident().get(uuid);
+            if (souls == null) { // pending이 있으면 내보내지 않으므로 캐시를 비운 경우(종료)뿐
+                pending.remove(uuid);
+                continue;
+            }
+            synchronized (souls) { // 변경량을 꺼내는 것과 값/버전을 읽는 것이 한 번에 (그 사이 변경이 끼어들지 않도록)
+                long[] deltas = pending.remove(uuid);
+                if (deltas == null) continue;
+                long[] values = new long[SoulCategory.COUNT];
+                for (SoulCategory category : SoulCategory.VALUES) {
+                    values[category.ordinal()] = souls.getSouls(category);
+                }
+                entries.add(new Entry(uuid, souls.nextSyncVersion(), deltas, values));
+            }
+            if (entries.size() == MAX_ENTRIES_PER_MESSAGE) {
+                transport.publish(encode(new Batch(serverId, ++batchSeq, entries)));
+                entries = new ArrayList<>();
+            }
+        }
+        if (!entries.isEmpty()) {
+            transport.publish(encode(new Batch(serverId, ++batchSeq, entries)));
+        }
+    }
+
+    // 전송 계층 스레드에서 호출
+    void receive(byte[] message) {
+        Batch batch;
+        try {
+            batch = decode(message);
+        } catch (IOException e) {
+            logger.warning("해석할 수 없는 동기화 메시지를 무시합니다: " + e.getMessage());
+            return;
+        }
+        if (batch == null || batch.origin().equals(serverId)) return; // 다른 형식 버전이거나 내가 보낸 메시지
+        synchronized (receiveLock) {
+            Long last = lastBatch.get(batch.origin());
+            if (last != null && batch.seq() <= last) return; // 이미 적용한 묶음
+            lastBatch.put(batch.origin(), batch.seq());
+            for (Entry entry : batch.entries()) {
+                apply(entry);
+            }
+        }
+    }
+
+    private void apply(Entry entry) {
+        boolean[] load = new boolean[1];
+        handoff.compute(entry.uuid(), (uuid, previous) -> {
+            PlayerSouls souls = cache.resident().get(uuid);
+            if (souls != null && merge(souls, entry)) return previous;
+            // 메모리에 없거나 방금 내보내짐: 다시 불러와서 installed()에서 적용
+            if (previous == null) {
+                load[0] = true;
+                return new RemoteState(entry.version(), entry.values());
+            }
+            return entry.version() > previous.version() ? new RemoteState(entry.version(), entry.values()) : previous;
+        });
+        if (!load[0]) return;
+        // 캐시에 올라가는 순간 installed()에서 적용됨 (그 사이 접속해서 먼저 올라가도 마찬가지)
+        cache.modifyAsync(entry.uuid(), souls -> null, asyncExecutor, mainExecutor).whenComplete((v, error) -> {
+            if (error != null) {
+                handoff.remove(entry.uuid());
+                logger.log(Level.WARNING, entry.uuid() + "의 영혼 데이터를 불러오지 못해 동기화 값을 적용하지 못했습니다.", error);
+            }
+        });
+    }
+
+    // 적용했으면 true. 그 사이 캐시에서 내보내졌으면 false (적용해도 저장되지 않으므로 다시 불러와야 함)
+    private boolean merge(PlayerSouls souls, Entry entry) {
+        synchronized (souls) {
+            if (souls.isEvicted()) return false;
+            boolean unsent = pending.containsKey(souls.owner());
+            if (!unsent && entry.version() > souls.syncVersion()) {
+                souls.applyRemote(entry.values(), entry.version()); // 더 최신 값 그대로 사용
+                return true;
+            }
+            // 동시에 변경됨: 받은 변경량을 더함 (내 변경량은 pending에 남아 있다가 나중에 보내짐)
+            long[] merged = new long[SoulCategory.COUNT];
+            boolean changed = false;
+            for (SoulCategory category : SoulCategory.VALUES) {
+                int i = category.ordinal();
+                long delta = entry.deltas()[i];
+                long sum = souls.getSouls(category) + delta;
+                merged[i] = delta > 0 && sum < 0 ? Long.MAX_VALUE : Math.max(sum, 0);
+                changed |= delta != 0;
+            }
+            souls.applyRemote(merged, entry.version());
+            if (changed) {
+                pending.computeIfAbsent(souls.owner(), k -> new long[SoulCategory.COUNT]); // 합친 값을 다른 서버에도 알림
+            }
+            return true;
+        }
+    }
+
+    // SoulCache에 플레이어가 올라간 직후 (접속, 비동기 로드)
+    private void installed(PlayerSouls souls) {
+        handoff.computeIfPresent(souls.owner(), (uuid, state) -> {
+            synchronized (souls) {
+                if (state.version() > souls.syncVersion()) souls.applyRemote(state.values(), state.version());
+            }
+            return null;
+        });
+    }
+
+    // ---- 메시지 형식: 형식 버전(byte) | 보낸 서버 UUID | 묶음 번호 | 분야 수(byte) | 항목 수 | 항목(UUID, 버전, 변경량[], 값[])... ----
+
+    static byte[] encode(Batch batch) {
+        int entrySize = 24 + 16 * SoulCategory.COUNT;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + batch.entries().size() * entrySize);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(batch.origin().getMostSignificantBits());
+            out.writeLong(batch.origin().getLeastSignificantBits());
+            out.writeLong(batch.seq());
+            out.writeByte(SoulCategory.COUNT);
+            out.writeInt(batch.entries().size());
+            for (Entry entry : batch.entries()) {
+                out.writeLong(entry.uuid().getMostSignificantBits());
+                out.writeLong(entry.uuid().getLeastSignificantBits());
+                out.writeLong(entry.version());
+                for (long delta : entry.deltas()) out.writeLong(delta);
+                for (long value : entry.values()) out.writeLong(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 메모리 스트림이라 발생하지 않음
+        }
+        return bytes.toByteArray();
+    }
+
+    // 형식 버전이 다르면 null (버전이 다른 플러그인끼리는 동기화하지 않음)
+    static Batch decode(byte[] message) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+        if (in.readByte() != FORMAT) return null;
+        UUID origin = new UUID(in.readLong(), in.readLong());
+        long seq = in.readLong();
+        int categories = in.readUnsignedByte();
+        int count = in.readInt();
+        if (categories != SoulCategory.COUNT || count < 0 || count > MAX_ENTRIES_PER_MESSAGE) {
+            throw new IOException("분야 수(" + categories + ") 또는 항목 수(" + count + ")가 맞지 않습니다.");
+        }
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            long version = in.readLong();
+            long[] deltas = new long[categories];
+            long[] values = new long[categories];
+            for (int c = 0; c < categories; c++) deltas[c] = in.readLong();
+            for (int c = 0; c < categories; c++) values[c] = in.readLong();
+            entries.add(new Entry(uuid, version, deltas, values));
+        }
+        return new Batch(origin, seq, entries);
+    }
+}
@@ -0,0 +1,268 @@
+package me.yourname.soulplugin;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * souls.yml 스트리밍 읽기/쓰기. (SnakeYAML 이벤트 API 사용, Paper에 포함되어 있음)
+ * <p>
+ * YamlConfiguration은 파일 전체를 MemorySection 트리로 만든 뒤 "players.&lt;UUID&gt;.&lt;분야&gt;" 경로 문자열로 값을 꺼내므로,
+ * 플레이어가 많으면 시작 시간과 힙 사용량이 크게 늘어납니다. 여기서는 파서 이벤트를 하나씩 받아
+ * 플레이어 한 명을 다 읽을 때마다 바로 long[]으로 넘기고, 쓸 때도 이벤트를 Writer로 곧장 내보냅니다.
+ * (파일 크기와 관계없이 추가 메모리는 일정)
+ * <p>
+ * 형식은 기존과 같습니다.
+ * <pre>
+ * journal-seq: 12
+ * players:
+ *   &lt;UUID&gt;:
+ *     광물: 10
+ *     농작물: 0
+ * </pre>
+ */
+final class SoulsYaml {
+    private static final String JOURNAL_SEQ = "journal-seq";
+    private static final String PLAYERS = "players";
+    private static final ImplicitTuple PLAIN = new ImplicitTuple(true, false);
+
+    private SoulsYaml() {
+    }
+
+    // 쓸 플레이어 목록. (Map::forEach, SoulStorage::loadAll)
+    interface RecordSource {
+        void forEach(BiConsumer<UUID, long[]> consumer) throws IOException;
+    }
+
+    /**
+     * 플레이어 한 명과 그 항목의 위치. start/end는 코드 포인트 단위이며, [start, end)만 떼어 readEntries로 읽을 수 있습니다.
+     * (YamlSoulStorage의 색인용)
+     */
+    interface EntryVisitor {
+        // false를 반환하면 읽기를 멈춤
+        boolean visit(UUID uuid, long[] values, int start, int end);
+    }
+
+    /**
+     * 파일을 읽으면서 플레이어마다 consumer를 호출합니다. 알 수 없는 키는 건너뜁니다.
+     * @return journal-seq 값 (없으면 0)
+     * @throws IOException 읽기 실패 또는 YAML 문법 오류
+     */
+    static int read(Reader reader, BiConsumer<UUID, long[]> consumer, Logger logger) throws IOException {
+        return read(reader, (uuid, values, start, end) -> {
+            consumer.accept(uuid, values);
+            return true;
+        }, logger);
+    }
+
+    /**
+     * read와 같지만 항목 위치도 함께 넘기고, visitor가 false를 반환하면 그 자리에서 멈춥니다.
+     * @return journal-seq 값 (없거나 players 뒤에 있는데 도중에 멈췄으면 0)
+     */
+    static int read(Reader reader, EntryVisitor visitor, Logger logger) throws IOException {
+        try {
+            Parser parser = parser(reader);
+            expect(parser, Event.ID.StreamStart);
+            if (parser.checkEvent(Event.ID.StreamEnd)) return 0; // 빈 파일
+            expect(parser, Event.ID.DocumentStart);
+            if (!parser.checkEvent(Event.ID.MappingStart)) {
+                skipNode(parser); // 내용이 없는 문서 등
+                return 0;
+            }
+            parser.getEvent();
+
+            int journalSeq = 0;
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                String key = scalarKey(parser);
+                if (JOURNAL_SEQ.equals(key) && parser.checkEvent(Event.ID.Scalar)) {
+                    String value = ((ScalarEvent) parser.getEvent()).getValue();
+                    try {
+                        journalSeq = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        logger.warning("souls.yml의 journal-seq '" + value + "'을(를) 해석할 수 없어 0으로 간주합니다.");
+                    }
+                } else if (PLAYERS.equals(key) && parser.checkEvent(Event.ID.MappingStart)) {
+                    parser.getEvent();
+                    if (!readPlayers(parser, visitor, logger)) break;
+                } else {
+                    skipNode(parser);
+                }
+            }
+            return journalSeq;
+        } catch (YAMLException e) {
+            throw new IOException("souls.yml 형식 오류: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * players 매핑의 일부만 떼어 낸 조각(&lt;UUID&gt;: {분야: 값} 항목 하나 이상)을 읽습니다.
+     * @throws IOException 읽기 실패 또는 YAML 문법 오류
+     */
+    static void readEntries(Reader reader, BiConsumer<UUID, long[]> consumer, Logger logger) throws IOException {
+        try {
+            Parser parser = parser(reader);
+            expect(parser, Event.ID.StreamStart);
+            expect(parser, Event.ID.DocumentStart);
+            expect(parser, Event.ID.MappingStart);
+            readPlayers(parser, (uuid, values, start, end) -> {
+                consumer.accept(uuid, values);
+                return true;
+            }, logger);
+        } catch (YAMLException e) {
+            throw new IOException("souls.yml 형식 오류: " + e.getMessage(), e);
+        }
+    }
+
+    private static Parser parser(Reader reader) {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE); // 기본값(3MB)보다 큰 souls.yml도 읽을 수 있도록 (YamlConfiguration과 동일)
+        return new ParserImpl(new StreamReader(reader), options);
+    }
+
+    // players 매핑 안쪽. MappingEnd까지 소비. visitor가 멈추면 false
+    private static boolean readPlayers(Parser parser, EntryVisitor visitor, Logger logger) {
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            int start = parser.peekEvent().getStartMark().getIndex();
+            String key = scalarKey(parser);
+            UUID uuid;
+            try {
+                uuid = key == null ? null : UUID.fromString(key);
+            } catch (IllegalArgumentException e) {
+                uuid = null;
+            }
+            if (uuid == null) {
+                logger.warning("잘못된 UUID 형식 '" + key + "'을(를) 스킵합니다.");
+                skipNode(parser);
+                continue;
+            }
+            if (!parser.checkEvent(Event.ID.MappingStart)) {
+                logger.warning(uuid + "의 영혼 데이터 형식이 잘못되어 스킵합니다.");
+                skipNode(parser);
+                continue;
+            }
+            parser.getEvent();
+            long[] values = new long[SoulCategory.COUNT];
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                SoulCategory category = SoulCategory.fromInput(scalarKey(parser));
+                if (category == null || !parser.checkEvent(Event.ID.Scalar)) {
+                    skipNode(parser); // 알 수 없는 분야
+                    continue;
+                }
+                String value = ((ScalarEvent) parser.getEvent()).getValue();
+                try {
+                    values[category.ordinal()] = Math.max(Long.parseLong(value), 0);
+                } catch (NumberFormatException e) {
+                    logger.warning(uuid + "의 " + category.label() + " 값 '" + value + "'을(를) 해석할 수 없어 0으로 간주합니다.");
+                }
+            }
+            int end = parser.getEvent().getEndMark().getIndex(); // 플레이어 MappingEnd
+            if (!visitor.visit(uuid, values, start, end)) return false;
+        }
+        parser.getEvent(); // players MappingEnd
+        return true;
+    }
+
+    // 매핑의 키를 읽음. 스칼라가 아니면 건너뛰고 null
+    private static String scalarKey(Parser parser) {
+        if (parser.checkEvent(Event.ID.Scalar)) {
+            return ((ScalarEvent) parser.getEvent()).getValue();
+        }
+        skipNode(parser);
+        return null;
+    }
+
+    // 값 하나(중첩된 매핑/시퀀스 전체 포함)를 건너뜀
+    private static void skipNode(Parser parser) {
+        int depth = 0;
+        do {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private static void expect(Parser parser, Event.ID id) {
+        Event event = parser.getEvent();
+        if (!event.is(id)) {
+            throw new YAMLException(id + " 대신 " + event.getEventId() + "이(가) 있습니다.");
+        }
+    }
+
+    /**
+     * records 전체를 기존 souls.yml 형식으로 씁니다. 플레이어 하나씩 바로 Writer로 내보내므로 문자열 전체를 만들지 않습니다.
+     * 호출하는 동안 records가 바뀌지 않아야 합니다.
+     * @return 쓴 플레이어 수
+     */
+    static int write(Writer writer, int journalSeq, RecordSource records) throws IOException {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setIndent(2);
+        options.setAllowUnicode(true); // 한글 분야 이름을 이스케이프하지 않음
+        Emitter emitter = new Emitter(writer, options);
+
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, false, null, Collections.emptyMap()));
+        emitter.emit(mappingStart());
+        emitter.emit(scalar(JOURNAL_SEQ));
+        emitter.emit(scalar(Integer.toString(journalSeq)));
+        emitter.emit(scalar(PLAYERS));
+        emitter.emit(mappingStart());
+        int[] count = new int[1];
+        try {
+            records.forEach((uuid, values) -> {
+                try {
+                    emitter.emit(scalar(uuid.toString()));
+                    emitter.emit(mappingStart());
+                    for (SoulCategory category : SoulCategory.VALUES) {
+                        emitter.emit(scalar(category.label()));
+                        emitter.emit(scalar(Long.toString(values[category.ordinal()])));
+                    }
+                    emitter.emit(new MappingEndEvent(null, null));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        emitter.emit(new MappingEndEvent(null, null));
+        emitter.emit(new MappingEndEvent(null, null));
+        emitter.emit(new DocumentEndEvent(null, null, false));
+        emitter.emit(new StreamEndEvent(null, null));
+        return count[0];
+    }
+
+    private static MappingStartEvent mappingStart() {
+        return new MappingStartEvent(null, null, true, null, null, DumperOptions.FlowStyle.BLOCK);
+    }
+
+    private static ScalarEvent scalar(String value) {
+        return new ScalarEvent(null, null, PLAIN, value, null, null, DumperOptions.ScalarStyle.PLAIN);
+    }
+}
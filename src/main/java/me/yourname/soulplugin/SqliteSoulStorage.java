@@ -0,0 +1,197 @@
+package me.yourname.soulplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * 내장 SQLite 저장소 (souls.db).
+ * <p>
+ * SQLite JDBC 드라이버는 Paper/Spigot 서버에 기본 포함되어 있어 별도 의존성이나 외부 DB 없이 동작합니다.
+ * upsert는 하나의 트랜잭션 안에서 배치 prepared statement로 처리하므로, 변경된 플레이어 수만큼만 I/O가 발생합니다.
+ */
+final class SqliteSoulStorage implements SoulStorage {
+    // SoulCategory.ordinal() 순서의 컬럼 이름 (mining, farming, assassination, hunting)
+    private static final List<String> COLUMNS = Arrays.stream(SoulCategory.VALUES).map(SoulCategory::key).toList();
+
+    private static final String UPSERT_SQL = "INSERT INTO souls (uuid, " + String.join(", ", COLUMNS) + ") VALUES (?"
+            + ", ?".repeat(COLUMNS.size()) + ") ON CONFLICT(uuid) DO UPDATE SET "
+            + String.join(", ", COLUMNS.stream().map(c -> c + " = excluded." + c).toList());
+    private static final String SELECT_COLUMNS = "SELECT uuid, " + String.join(", ", COLUMNS) + " FROM souls";
+    private static final int IN_CHUNK_SIZE = 500; // 한 쿼리의 IN (...) 매개변수 수 (SQLite 기본 제한 999 이하)
+
+    private final File file;
+    private final Logger logger;
+    private Connection connection;
+
+    SqliteSoulStorage(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "SQLite (" + file.getName() + ")";
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("플러그인 데이터 폴더 생성 실패: " + folder.getPath());
+        }
+        try {
+            connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                StringBuilder columns = new StringBuilder();
+                for (String column : COLUMNS) {
+                    columns.append(", ").append(column).append(" INTEGER NOT NULL DEFAULT 0");
+                }
+                statement.execute("CREATE TABLE IF NOT EXISTS souls (uuid TEXT PRIMARY KEY" + columns + ")");
+                statement.execute("CREATE TABLE IF NOT EXISTS soul_meta (name TEXT PRIMARY KEY, value INTEGER NOT NULL)");
+            }
+        } catch (SQLException e) {
+            throw new IOException("SQLite 저장소(" + file.getName() + ")를 열 수 없습니다.", e);
+        }
+    }
+
+    @Override
+    public synchronized int journalSeq() throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT value FROM soul_meta WHERE name = 'journal-seq'");
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new IOException("journal-seq 조회 실패", e);
+        }
+    }
+
+    @Override
+    public synchronized int count() throws IOException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM souls")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new IOException("플레이어 수 조회 실패", e);
+        }
+    }
+
+    @Override
+    public synchronized void loadAll(BiConsumer<UUID, long[]> consumer) throws IOException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_COLUMNS)) {
+            while (rs.next()) {
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(rs.getString(1));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("잘못된 UUID 형식 '" + rs.getString(1) + "'을(를) 스킵합니다.");
+                    continue;
+                }
+                consumer.accept(uuid, readValues(rs));
+            }
+        } catch (SQLException e) {
+            throw new IOException("영혼 데이터 전체 로드 실패", e);
+        }
+    }
+
+    @Override
+    public synchronized long[] load(UUID uuid) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_COLUMNS + " WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? readValues(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new IOException(uuid + " 영혼 데이터 로드 실패", e);
+        }
+    }
+
+    @Override
+    public synchronized Map<UUID, long[]> load(Collection<UUID> uuids) throws IOException {
+        List<UUID> list = new ArrayList<>(uuids);
+        Map<UUID, long[]> found = new HashMap<>();
+        try {
+            for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+                List<UUID> chunk = list.subList(from, Math.min(from + IN_CHUNK_SIZE, list.size()));
+                try (PreparedStatement statement = connection.prepareStatement(
+                        SELECT_COLUMNS + " WHERE uuid IN (?" + ", ?".repeat(chunk.size() - 1) + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setString(i + 1, chunk.get(i).toString());
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            found.put(UUID.fromString(rs.getString(1)), readValues(rs)); // uuid.toString()과 같은 문자열만 일치하므로 항상 올바른 형식
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(list.size() + "명의 영혼 데이터 로드 실패", e);
+        }
+        return found;
+    }
+
+    private static long[] readValues(ResultSet rs) throws SQLException {
+        long[] values = new long[COLUMNS.size()];
+        for (int c = 0; c < values.length; c++) {
+            values[c] = rs.getLong(c + 2);
+        }
+        return values;
+    }
+
+    @Override
+    public synchronized void upsert(SoulSnapshot snapshot) throws IOException {
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsert = connection.prepareStatement(UPSERT_SQL);
+                 PreparedStatement meta = connection.prepareStatement(
+                         "INSERT INTO soul_meta (name, value) VALUES ('journal-seq', ?) ON CONFLICT(name) DO UPDATE SET value = excluded.value")) {
+                for (int i = 0; i < snapshot.size(); i++) {
+                    upsert.setString(1, snapshot.uuid(i).toString());
+                    for (int c = 0; c < COLUMNS.size(); c++) {
+                        upsert.setLong(c + 2, snapshot.value(i, c));
+                    }
+                    upsert.addBatch();
+                }
+                upsert.executeBatch();
+                meta.setInt(1, snapshot.journalSeq());
+                meta.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("영혼 데이터 " + snapshot.size() + "명 저장 실패", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("SQLite 연결 종료 중 오류: " + e.getMessage());
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,23 @@
+package me.yourname.soulplugin;
+
+import java.util.function.Consumer;
+
+/**
+ * 서버 간 동기화 메시지 전송 계층. (SoulSync에서 사용)
+ * <p>
+ * 메시지는 불투명한 바이트 배열이며, 같은 서버가 보낸 메시지는 보낸 순서대로 전달된다고 가정합니다.
+ * 자기 자신이 보낸 메시지가 되돌아와도 SoulSync가 걸러냅니다.
+ */
+interface SyncTransport {
+
+    // 로그 등에 표시할 이름
+    String name();
+
+    // 수신 시작. receiver는 전송 계층의 스레드(메인 스레드일 수도 있음)에서 호출됨
+    void start(Consumer<byte[]> receiver);
+
+    // 다른 모든 서버로 전송. 여러 스레드에서 호출될 수 있음
+    void publish(byte[] message);
+
+    void close();
+}
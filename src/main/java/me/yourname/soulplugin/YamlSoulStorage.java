@@ -0,0 +1,347 @@
+package me.yourname.soulplugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * 기존 souls.yml 형식 저장소. (players.&lt;UUID&gt;.&lt;한글 분야 이름&gt;: 값)
+ * <p>
+ * YAML은 일부만 고쳐 쓸 수 없으므로 upsert 때마다 기존 souls.yml을 이벤트 단위로 읽으면서 스냅샷에 있는 플레이어만 바꿔 끼워
+ * 임시 파일에 쓰고, rename으로 교체합니다. (저장 도중 서버가 죽어도 souls.yml이 깨지지 않음)
+ * <p>
+ * 값은 메모리에 들고 있지 않고, 열 때와 upsert 때 플레이어마다 파일 안 위치(바이트 오프셋, 길이)만 색인에 담아 둡니다.
+ * (플레이어당 약 28바이트) load는 색인에서 위치를 찾아 그 항목만 읽으므로 파일 크기와 관계없이 빠르며,
+ * 여러 명을 읽을 때는 파일 순서대로 한 번에 읽습니다. loadAll은 여전히 파일 전체를 읽습니다.
+ * 서버가 켜져 있는 동안 souls.yml을 직접 고치면 색인과 맞지 않게 되므로, 고친 내용은 무시되고 다음 저장 때 덮어쓰입니다.
+ */
+final class YamlSoulStorage implements SoulStorage {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+    private final Logger logger;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock(); // 파일 교체와 색인 교체가 load 사이에 한 번에 일어나도록
+    private volatile Index index = new Index(0);
+    private volatile int journalSeq;
+    private volatile int count;
+    private volatile long bytesWritten; // upsert(synchronized)에서만 증가
+
+    /**
+     * UUID -> souls.yml 안 항목의 위치. 열린 주소법(선형 탐사), 빈 칸은 length가 0.
+     * 만든 뒤에는 바꾸지 않고, 파일이 바뀌면 새로 만들어 통째로 교체합니다.
+     */
+    private static final class Index {
+        private final long[] msb;
+        private final long[] lsb;
+        private final long[] offsets;
+        private final int[] lengths;
+        private final int mask;
+        private int size;
+
+        Index(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected + expected / 2, 1)) << 1; // 채움 비율 2/3 이하
+            msb = new long[capacity];
+            lsb = new long[capacity];
+            offsets = new long[capacity];
+            lengths = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        // 같은 UUID가 두 번 나오면 뒤의 항목으로 (파일 전체를 읽을 때 마지막 값이 남는 것과 같게)
+        void put(long m, long l, long offset, int length) {
+            int slot = slot(m, l);
+            if (lengths[slot] == 0) size++;
+            msb[slot] = m;
+            lsb[slot] = l;
+            offsets[slot] = offset;
+            lengths[slot] = length;
+        }
+
+        // 있으면 그 칸, 없으면 넣을 빈 칸
+        int slot(long m, long l) {
+            int slot = (int) (m ^ l ^ (m >>> 32) ^ (l >>> 32)) * 0x9E3779B9 & mask;
+            while (lengths[slot] != 0 && (msb[slot] != m || lsb[slot] != l)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    YamlSoulStorage(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "YAML (" + file.getName() + ")";
+    }
+
+    @Override
+    public void open() throws IOException {
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("플러그인 데이터 폴더 생성 실패: " + folder.getPath());
+        }
+        if (!file.exists()) {
+            if (!file.createNewFile()) {
+                logger.warning(file.getName() + " 파일 생성 실패 (이미 존재하거나 권한 문제).");
+            }
+            return;
+        }
+
+        int[] seq = new int[1];
+        reindex(seq);
+        journalSeq = seq[0];
+    }
+
+    // 파일 전체를 스트리밍으로 읽음. upsert는 새 파일을 rename으로 바꿔 넣으므로 저장 중에 읽어도 이전/새 파일 중 하나를 온전히 읽음
+    private int read(BiConsumer<UUID, long[]> consumer) throws IOException {
+        if (!file.isFile()) return 0;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return SoulsYaml.read(reader, consumer, logger);
+        }
+    }
+
+    @Override
+    public int journalSeq() {
+        return journalSeq;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void loadAll(BiConsumer<UUID, long[]> consumer) throws IOException {
+        read(consumer);
+    }
+
+    @Override
+    public long[] load(UUID uuid) throws IOException {
+        return load(List.of(uuid)).get(uuid);
+    }
+
+    // 색인에서 찾은 항목만 파일 순서대로 읽음. 색인이 파일과 맞지 않으면 (직접 고친 경우 등) 색인을 다시 만들고 한 번 더 시도
+    @Override
+    public Map<UUID, long[]> load(Collection<UUID> uuids) throws IOException {
+        Map<UUID, long[]> found = new HashMap<>();
+        if (readIndexed(uuids, found)) return found;
+        logger.warning(file.getName() + "의 내용이 색인과 달라 색인을 다시 만듭니다. (서버가 켜져 있는 동안 파일을 고쳤나요?)");
+        reindex(new int[1]);
+        found.clear();
+        if (!readIndexed(uuids, found)) {
+            throw new IOException(file.getName() + "의 내용이 색인과 맞지 않습니다.");
+        }
+        return found;
+    }
+
+    // 색인과 파일이 맞지 않으면 false
+    private boolean readIndexed(Collection<UUID> uuids, Map<UUID, long[]> found) throws IOException {
+        swapLock.readLock().lock();
+        try {
+            Index current = index;
+            List<Integer> slots = new ArrayList<>(uuids.size());
+            for (UUID uuid : uuids) {
+                int slot = current.slot(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+                if (current.lengths[slot] != 0) slots.add(slot);
+            }
+            if (slots.isEmpty()) return true;
+            slots.sort(Comparator.comparingLong(slot -> current.offsets[slot])); // 파일 앞에서부터 차례로 읽도록
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(256);
+                for (int slot : slots) {
+                    int length = current.lengths[slot];
+                    if (buffer.capacity() < length) buffer = ByteBuffer.allocate(length);
+                    buffer.clear().limit(length);
+                    long position = current.offsets[slot];
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, position + buffer.position()) < 0) return false; // 파일이 짧아짐
+                    }
+                    UUID expected = new UUID(current.msb[slot], current.lsb[slot]);
+                    long[][] values = new long[1][];
+                    try {
+                        SoulsYaml.readEntries(new StringReader(new String(buffer.array(), 0, length, StandardCharsets.UTF_8)),
+                                (uuid, read) -> {
+                                    if (uuid.equals(expected)) values[0] = read;
+                                }, logger);
+                    } catch (IOException e) {
+                        return false; // 항목 경계가 어긋남
+                    }
+                    if (values[0] == null) return false;
+                    found.put(expected, values[0]);
+                }
+            }
+            return true;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // 파일 전체를 다시 읽어 색인을 교체. upsert와 겹치지 않도록 같은 잠금(synchronized)에서
+    private synchronized void reindex(int[] journalSeq) throws IOException {
+        Index built = buildIndex(file.toPath(), journalSeq);
+        swapLock.writeLock().lock();
+        try {
+            index = built;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        count = built.size;
+    }
+
+    /**
+     * path를 한 번 읽어 색인을 만듭니다. 파서가 알려 주는 위치는 코드 포인트 단위이므로,
+     * 바이트를 한 번 더 훑으면서 (UTF-8에서 10xxxxxx가 아닌 바이트마다 코드 포인트 하나) 바이트 위치로 바꿉니다.
+     */
+    private Index buildIndex(Path path, int[] journalSeq) throws IOException {
+        if (!Files.isRegularFile(path)) return new Index(0);
+        long[][] uuids = {new long[256]}; // 상위, 하위 번갈아
+        int[][] marks = {new int[256]}; // 시작, 끝 번갈아 (파일 순서이므로 오름차순)
+        int[] entries = new int[1];
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            journalSeq[0] = SoulsYaml.read(reader, (uuid, values, start, end) -> {
+                int n = entries[0]++;
+                if (2 * n + 2 > marks[0].length) {
+                    uuids[0] = Arrays.copyOf(uuids[0], uuids[0].length * 2);
+                    marks[0] = Arrays.copyOf(marks[0], marks[0].length * 2);
+                }
+                uuids[0][2 * n] = uuid.getMostSignificantBits();
+                uuids[0][2 * n + 1] = uuid.getLeastSignificantBits();
+                marks[0][2 * n] = start;
+                marks[0][2 * n + 1] = end;
+                return true;
+            }, logger);
+        }
+
+        int[] codePoints = marks[0];
+        long[] bytes = new long[2 * entries[0]];
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), WRITE_BUFFER_SIZE)) {
+            long position = 0;
+            int codePoint = 0;
+            int next = 0;
+            int b;
+            while (next < bytes.length && (b = in.read()) >= 0) {
+                if ((b & 0xC0) != 0x80) { // codePoint번째 코드 포인트의 첫 바이트
+                    while (next < bytes.length && codePoints[next] <= codePoint) bytes[next++] = position;
+                    codePoint++;
+                }
+                position++;
+            }
+            while (next < bytes.length) bytes[next++] = position; // 파일 끝
+        }
+
+        Index built = new Index(entries[0]);
+        for (int i = 0; i < entries[0]; i++) {
+            built.put(uuids[0][2 * i], uuids[0][2 * i + 1], bytes[2 * i], (int) (bytes[2 * i + 1] - bytes[2 * i]));
+        }
+        return built;
+    }
+
+    @Override
+    public synchronized void upsert(SoulSnapshot snapshot) throws IOException {
+        Map<UUID, long[]> dirty = new LinkedHashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            dirty.put(snapshot.uuid(i), snapshot.values(i));
+        }
+        // 기존 플레이어는 파일 순서대로 (바뀐 플레이어는 새 값으로), 처음 저장하는 플레이어는 끝에 추가
+        count = write(snapshot.journalSeq(), consumer -> {
+            read((uuid, values) -> {
+                long[] updated = dirty.remove(uuid);
+                consumer.accept(uuid, updated != null ? updated : values);
+            });
+            dirty.forEach(consumer);
+        });
+        journalSeq = snapshot.journalSeq();
+    }
+
+    // 임시 파일에 쓰고 그 파일의 색인을 만든 뒤 souls.yml과 바꿈. records는 기존 souls.yml을 읽으면서 넘겨주므로 rename은 다 쓴 뒤에
+    private int write(int seq, SoulsYaml.RecordSource records) throws IOException {
+        Path targetPath = file.toPath();
+        Path tempPath = targetPath.resolveSibling(file.getName() + ".tmp");
+        int written;
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            written = SoulsYaml.write(writer, seq, records);
+            writer.flush();
+            channel.force(true);
+            bytesWritten += channel.size();
+        }
+        Index built = buildIndex(tempPath, new int[1]);
+        swapLock.writeLock().lock();
+        try {
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            index = built;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        return written;
+    }
+
+    /**
+     * souls.yml의 데이터를 target으로 한 번 옮기고 souls.yml.migrated로 이름을 바꿉니다. (sqlite/binary로 처음 전환할 때)
+     * target에 이미 데이터가 있으면 아무것도 하지 않습니다.
+     * @return 옮긴 플레이어 수. 건너뛰었으면 -1
+     */
+    static int migrate(File yamlFile, SoulStorage target, Logger logger) throws IOException {
+        if (target.count() > 0) {
+            logger.warning(target.name() + "에 이미 데이터가 있어 souls.yml 마이그레이션을 건너뜁니다.");
+            return -1;
+        }
+        YamlSoulStorage source = new YamlSoulStorage(yamlFile, logger);
+        source.open();
+        SoulSnapshot all = SoulSnapshot.copyOf(source);
+        source.close();
+        target.upsert(all);
+
+        File migrated = new File(yamlFile.getParentFile(), yamlFile.getName() + ".migrated");
+        if (!yamlFile.renameTo(migrated)) {
+            logger.warning("souls.yml 이름 변경 실패. 다음 시작 시 데이터가 있으므로 다시 가져오지는 않습니다.");
+        }
+        logger.info("souls.yml에서 " + all.size() + "명의 영혼 데이터를 " + target.name() + "(으)로 옮겼습니다.");
+        return all.size();
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() {
+        // 열어 둔 파일/메모리 데이터 없음
+    }
+}
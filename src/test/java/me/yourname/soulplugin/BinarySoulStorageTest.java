@@ -0,0 +1,11 @@
+package me.yourname.soulplugin;
+
+import java.io.File;
+
+class BinarySoulStorageTest extends SoulStorageContractTest {
+
+    @Override
+    SoulStorage create(File dir) {
+        return new BinarySoulStorage(new File(dir, "souls"), LOGGER);
+    }
+}
@@ -0,0 +1,204 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoulBulkOperationTest {
+    private static final Logger LOGGER = Logger.getLogger("SoulBulkOperationTest");
+    private static final SoulCategory[] MINING = {SoulCategory.MINING};
+
+    @TempDir
+    File dir;
+
+    private final List<String> messages = new ArrayList<>();
+    private FailingStorage storage;
+    private SoulCache cache;
+    private SoulBulkOperation bulk;
+
+    // 지정한 플레이어를 읽을 때 실패하는 저장소 (작업 도중 실패 재현). 한 명씩 읽은 횟수도 셈
+    private static final class FailingStorage implements SoulStorage {
+        private final SoulStorage inner;
+        final AtomicInteger loads = new AtomicInteger();
+        volatile UUID poisoned;
+
+        FailingStorage(SoulStorage inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public String name() {
+            return "failing";
+        }
+
+        @Override
+        public void open() throws IOException {
+            inner.open();
+        }
+
+        @Override
+        public int journalSeq() throws IOException {
+            return inner.journalSeq();
+        }
+
+        @Override
+        public int count() throws IOException {
+            return inner.count();
+        }
+
+        @Override
+        public void loadAll(BiConsumer<UUID, long[]> consumer) throws IOException {
+            inner.loadAll(consumer);
+        }
+
+        @Override
+        public long[] load(UUID uuid) throws IOException {
+            if (uuid.equals(poisoned)) throw new IOException(uuid + " 읽기 중 디스크 오류");
+            loads.incrementAndGet();
+            return inner.load(uuid);
+        }
+
+        @Override
+        public void upsert(SoulSnapshot snapshot) throws IOException {
+            inner.upsert(snapshot);
+        }
+
+        @Override
+        public void close() {
+            inner.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FailingStorage(new BinarySoulStorage(new File(dir, "souls"), LOGGER));
+        storage.open();
+        cache = new SoulCache(storage, null, null, Integer.MAX_VALUE, Long.MAX_VALUE);
+        bulk = new SoulBulkOperation(cache, storage, Runnable::run, Runnable::run, dir, LOGGER, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    private File undoFile() {
+        return new File(dir, "bulk-undo.txt");
+    }
+
+    private List<UUID> players(int count, long mining) throws IOException {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID uuid = UUID.randomUUID();
+            cache.loadBlocking(uuid, false).setSoul(SoulCategory.MINING, mining);
+            uuids.add(uuid);
+        }
+        return uuids;
+    }
+
+    private SoulBulkOperation.Result run(SoulBulkOperation.Op op, List<UUID> targets, long value) {
+        return bulk.run(op, CompletableFuture.completedFuture(SoulBulkOperation.Targets.of(targets)), MINING, value, false, null,
+                messages::add).join();
+    }
+
+    private long mining(UUID uuid) {
+        return cache.get(uuid).getSouls(SoulCategory.MINING);
+    }
+
+    @Test
+    void undoRestoresPreviousValues() throws IOException {
+        List<UUID> uuids = players(3, 10);
+        assertEquals(3, run(SoulBulkOperation.Op.ADD, uuids, 5).changed());
+        uuids.forEach(uuid -> assertEquals(15, mining(uuid)));
+
+        assertEquals(3, bulk.undo(false, null, messages::add).join().changed());
+        uuids.forEach(uuid -> assertEquals(10, mining(uuid)));
+        assertFalse(undoFile().exists()); // 두 번 되돌리지 않음
+    }
+
+    @Test
+    void replacesStaleUndoFile() throws IOException {
+        UUID stale = UUID.randomUUID();
+        Files.writeString(undoFile().toPath(), "# 이전 작업\ncategories: 광물\n" + stale + " 99\n", StandardCharsets.UTF_8);
+        List<UUID> uuids = players(1, 0);
+
+        assertEquals(0, run(SoulBulkOperation.Op.RESET, uuids, 0).changed()); // 바뀐 플레이어가 없어도
+
+        String undo = Files.readString(undoFile().toPath(), StandardCharsets.UTF_8);
+        assertFalse(undo.contains(stale.toString()), undo);
+        assertTrue(undo.startsWith("# 초기화"), undo);
+    }
+
+    @Test
+    void failedJobCanBeUndone() throws IOException {
+        List<UUID> uuids = players(SoulBulkOperation.BATCH_SIZE, 7);
+        UUID poisoned = UUID.randomUUID(); // 두 번째 묶음에서 실패
+        storage.poisoned = poisoned;
+        List<UUID> targets = new ArrayList<>(uuids);
+        targets.add(poisoned);
+
+        CompletionException error = assertThrows(CompletionException.class, () -> run(SoulBulkOperation.Op.SET, targets, 1));
+        assertTrue(SoulBulkOperation.describe(error).contains(poisoned.toString()), SoulBulkOperation.describe(error));
+        uuids.forEach(uuid -> assertEquals(1, mining(uuid))); // 첫 묶음은 적용됨
+        assertTrue(messages.stream().anyMatch(message -> message.contains("/souls bulk undo")), messages.toString());
+
+        storage.poisoned = null;
+        assertEquals(uuids.size(), bulk.undo(false, null, messages::add).join().changed());
+        uuids.forEach(uuid -> assertEquals(7, mining(uuid)));
+    }
+
+    @Test
+    void undoKeepsLaterChanges() throws IOException {
+        List<UUID> uuids = players(2, 10);
+        run(SoulBulkOperation.Op.ADD, uuids, 5);
+        cache.get(uuids.get(1)).addSoul(SoulCategory.MINING, 3); // 작업 뒤에 얻은 영혼
+
+        SoulBulkOperation.Result preview = bulk.undo(true, null, messages::add).join();
+        assertEquals(1, preview.changed());
+        assertEquals(1, preview.skipped());
+        assertEquals(15, mining(uuids.get(0))); // 미리 보기는 바꾸지 않음
+
+        SoulBulkOperation.Result result = bulk.undo(false, null, messages::add).join();
+        assertEquals(1, result.changed());
+        assertEquals(1, result.skipped());
+        assertEquals(10, mining(uuids.get(0)));
+        assertEquals(18, mining(uuids.get(1)));
+    }
+
+    @Test
+    void allTargetsReuseStreamedValues() throws IOException {
+        Map<UUID, long[]> stored = new LinkedHashMap<>();
+        for (int i = 0; i < SoulBulkOperation.BATCH_SIZE + 10; i++) {
+            stored.put(UUID.randomUUID(), SoulStorageContractTest.values(i, 0));
+        }
+        storage.upsert(SoulStorageContractTest.snapshot(1, stored));
+
+        SoulBulkOperation.Result preview = bulk.run(SoulBulkOperation.Op.ADD, bulk.resolve("all", null), MINING, 2, true, null,
+                messages::add).join();
+        assertEquals(stored.size(), preview.targets());
+        assertEquals(2L * stored.size(), preview.deltas()[SoulCategory.MINING.ordinal()]);
+        assertTrue(cache.resident().isEmpty()); // 미리 보기는 캐시에 올리지 않음
+
+        bulk.run(SoulBulkOperation.Op.ADD, bulk.resolve("all", null), MINING, 2, false, null, messages::add).join();
+        stored.forEach((uuid, values) -> assertEquals(values[0] + 2, mining(uuid)));
+        assertEquals(0, storage.loads.get()); // 목록을 만들며 읽은 값을 사용하므로 다시 읽지 않음
+    }
+}
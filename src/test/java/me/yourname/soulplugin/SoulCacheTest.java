@@ -0,0 +1,141 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static me.yourname.soulplugin.SoulStorageContractTest.snapshot;
+import static me.yourname.soulplugin.SoulStorageContractTest.values;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoulCacheTest {
+    private static final Logger LOGGER = Logger.getLogger("SoulCacheTest");
+
+    @TempDir
+    File dir;
+
+    private SoulStorage storage;
+    private SoulCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new BinarySoulStorage(dir, LOGGER);
+        storage.open();
+        cache = new SoulCache(storage, null, null, 0, 0); // 오프라인 플레이어는 저장되는 즉시 내보냄
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    void keepsUnsavedPlayers() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        PlayerSouls souls = cache.loadBlocking(uuid, false);
+        souls.addSoul(SoulCategory.MINING, 3);
+
+        assertEquals(1, cache.evictIdle(0));
+        assertSame(souls, cache.get(uuid));
+
+        SoulSnapshot snapshot = SoulSnapshot.captureDirty(cache.resident(), 1);
+        storage.upsert(snapshot);
+        assertEquals(0, cache.evictIdle(1));
+        assertNull(cache.get(uuid));
+        assertArrayEquals(values(3, 0), storage.load(uuid));
+    }
+
+    @Test
+    void marksEvictedPlayers() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        storage.upsert(snapshot(0, Map.of(uuid, values(5, 0))));
+        PlayerSouls souls = cache.loadBlocking(uuid, false);
+
+        assertEquals(0, cache.evictIdle(0));
+        assertNull(cache.get(uuid));
+        synchronized (souls) {
+            assertTrue(souls.isEvicted()); // 이 객체를 들고 있던 쪽은 다시 불러와야 함
+        }
+        assertEquals(0, cache.offlineSize());
+    }
+
+    @Test
+    void keepsOnlinePlayers() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        PlayerSouls souls = cache.loadBlocking(uuid, true);
+
+        assertEquals(0, cache.evictIdle(0));
+        assertSame(souls, cache.get(uuid));
+        synchronized (souls) {
+            assertFalse(souls.isEvicted());
+        }
+    }
+
+    // 캐시에 있던 플레이어가 저장된 뒤 변경 작업이 메인 스레드에 닿기 전에 내보내짐
+    @Test
+    void modifyReloadsPlayerEvictedBeforeMainStage() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        cache.loadBlocking(uuid, false).setSoul(SoulCategory.MINING, 8);
+        storage.upsert(SoulSnapshot.captureDirty(cache.resident(), 1));
+        List<Runnable> main = new ArrayList<>();
+
+        CompletableFuture<PlayerSouls> modified = cache.modifyAsync(uuid, souls -> {
+            souls.addSoul(SoulCategory.MINING, 1);
+            return souls;
+        }, Runnable::run, main::add);
+        assertEquals(0, cache.evictIdle(1));
+        assertNull(cache.get(uuid));
+        while (!main.isEmpty()) main.remove(0).run();
+
+        PlayerSouls souls = modified.join();
+        assertSame(souls, cache.get(uuid)); // 내보낸 객체가 아니라 다시 올린 객체를 바꿈
+        assertEquals(9, souls.getSouls(SoulCategory.MINING));
+        assertEquals(1, cache.evictIdle(1)); // 저장 전이므로 내보내지 않음
+    }
+
+    // 저장소에서 읽은 뒤 메인 스레드에 닿기 전에 다른 경로로 올라와 바뀌고, 저장된 다음 내보내짐
+    @Test
+    void modifyRereadsPlayerChangedWhileReading() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        storage.upsert(snapshot(0, Map.of(uuid, values(5, 0))));
+        List<Runnable> main = new ArrayList<>();
+
+        CompletableFuture<Long> modified = cache.modifyAsync(uuid, souls -> souls.getSouls(SoulCategory.MINING), Runnable::run, main::add);
+        cache.loadBlocking(uuid, false).setSoul(SoulCategory.MINING, 9);
+        storage.upsert(SoulSnapshot.captureDirty(cache.resident(), 1));
+        assertEquals(0, cache.evictIdle(1));
+        while (!main.isEmpty()) main.remove(0).run();
+
+        long mining = modified.join();
+        assertEquals(9, mining); // 먼저 읽은 5가 아니라 저장소의 최신 값
+    }
+
+    @Test
+    void ignoresPrefetchedValuesOfEvictedPlayers() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        storage.upsert(snapshot(0, Map.of(uuid, values(5, 0))));
+        try (SoulCache.Prefetch prefetch = cache.prefetch()) {
+            prefetch.put(uuid, storage.load(uuid));
+            // 미리 읽은 뒤 값이 바뀌고 저장된 다음 내보내짐
+            cache.loadBlocking(uuid, false).setSoul(SoulCategory.MINING, 9);
+            storage.upsert(SoulSnapshot.captureDirty(cache.resident(), 1));
+            assertEquals(0, cache.evictIdle(1));
+
+            assertNull(prefetch.get(uuid));
+            assertArrayEquals(values(9, 0), cache.peekAll(List.of(uuid), prefetch).get(uuid));
+            long mining = cache.modifyAllAsync(List.of(uuid), prefetch, list -> list.get(0).getSouls(SoulCategory.MINING),
+                    Runnable::run, Runnable::run).join();
+            assertEquals(9, mining);
+        }
+    }
+}
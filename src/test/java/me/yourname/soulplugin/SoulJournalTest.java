@@ -0,0 +1,136 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoulJournalTest {
+    private static final Logger LOGGER = Logger.getLogger("SoulJournalTest");
+
+    @TempDir
+    File dir;
+
+    private final Map<UUID, PlayerSouls> restored = new HashMap<>();
+
+    private int replay(int snapshotSeq) {
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        int applied = journal.replay(snapshotSeq, uuid -> restored.computeIfAbsent(uuid, id -> new PlayerSouls(id, null)));
+        journal.open(snapshotSeq);
+        journal.close();
+        return applied;
+    }
+
+    @Test
+    void replaysFlushedChangesAfterCrash() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        journal.open(0);
+        PlayerSouls pa = new PlayerSouls(a, journal);
+        PlayerSouls pb = new PlayerSouls(b, journal);
+        pa.addSoul(SoulCategory.MINING, 10);
+        pa.addSoul(SoulCategory.MINING, 5);
+        pb.setSoul(SoulCategory.HUNTING, 42);
+        assertTrue(pb.tryRedeem(SoulCategory.HUNTING, 2));
+        journal.flush();
+        // 크래시: close도, 스냅샷 저장도 없이 종료
+
+        assertEquals(4, replay(0));
+        assertEquals(15, restored.get(a).getSouls(SoulCategory.MINING));
+        assertEquals(40, restored.get(b).getSouls(SoulCategory.HUNTING));
+    }
+
+    @Test
+    void listsPlayersToPreload() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        journal.open(0);
+        new PlayerSouls(a, journal).addSoul(SoulCategory.MINING, 1);
+        journal.rotate();
+        new PlayerSouls(b, journal).addSoul(SoulCategory.FARMING, 2);
+        new PlayerSouls(a, journal).addSoul(SoulCategory.FARMING, 3);
+        journal.close();
+
+        assertEquals(List.of(a, b), List.copyOf(new SoulJournal(dir, LOGGER).players(0)));
+        assertEquals(List.of(b, a), List.copyOf(new SoulJournal(dir, LOGGER).players(1))); // 스냅샷에 포함된 세그먼트는 제외
+    }
+
+    @Test
+    void unflushedChangesAreLost() {
+        UUID a = UUID.randomUUID();
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        journal.open(0);
+        PlayerSouls pa = new PlayerSouls(a, journal);
+        pa.addSoul(SoulCategory.MINING, 3);
+        journal.flush();
+        pa.addSoul(SoulCategory.MINING, 4); // flush 전에 크래시
+
+        assertEquals(1, replay(0));
+        assertEquals(3, restored.get(a).getSouls(SoulCategory.MINING));
+    }
+
+    @Test
+    void skipsTruncatedLastLine() throws IOException {
+        UUID a = UUID.randomUUID();
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        journal.open(0);
+        new PlayerSouls(a, journal).addSoul(SoulCategory.FARMING, 7);
+        journal.flush();
+        // 기록 도중 크래시로 마지막 줄이 잘림
+        Files.writeString(new File(dir, "souls-1.journal").toPath(), "ADD " + a + " FARM",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(1, replay(0));
+        assertEquals(7, restored.get(a).getSouls(SoulCategory.FARMING));
+    }
+
+    @Test
+    void skipsSegmentsIncludedInSnapshot() {
+        UUID a = UUID.randomUUID();
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        journal.open(0);
+        PlayerSouls pa = new PlayerSouls(a, journal);
+        pa.addSoul(SoulCategory.MINING, 1);
+        int snapshotSeq = journal.rotate(); // 여기까지 스냅샷에 포함되었지만 컴팩션 전에 크래시
+        pa.addSoul(SoulCategory.MINING, 2);
+        journal.flush();
+
+        assertEquals(1, replay(snapshotSeq));
+        assertEquals(3, restored.get(a).getSouls(SoulCategory.MINING)); // 변경 후 값을 기록하므로 3
+    }
+
+    @Test
+    void newSegmentsStartAfterExistingOnes() {
+        UUID a = UUID.randomUUID();
+        SoulJournal journal = new SoulJournal(dir, LOGGER);
+        journal.open(0);
+        new PlayerSouls(a, journal).addSoul(SoulCategory.MINING, 1);
+        journal.flush();
+
+        // 재시작 후 재생 -> 새 기록은 다음 세그먼트로
+        SoulJournal restarted = new SoulJournal(dir, LOGGER);
+        restarted.replay(0, uuid -> restored.computeIfAbsent(uuid, id -> new PlayerSouls(id, null)));
+        restarted.open(0);
+        new PlayerSouls(a, restarted).setSoul(SoulCategory.MINING, 9);
+        restarted.close();
+
+        assertTrue(new File(dir, "souls-1.journal").exists());
+        assertTrue(new File(dir, "souls-2.journal").exists());
+        restored.clear();
+        assertEquals(2, replay(0));
+        assertEquals(9, restored.get(a).getSouls(SoulCategory.MINING));
+    }
+}
@@ -0,0 +1,152 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 모든 SoulStorage 구현이 지켜야 하는 동작. 구현별 테스트는 create만 정의합니다.
+ */
+abstract class SoulStorageContractTest {
+    static final Logger LOGGER = Logger.getLogger("SoulStorageTest");
+
+    @TempDir
+    File dir;
+
+    SoulStorage storage;
+
+    // dir 안에 저장소를 만듭니다. (같은 dir로 다시 부르면 같은 데이터를 열어야 함)
+    abstract SoulStorage create(File dir);
+
+    @BeforeEach
+    void openStorage() throws IOException {
+        storage = create(dir);
+        storage.open();
+    }
+
+    @AfterEach
+    void closeStorage() {
+        storage.close();
+    }
+
+    @Test
+    void emptyStorage() throws IOException {
+        assertEquals(0, storage.count());
+        assertEquals(0, storage.journalSeq());
+        assertNull(storage.load(UUID.randomUUID()));
+        assertTrue(loadAll(storage).isEmpty());
+    }
+
+    @Test
+    void upsertThenLoad() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        storage.upsert(snapshot(3, Map.of(a, values(1, 2), b, values(30, 40))));
+
+        assertEquals(2, storage.count());
+        assertEquals(3, storage.journalSeq());
+        assertArrayEquals(values(1, 2), storage.load(a));
+        assertArrayEquals(values(30, 40), storage.load(b));
+    }
+
+    @Test
+    void upsertUpdatesOnlySnapshotPlayers() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        storage.upsert(snapshot(1, Map.of(a, values(1, 1), b, values(2, 2))));
+        storage.upsert(snapshot(2, Map.of(b, values(20, 0), c, values(0, 7))));
+
+        Map<UUID, long[]> all = loadAll(storage);
+        assertEquals(3, all.size());
+        assertEquals(3, storage.count());
+        assertArrayEquals(values(1, 1), all.get(a)); // 스냅샷에 없으면 그대로
+        assertArrayEquals(values(20, 0), all.get(b));
+        assertArrayEquals(values(0, 7), all.get(c));
+        assertEquals(2, storage.journalSeq());
+    }
+
+    @Test
+    void batchLoad() throws IOException {
+        Map<UUID, long[]> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 600; i++) { // SQLite IN 묶음 크기보다 많이
+            expected.put(UUID.randomUUID(), values(i, i * 2L));
+        }
+        storage.upsert(snapshot(1, expected));
+        UUID missing = UUID.randomUUID();
+        List<UUID> requested = new ArrayList<>(expected.keySet());
+        requested.add(missing);
+        Collections.reverse(requested);
+
+        Map<UUID, long[]> loaded = storage.load(requested);
+        assertEquals(expected.size(), loaded.size());
+        assertFalse(loaded.containsKey(missing)); // 저장된 적이 없으면 결과에 없음
+        for (Map.Entry<UUID, long[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), loaded.get(entry.getKey()));
+        }
+        assertTrue(storage.load(List.of()).isEmpty());
+    }
+
+    @Test
+    void valuesSurviveReopen() throws IOException {
+        Map<UUID, long[]> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            expected.put(UUID.randomUUID(), values(i, Long.MAX_VALUE - i));
+        }
+        storage.upsert(snapshot(7, expected));
+        storage.upsert(snapshot(9, Map.of()));
+        storage.close();
+
+        storage = create(dir);
+        storage.open();
+        assertEquals(9, storage.journalSeq());
+        assertEquals(expected.size(), storage.count());
+        Map<UUID, long[]> all = loadAll(storage);
+        assertEquals(expected.size(), all.size());
+        for (Map.Entry<UUID, long[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), all.get(entry.getKey()));
+            assertArrayEquals(entry.getValue(), storage.load(entry.getKey()));
+        }
+    }
+
+    // 첫 두 분야만 지정하고 나머지는 0
+    static long[] values(long first, long second) {
+        long[] values = new long[SoulCategory.COUNT];
+        values[0] = first;
+        values[1] = second;
+        return values;
+    }
+
+    // 저장소를 거치지 않고 스냅샷을 만들기 위해 dirty한 PlayerSouls를 캡처
+    static SoulSnapshot snapshot(int journalSeq, Map<UUID, long[]> players) {
+        Map<UUID, PlayerSouls> souls = new LinkedHashMap<>();
+        for (Map.Entry<UUID, long[]> entry : players.entrySet()) {
+            PlayerSouls player = new PlayerSouls(entry.getKey(), null);
+            for (SoulCategory category : SoulCategory.VALUES) {
+                player.setSoul(category, entry.getValue()[category.ordinal()]);
+            }
+            souls.put(entry.getKey(), player);
+        }
+        return SoulSnapshot.captureDirty(souls, journalSeq);
+    }
+
+    static Map<UUID, long[]> loadAll(SoulStorage storage) throws IOException {
+        Map<UUID, long[]> all = new HashMap<>();
+        storage.loadAll((uuid, values) -> assertNull(all.put(uuid, values.clone()), "중복 플레이어: " + uuid));
+        return all;
+    }
+}
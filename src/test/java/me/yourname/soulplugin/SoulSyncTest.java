@@ -0,0 +1,229 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static me.yourname.soulplugin.SoulStorageContractTest.snapshot;
+import static me.yourname.soulplugin.SoulStorageContractTest.values;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 LoopbackSyncTransport.Hub에 연결된 서버(Node) 여러 개로 SoulSync를 검증합니다.
+ */
+class SoulSyncTest {
+    private static final Logger LOGGER = Logger.getLogger("SoulSyncTest");
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @TempDir
+    File dir;
+
+    private final LoopbackSyncTransport.Hub hub = new LoopbackSyncTransport.Hub();
+    private final List<Node> nodes = new ArrayList<>();
+
+    // 서버 하나. 저장소/캐시/동기화를 모두 따로 가짐 (비동기/메인 실행은 호출한 스레드에서 바로)
+    private final class Node {
+        final SoulStorage storage;
+        final SoulCache cache;
+        final SoulSync sync;
+
+        Node(String name, SyncTransport transport, int maxOffline) throws IOException {
+            storage = new BinarySoulStorage(new File(dir, name), LOGGER);
+            storage.open();
+            sync = new SoulSync(transport, Runnable::run, Runnable::run, LOGGER);
+            cache = new SoulCache(storage, null, sync, maxOffline, maxOffline == 0 ? 0 : 60_000L);
+            sync.start(cache);
+            nodes.add(this);
+        }
+
+        Node(String name, SyncTransport transport) throws IOException {
+            this(name, transport, 100);
+        }
+
+        Node(String name) throws IOException {
+            this(name, new LoopbackSyncTransport(hub));
+        }
+
+        PlayerSouls join() throws IOException {
+            return cache.loadBlocking(PLAYER, true);
+        }
+
+        long souls(SoulCategory category) {
+            return cache.get(PLAYER).getSouls(category);
+        }
+    }
+
+    // 보낸 메시지를 두 번씩 전달하는 전송 계층 (재전송/중복 전달 재현)
+    private static final class DuplicatingTransport implements SyncTransport {
+        private final SyncTransport inner;
+
+        DuplicatingTransport(SyncTransport inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public String name() {
+            return "duplicating";
+        }
+
+        @Override
+        public void start(Consumer<byte[]> receiver) {
+            inner.start(receiver);
+        }
+
+        @Override
+        public void publish(byte[] message) {
+            inner.publish(message);
+            inner.publish(message);
+        }
+
+        @Override
+        public void close() {
+            inner.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Node node : nodes) {
+            node.sync.close();
+            node.storage.close();
+        }
+        hub.shutdown();
+    }
+
+    // 지금까지 Hub에 들어간 메시지가 모두 전달될 때까지 대기 (형식 버전이 다른 표시 메시지는 SoulSync가 무시함)
+    private void drain() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        byte[] marker = {0};
+        LoopbackSyncTransport probe = new LoopbackSyncTransport(hub);
+        probe.start(message -> {
+            if (message.length == 1) delivered.countDown();
+        });
+        probe.publish(marker);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS), "Hub 전달이 끝나지 않았습니다.");
+        probe.close();
+    }
+
+    // 모든 서버의 남은 변경을 더 이상 없을 때까지 주고받음
+    private void settle() throws InterruptedException {
+        for (int round = 0; round < 5; round++) {
+            for (Node node : nodes) node.sync.flush();
+            drain();
+        }
+    }
+
+    @Test
+    void handsOffToOtherServer() throws Exception {
+        Node a = new Node("a");
+        Node b = new Node("b");
+        a.join().addSoul(SoulCategory.MINING, 4);
+        a.sync.flush();
+        drain();
+
+        assertEquals(4, b.souls(SoulCategory.MINING)); // b는 메모리에 없었으므로 불러와서 적용
+    }
+
+    @Test
+    void concurrentChangesConverge() throws Exception {
+        Node a = new Node("a");
+        Node b = new Node("b");
+        PlayerSouls onA = a.join();
+        PlayerSouls onB = b.join();
+
+        // 서로의 변경을 받기 전에 양쪽에서 동시에 변경
+        onA.addSoul(SoulCategory.MINING, 5);
+        onB.addSoul(SoulCategory.MINING, 7);
+        onB.addSoul(SoulCategory.HUNTING, 1);
+        settle();
+
+        assertEquals(12, a.souls(SoulCategory.MINING));
+        assertEquals(12, b.souls(SoulCategory.MINING));
+        assertEquals(1, a.souls(SoulCategory.HUNTING));
+        assertEquals(1, b.souls(SoulCategory.HUNTING));
+    }
+
+    @Test
+    void concurrentThreadsConverge() throws Exception {
+        Node a = new Node("a");
+        Node b = new Node("b");
+        Node c = new Node("c");
+        List<PlayerSouls> players = List.of(a.join(), b.join(), c.join());
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < players.size(); i++) {
+            PlayerSouls souls = players.get(i);
+            SoulSync sync = nodes.get(i).sync;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < 2_000; n++) {
+                    souls.addSoul(SoulCategory.FARMING, 1);
+                    if (n % 50 == 0) sync.flush();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        settle();
+
+        long expected = a.souls(SoulCategory.FARMING);
+        assertEquals(expected, b.souls(SoulCategory.FARMING));
+        assertEquals(expected, c.souls(SoulCategory.FARMING));
+    }
+
+    @Test
+    void duplicateMessageAppliedOnce() throws Exception {
+        Node a = new Node("a", new DuplicatingTransport(new LoopbackSyncTransport(hub)));
+        Node b = new Node("b");
+        PlayerSouls onA = a.join();
+        PlayerSouls onB = b.join();
+
+        onB.addSoul(SoulCategory.MINING, 2); // b에 아직 보내지 않은 변경이 있으면 받은 변경량을 더함
+        onA.addSoul(SoulCategory.MINING, 5);
+        a.sync.flush(); // 같은 묶음이 두 번 전달됨
+        drain();
+        assertEquals(7, b.souls(SoulCategory.MINING)); // 두 번 더했다면 12
+
+        settle();
+        assertEquals(7, a.souls(SoulCategory.MINING));
+        assertEquals(7, b.souls(SoulCategory.MINING));
+    }
+
+    @Test
+    void pendingChangesKeepPlayerCached() throws Exception {
+        Node a = new Node("a", new LoopbackSyncTransport(hub), 0); // 저장되는 즉시 내보내는 캐시
+        Node b = new Node("b");
+        a.storage.upsert(snapshot(0, Map.of(PLAYER, values(1, 0))));
+        SoulCache cache = a.cache;
+        PlayerSouls souls = cache.loadBlocking(PLAYER, false);
+        souls.addSoul(SoulCategory.MINING, 3);
+        a.storage.upsert(SoulSnapshot.captureDirty(cache.resident(), 1)); // 저장은 끝났지만 아직 보내지 않음
+
+        cache.evictIdle(1);
+        assertSame(souls, cache.get(PLAYER));
+        a.sync.flush();
+        drain();
+        assertEquals(4, b.souls(SoulCategory.MINING));
+
+        cache.evictIdle(1);
+        assertNull(cache.get(PLAYER)); // 보낸 뒤에는 내보냄
+    }
+}
@@ -0,0 +1,11 @@
+package me.yourname.soulplugin;
+
+import java.io.File;
+
+class SqliteSoulStorageTest extends SoulStorageContractTest {
+
+    @Override
+    SoulStorage create(File dir) {
+        return new SqliteSoulStorage(new File(dir, "souls.db"), LOGGER);
+    }
+}
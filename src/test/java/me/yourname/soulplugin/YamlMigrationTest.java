@@ -0,0 +1,72 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static me.yourname.soulplugin.SoulStorageContractTest.loadAll;
+import static me.yourname.soulplugin.SoulStorageContractTest.snapshot;
+import static me.yourname.soulplugin.SoulStorageContractTest.values;
+import static org.junit.jupiter.api.Assertions.*;
+
+class YamlMigrationTest {
+    private static final Logger LOGGER = Logger.getLogger("YamlMigrationTest");
+
+    @TempDir
+    File dir;
+
+    // 기존 souls.yml을 만들어 둠
+    private File writeYaml(Map<UUID, long[]> players, int journalSeq) throws IOException {
+        File file = new File(dir, "souls.yml");
+        YamlSoulStorage yaml = new YamlSoulStorage(file, LOGGER);
+        yaml.open();
+        yaml.upsert(snapshot(journalSeq, players));
+        yaml.close();
+        return file;
+    }
+
+    @Test
+    void movesAllPlayersAndRenamesFile() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        File yamlFile = writeYaml(Map.of(a, values(5, 0), b, values(0, 9)), 4);
+
+        SoulStorage target = new BinarySoulStorage(new File(dir, "souls"), LOGGER);
+        target.open();
+        assertEquals(2, YamlSoulStorage.migrate(yamlFile, target, LOGGER));
+
+        Map<UUID, long[]> all = loadAll(target);
+        assertEquals(2, all.size());
+        assertArrayEquals(values(5, 0), all.get(a));
+        assertArrayEquals(values(0, 9), all.get(b));
+        assertEquals(4, target.journalSeq()); // 남은 저널을 souls.yml 기준으로 이어서 재생해야 함
+        target.close();
+
+        assertFalse(yamlFile.exists());
+        assertTrue(new File(dir, "souls.yml.migrated").exists());
+    }
+
+    @Test
+    void skipsWhenTargetHasData() throws IOException {
+        UUID existing = UUID.randomUUID();
+        File yamlFile = writeYaml(Map.of(UUID.randomUUID(), values(1, 1)), 1);
+
+        SoulStorage target = new BinarySoulStorage(new File(dir, "souls"), LOGGER);
+        target.open();
+        target.upsert(snapshot(2, Map.of(existing, values(3, 3))));
+        assertEquals(-1, YamlSoulStorage.migrate(yamlFile, target, LOGGER));
+
+        Map<UUID, long[]> all = loadAll(target);
+        assertEquals(1, all.size());
+        assertArrayEquals(values(3, 3), all.get(existing));
+        target.close();
+
+        assertTrue(yamlFile.exists()); // 건너뛰면 원본은 그대로
+        assertFalse(new File(dir, "souls.yml.migrated").exists());
+    }
+}
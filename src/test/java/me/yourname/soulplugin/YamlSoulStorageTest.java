@@ -0,0 +1,107 @@
+package me.yourname.soulplugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YamlSoulStorageTest extends SoulStorageContractTest {
+
+    @Override
+    SoulStorage create(File dir) {
+        return new YamlSoulStorage(new File(dir, "souls.yml"), LOGGER);
+    }
+
+    @Test
+    void mergesIntoExistingFile() throws IOException {
+        UUID a = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+        UUID b = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+        UUID c = UUID.randomUUID();
+        storage.close();
+        // 이전 버전이 쓴 파일 (분야 일부만 있음)
+        Files.writeString(new File(dir, "souls.yml").toPath(), """
+                journal-seq: 2
+                players:
+                  %s:
+                    광물: 10
+                  %s:
+                    농작물: 4
+                """.formatted(b, a), StandardCharsets.UTF_8);
+        storage = create(dir);
+        storage.open();
+        assertEquals(2, storage.count());
+        assertEquals(2, storage.journalSeq());
+
+        storage.upsert(snapshot(3, Map.of(a, values(1, 5), c, values(0, 2))));
+
+        List<UUID> order = new ArrayList<>();
+        storage.loadAll((uuid, values) -> order.add(uuid));
+        assertEquals(List.of(b, a, c), order); // 기존 순서 유지, 새 플레이어는 끝에
+        assertEquals(3, storage.count());
+        assertArrayEquals(values(10, 0), storage.load(b)); // 스냅샷에 없으면 그대로
+        assertArrayEquals(values(1, 5), storage.load(a));
+        assertArrayEquals(values(0, 2), storage.load(c));
+        assertFalse(new File(dir, "souls.yml.tmp").exists());
+    }
+
+    @Test
+    void loadsHandEditedFileByIndex() throws IOException {
+        UUID a = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+        UUID b = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+        UUID c = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+        storage.close();
+        // 주석, 흐름(flow) 형식, 알 수 없는 키, CRLF 줄바꿈, players 뒤의 journal-seq
+        Files.writeString(new File(dir, "souls.yml").toPath(), ("""
+                # 손으로 고친 파일
+                players:
+                  %s: {광물: 3, 암살: 9}
+                  '%s':
+                    # 농작물만
+                    농작물: 4
+                    메모: 한글 값
+                  %s:
+                    사냥: 12
+                journal-seq: 5
+                """).formatted(a, b, c).replace("\n", "\r\n"), StandardCharsets.UTF_8);
+        storage = create(dir);
+        storage.open();
+        assertEquals(3, storage.count());
+        assertEquals(5, storage.journalSeq());
+
+        long[] expectedA = new long[SoulCategory.COUNT];
+        expectedA[SoulCategory.MINING.ordinal()] = 3;
+        expectedA[SoulCategory.ASSASSINATION.ordinal()] = 9;
+        long[] expectedC = new long[SoulCategory.COUNT];
+        expectedC[SoulCategory.HUNTING.ordinal()] = 12;
+        assertArrayEquals(expectedA, storage.load(a));
+        assertArrayEquals(values(0, 4), storage.load(b));
+        assertArrayEquals(expectedC, storage.load(c));
+        Map<UUID, long[]> batch = storage.load(List.of(c, a));
+        assertArrayEquals(expectedA, batch.get(a));
+        assertArrayEquals(expectedC, batch.get(c));
+    }
+
+    @Test
+    void rebuildsIndexWhenFileChangedUnderneath() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        storage.upsert(snapshot(1, Map.of(a, values(1, 1), b, values(2, 2))));
+        // 서버가 켜져 있는 동안 파일을 고침 (a 앞에 다른 내용이 끼어들어 위치가 모두 바뀜)
+        File file = new File(dir, "souls.yml");
+        String edited = Files.readString(file.toPath(), StandardCharsets.UTF_8)
+                .replace("players:", "players:\n  " + UUID.randomUUID() + ":\n    광물: 77");
+        Files.writeString(file.toPath(), edited, StandardCharsets.UTF_8);
+
+        assertArrayEquals(values(1, 1), storage.load(a));
+        assertArrayEquals(values(2, 2), storage.load(b));
+        assertEquals(3, storage.count());
+    }
+}